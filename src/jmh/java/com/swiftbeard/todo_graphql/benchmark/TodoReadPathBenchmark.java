@@ -0,0 +1,160 @@
+package com.swiftbeard.todo_graphql.benchmark;
+
+import com.swiftbeard.todo_graphql.TodoGraphqlApplication;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
+import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import com.swiftbeard.todo_graphql.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Hibernate and plain JDBC implementations of the hottest todo reads against
+ * the in-memory H2 database. Each invocation runs in its own read-only transaction, so the
+ * JPA side pays for a fresh persistence context exactly as a GraphQL request does.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TodoReadPathBenchmark {
+
+    @Param({"200"})
+    private int users;
+
+    @Param({"50"})
+    private int todosPerUser;
+
+    // Keys per todosByUser DataLoader batch
+    @Param({"20"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private TodoJdbcRepository todoJdbcRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private List<Long> userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoGraphqlApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "todo.scheduling.enabled=false",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "logging.level.root=WARN")
+            .run();
+
+        todoRepository = context.getBean(TodoRepository.class);
+        todoJdbcRepository = context.getBean(TodoJdbcRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        seed(context.getBean(UserRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Todo> findByUserIdJpa() {
+        return readOnlyTransaction.execute(status -> todoRepository.findByUserId(randomUserId()));
+    }
+
+    @Benchmark
+    public Object findByUserIdJdbc() {
+        return readOnlyTransaction.execute(status -> todoJdbcRepository.findByUserId(randomUserId()));
+    }
+
+    @Benchmark
+    public List<Todo> findByUserIdInJpa() {
+        return readOnlyTransaction.execute(status -> todoRepository.findByUserIdIn(randomUserBatch()));
+    }
+
+    @Benchmark
+    public Object findByUserIdInJdbc() {
+        return readOnlyTransaction.execute(status -> todoJdbcRepository.findByUserIdIn(randomUserBatch()));
+    }
+
+    @Benchmark
+    public Long countByUserIdAndStatusJpa() {
+        return readOnlyTransaction.execute(status ->
+            todoRepository.countByUserIdAndStatus(randomUserId(), TodoStatus.PENDING));
+    }
+
+    @Benchmark
+    public Long countByUserIdAndStatusJdbc() {
+        return readOnlyTransaction.execute(status ->
+            todoJdbcRepository.countByUserIdAndStatus(randomUserId(), TodoStatus.PENDING));
+    }
+
+    private void seed(UserRepository userRepository) {
+        TodoStatus[] statuses = TodoStatus.values();
+        TodoPriority[] priorities = TodoPriority.values();
+        userIds = new ArrayList<>(users);
+
+        for (int u = 0; u < users; u++) {
+            User user = userRepository.save(User.builder()
+                .username("bench" + u)
+                .email("bench" + u + "@example.com")
+                .firstName("Bench")
+                .lastName("User " + u)
+                .build());
+            userIds.add(user.getId());
+
+            List<Todo> todos = new ArrayList<>(todosPerUser);
+            for (int t = 0; t < todosPerUser; t++) {
+                todos.add(Todo.builder()
+                    .title("Todo " + t + " of user " + u)
+                    .description("Benchmark todo " + t)
+                    .status(statuses[t % statuses.length])
+                    .priority(priorities[t % priorities.length])
+                    .dueDate(LocalDateTime.now().plusDays(t - todosPerUser / 2))
+                    .user(user)
+                    .build());
+            }
+            todoRepository.saveAll(todos);
+        }
+    }
+
+    private Long randomUserId() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    private List<Long> randomUserBatch() {
+        int start = ThreadLocalRandom.current().nextInt(userIds.size() - batchSize + 1);
+        return userIds.subList(start, start + batchSize);
+    }
+}
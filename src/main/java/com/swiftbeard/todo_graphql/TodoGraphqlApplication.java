@@ -2,8 +2,10 @@ package com.swiftbeard.todo_graphql;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class TodoGraphqlApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,292 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of cached values, used by every level that holds them: the node-local
+ * caches, the off-heap tier and the remote cache. Ids and versions are variable-length longs,
+ * timestamps epoch-millisecond longs plus the sub-millisecond nanos, enums ordinal bytes and
+ * strings length-prefixed UTF-8. A bitmask ahead of each record marks its non-null fields.
+ * <p>
+ * Every value starts with a format byte and a kind byte, so bytes of another format or cache fail
+ * to decode instead of being misread.
+ */
+public final class BinaryCacheValueSerializer implements CacheValueSerializer {
+
+    private static final byte FORMAT = 1;
+
+    private static final byte USER = 'U';
+    private static final byte TODO = 'T';
+    private static final byte TODO_LIST = 'L';
+    private static final byte ID = 'I';
+
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+    private static final TodoPriority[] PRIORITIES = TodoPriority.values();
+
+    private final byte kind;
+
+    private BinaryCacheValueSerializer(byte kind) {
+        this.kind = kind;
+    }
+
+    public static BinaryCacheValueSerializer users() {
+        return new BinaryCacheValueSerializer(USER);
+    }
+
+    public static BinaryCacheValueSerializer todos() {
+        return new BinaryCacheValueSerializer(TODO);
+    }
+
+    public static BinaryCacheValueSerializer todoLists() {
+        return new BinaryCacheValueSerializer(TODO_LIST);
+    }
+
+    public static BinaryCacheValueSerializer ids() {
+        return new BinaryCacheValueSerializer(ID);
+    }
+
+    /**
+     * Number of todos in an encoded todo list, or 1 for any other value.
+     */
+    public static int elementCount(byte[] bytes) {
+        if (bytes.length > 2 && bytes[0] == FORMAT && bytes[1] == TODO_LIST) {
+            return (int) new Input(bytes, 2).readVarLong();
+        }
+        return 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) {
+        Output out = new Output();
+        out.writeByte(FORMAT);
+        out.writeByte(kind);
+        try {
+            switch (kind) {
+                case USER -> writeUser(out, (UserSnapshot) value);
+                case TODO -> writeTodo(out, (TodoSnapshot) value);
+                case TODO_LIST -> {
+                    List<TodoSnapshot> todos = (List<TodoSnapshot>) value;
+                    out.writeVarLong(todos.size());
+                    todos.forEach(todo -> writeTodo(out, todo));
+                }
+                default -> out.writeVarLong((Long) value);
+            }
+        } catch (ClassCastException ex) {
+            throw new SerializationFailedException("Cannot serialize cached " + kindName(), ex);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes.length < 2 || bytes[0] != FORMAT || bytes[1] != kind) {
+            throw new SerializationFailedException("Cannot deserialize cached " + kindName() + ": unknown format");
+        }
+        Input in = new Input(bytes, 2);
+        try {
+            return switch (kind) {
+                case USER -> readUser(in);
+                case TODO -> readTodo(in);
+                case TODO_LIST -> {
+                    int size = (int) in.readVarLong();
+                    List<TodoSnapshot> todos = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        todos.add(readTodo(in));
+                    }
+                    yield List.copyOf(todos);
+                }
+                default -> in.readVarLong();
+            };
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new SerializationFailedException("Cannot deserialize cached " + kindName() + ": truncated", ex);
+        }
+    }
+
+    private String kindName() {
+        return switch (kind) {
+            case USER -> "user";
+            case TODO -> "todo";
+            case TODO_LIST -> "todo list";
+            default -> "id";
+        };
+    }
+
+    private static void writeUser(Output out, UserSnapshot user) {
+        out.writeVarLong(presence(user.id(), user.username(), user.email(), user.firstName(), user.lastName(),
+            user.isActive(), user.createdAt(), user.updatedAt(), user.version())
+            | (Boolean.TRUE.equals(user.isActive()) ? 1 << 9 : 0));
+        out.writeVarLongIfPresent(user.id());
+        out.writeStringIfPresent(user.username());
+        out.writeStringIfPresent(user.email());
+        out.writeStringIfPresent(user.firstName());
+        out.writeStringIfPresent(user.lastName());
+        out.writeTimestampIfPresent(user.createdAt());
+        out.writeTimestampIfPresent(user.updatedAt());
+        out.writeVarLongIfPresent(user.version());
+    }
+
+    private static UserSnapshot readUser(Input in) {
+        int mask = (int) in.readVarLong();
+        return new UserSnapshot(
+            has(mask, 0) ? in.readVarLong() : null,
+            has(mask, 1) ? in.readString() : null,
+            has(mask, 2) ? in.readString() : null,
+            has(mask, 3) ? in.readString() : null,
+            has(mask, 4) ? in.readString() : null,
+            has(mask, 5) ? has(mask, 9) : null,
+            has(mask, 6) ? in.readTimestamp() : null,
+            has(mask, 7) ? in.readTimestamp() : null,
+            has(mask, 8) ? in.readVarLong() : null);
+    }
+
+    private static void writeTodo(Output out, TodoSnapshot todo) {
+        out.writeVarLong(presence(todo.id(), todo.title(), todo.description(), todo.status(), todo.priority(),
+            todo.dueDate(), todo.completedAt(), todo.userId(), todo.createdAt(), todo.updatedAt(), todo.version()));
+        out.writeVarLongIfPresent(todo.id());
+        out.writeStringIfPresent(todo.title());
+        out.writeStringIfPresent(todo.description());
+        if (todo.status() != null) {
+            out.writeByte(todo.status().ordinal());
+        }
+        if (todo.priority() != null) {
+            out.writeByte(todo.priority().ordinal());
+        }
+        out.writeTimestampIfPresent(todo.dueDate());
+        out.writeTimestampIfPresent(todo.completedAt());
+        out.writeVarLongIfPresent(todo.userId());
+        out.writeTimestampIfPresent(todo.createdAt());
+        out.writeTimestampIfPresent(todo.updatedAt());
+        out.writeVarLongIfPresent(todo.version());
+    }
+
+    private static TodoSnapshot readTodo(Input in) {
+        int mask = (int) in.readVarLong();
+        return new TodoSnapshot(
+            has(mask, 0) ? in.readVarLong() : null,
+            has(mask, 1) ? in.readString() : null,
+            has(mask, 2) ? in.readString() : null,
+            has(mask, 3) ? STATUSES[in.readByte()] : null,
+            has(mask, 4) ? PRIORITIES[in.readByte()] : null,
+            has(mask, 5) ? in.readTimestamp() : null,
+            has(mask, 6) ? in.readTimestamp() : null,
+            has(mask, 7) ? in.readVarLong() : null,
+            has(mask, 8) ? in.readTimestamp() : null,
+            has(mask, 9) ? in.readTimestamp() : null,
+            has(mask, 10) ? in.readVarLong() : null);
+    }
+
+    // Bit i is set when the i-th field is not null
+    private static int presence(Object... fields) {
+        int mask = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private static boolean has(int mask, int bit) {
+        return (mask & (1 << bit)) != 0;
+    }
+
+    private static final class Output {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+
+        void writeByte(int value) {
+            bytes.write(value);
+        }
+
+        // Seven bits per byte, low bits first; ids and versions mostly fit in one to three bytes
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        void writeVarLongIfPresent(Long value) {
+            if (value != null) {
+                writeVarLong(value);
+            }
+        }
+
+        void writeStringIfPresent(String value) {
+            if (value != null) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(utf8.length);
+                bytes.write(utf8, 0, utf8.length);
+            }
+        }
+
+        // Epoch millis in UTC, then the nanos below the millisecond (one byte when there are none)
+        void writeTimestampIfPresent(LocalDateTime value) {
+            if (value != null) {
+                long millis = value.toInstant(ZoneOffset.UTC).toEpochMilli();
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    bytes.write((int) (millis >>> shift));
+                }
+                writeVarLong(value.getNano() % 1_000_000);
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class Input {
+
+        private final ByteBuffer buffer;
+
+        Input(byte[] bytes, int offset) {
+            this.buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+        }
+
+        int readByte() {
+            return buffer.get();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = buffer.get();
+                value |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0);
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        LocalDateTime readTimestamp() {
+            long millis = buffer.getLong();
+            int nanosOfMilli = (int) readVarLong();
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                (int) Math.floorMod(millis, 1000) * 1_000_000 + nanosOfMilli, ZoneOffset.UTC);
+        }
+    }
+}
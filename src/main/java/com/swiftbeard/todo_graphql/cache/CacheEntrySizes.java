@@ -0,0 +1,53 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import java.util.Collection;
+
+/**
+ * Estimates the heap retained by one entry of a Caffeine service cache, for caches with a byte budget.
+ * Cached values are held in their compact encoding, so the estimate is mostly the length of the bytes;
+ * the rest is a fixed allowance for the key and the cache's own per-entry structures.
+ */
+public final class CacheEntrySizes {
+
+    // Caffeine node with expiry and weight fields, hash table slot, and the future of an async cache
+    static final int ENTRY_OVERHEAD = 96;
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int BOXED_LONG = 16;
+    // Retained size of an unencoded value, such as an element of a list or an entry in a test
+    private static final int UNKNOWN_VALUE = 64;
+
+    private CacheEntrySizes() {
+    }
+
+    public static int estimatedBytes(Object key, Object value) {
+        long bytes = (long) ENTRY_OVERHEAD + keyBytes(key) + valueBytes(value);
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long keyBytes(Object key) {
+        // Two-level caches key L1 by the string form of the id
+        if (key instanceof String string) {
+            return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + string.length());
+        }
+        return BOXED_LONG;
+    }
+
+    private static long valueBytes(Object value) {
+        if (value instanceof byte[] bytes) {
+            return align(ARRAY_HEADER + bytes.length);
+        }
+        if (value instanceof Long) {
+            return BOXED_LONG;
+        }
+        if (value instanceof Collection<?> list) {
+            return align(ARRAY_HEADER + 4L * list.size()) + (long) UNKNOWN_VALUE * list.size();
+        }
+        return UNKNOWN_VALUE;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
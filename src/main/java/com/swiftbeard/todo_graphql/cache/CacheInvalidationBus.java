@@ -0,0 +1,257 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the service caches of all nodes in step with committed writes. Keys changed in one
+ * transaction are collected and, once it commits, evicted or replaced with their new value here
+ * and announced to the other nodes in one message per cache. Messages from other nodes are
+ * applied in batches to this node's caches only. Without a transport, only the local update happens.
+ * Either way, remembered not-found results for the changed keys are dropped too.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final CacheManager cacheManager;
+    private final CacheInvalidationTransport transport;
+    private final NegativeLookupCache negativeLookupCache;
+    private final int maxKeysPerMessage;
+    private final List<BiConsumer<String, Set<Long>>> remoteChangeListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter messagesSent;
+    private final Counter sendFailures;
+    private final Counter keysApplied;
+    private final DistributionSummary batchSize;
+    private final Timer propagationLatency;
+
+    public CacheInvalidationBus(CacheManager cacheManager,
+                                Optional<CacheInvalidationTransport> transport,
+                                NegativeLookupCache negativeLookupCache,
+                                CachingProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.transport = transport.orElse(null);
+        this.negativeLookupCache = negativeLookupCache;
+        this.maxKeysPerMessage = properties.getInvalidation().getMaxKeysPerMessage();
+
+        this.messagesSent = Counter.builder("todo.cache.invalidation.sent")
+            .description("Invalidation messages sent to other nodes")
+            .register(meterRegistry);
+        this.sendFailures = Counter.builder("todo.cache.invalidation.send.failures")
+            .description("Invalidation messages that could not be sent")
+            .register(meterRegistry);
+        this.keysApplied = Counter.builder("todo.cache.invalidation.applied")
+            .description("Cache keys evicted because another node changed them")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("todo.cache.invalidation.batch.size")
+            .description("Invalidation messages applied together")
+            .register(meterRegistry);
+        this.propagationLatency = Timer.builder("todo.cache.invalidation.latency")
+            .description("Time from sending an invalidation to applying it on another node")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
+        if (this.transport != null) {
+            this.transport.listen(this::apply);
+        }
+    }
+
+    /**
+     * Evicts the keys here and on every other node once the current transaction commits.
+     */
+    public void evictAfterCommit(String cacheName, Collection<Long> keys) {
+        if (!keys.isEmpty()) {
+            pending().add(cacheName, keys);
+        }
+    }
+
+    public void evictAfterCommit(String cacheName, Long key) {
+        evictAfterCommit(cacheName, List.of(key));
+    }
+
+    /**
+     * Stores the new value here and evicts the key on every other node once the current transaction commits.
+     */
+    public void putAfterCommit(String cacheName, Long key, Object value) {
+        pending().put(cacheName, key, value);
+    }
+
+    /**
+     * Whether writes on other nodes reach this one; without a transport, this node only sees its own.
+     */
+    public boolean hasTransport() {
+        return transport != null;
+    }
+
+    /**
+     * Registers a callback for the keys other nodes changed, run after this node's copies were evicted.
+     */
+    public void onRemoteChange(BiConsumer<String, Set<Long>> listener) {
+        remoteChangeListeners.add(listener);
+    }
+
+    void apply(List<String> payloads) {
+        long now = System.currentTimeMillis();
+        Map<String, Set<Long>> keysByCache = new HashMap<>();
+        for (String payload : payloads) {
+            CacheInvalidationMessage message;
+            try {
+                message = CacheInvalidationMessage.decode(payload);
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring cache invalidation: {}", ex.getMessage());
+                continue;
+            }
+            if (nodeId.equals(message.origin())) {
+                continue;
+            }
+            propagationLatency.record(Duration.ofMillis(Math.max(0, now - message.sentAtMillis())));
+            keysByCache.computeIfAbsent(message.cacheName(), name -> new LinkedHashSet<>()).addAll(message.keys());
+        }
+        keysByCache.forEach(this::evictLocalCopies);
+        remoteChangeListeners.forEach(keysByCache::forEach);
+        batchSize.record(payloads.size());
+    }
+
+    private void evictLocalCopies(String cacheName, Set<Long> keys) {
+        negativeLookupCache.forget(cacheName, keys);
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (Long key : keys) {
+            // The shared level already holds the other node's write
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.invalidateLocal(String.valueOf(key));
+            } else {
+                cache.evict(key);
+            }
+        }
+        keysApplied.increment(keys.size());
+        log.debug("Applied invalidation of {} keys in cache {}", keys.size(), cacheName);
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // No transaction to wait for: the returned batch is flushed by the caller right away
+            return new Pending(true);
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending(false);
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void flush(Map<String, Set<Long>> evicted, Map<String, Map<Long, Object>> stored) {
+        evicted.forEach(negativeLookupCache::forget);
+        stored.forEach((cacheName, values) -> negativeLookupCache.forget(cacheName, values.keySet()));
+        evicted.forEach((cacheName, keys) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                keys.forEach(cache::evict);
+            }
+        });
+        stored.forEach((cacheName, values) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                values.forEach(cache::put);
+            }
+        });
+        if (transport == null) {
+            return;
+        }
+        Map<String, Set<Long>> all = new LinkedHashMap<>();
+        stored.forEach((cacheName, values) -> all.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(values.keySet()));
+        evicted.forEach((cacheName, keys) -> all.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(keys));
+        long now = System.currentTimeMillis();
+        all.forEach((cacheName, keys) -> {
+            List<Long> ordered = new ArrayList<>(keys);
+            for (int from = 0; from < ordered.size(); from += maxKeysPerMessage) {
+                List<Long> chunk = ordered.subList(from, Math.min(from + maxKeysPerMessage, ordered.size()));
+                send(new CacheInvalidationMessage(nodeId, now, cacheName, chunk));
+            }
+        });
+    }
+
+    private void send(CacheInvalidationMessage message) {
+        try {
+            transport.send(message.encode());
+            messagesSent.increment();
+        } catch (RuntimeException ex) {
+            sendFailures.increment();
+            log.warn("Could not send invalidation of cache {}: {}", message.cacheName(), ex.getMessage());
+        }
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final boolean immediate;
+        private final Map<String, Set<Long>> evicted = new LinkedHashMap<>();
+        private final Map<String, Map<Long, Object>> stored = new LinkedHashMap<>();
+
+        private Pending(boolean immediate) {
+            this.immediate = immediate;
+        }
+
+        void add(String cacheName, Collection<Long> keys) {
+            Map<Long, Object> values = stored.get(cacheName);
+            if (values != null) {
+                values.keySet().removeAll(keys);
+            }
+            evicted.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(keys);
+            if (immediate) {
+                flush(evicted, stored);
+            }
+        }
+
+        void put(String cacheName, Long key, Object value) {
+            // Whichever of a put and an eviction of the same key came last wins
+            Set<Long> keys = evicted.get(cacheName);
+            if (keys != null) {
+                keys.remove(key);
+            }
+            stored.computeIfAbsent(cacheName, name -> new LinkedHashMap<>()).put(key, value);
+            if (immediate) {
+                flush(evicted, stored);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            flush(evicted, stored);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+        }
+    }
+}
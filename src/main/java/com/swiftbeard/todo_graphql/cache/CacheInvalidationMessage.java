@@ -0,0 +1,39 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keys of one cache that a node changed, encoded as {@code origin|sentAtMillis|cache|id,id,...}.
+ * All service caches are keyed by entity id, so keys travel as plain numbers.
+ */
+public record CacheInvalidationMessage(String origin, long sentAtMillis, String cacheName, List<Long> keys) {
+
+    public String encode() {
+        StringBuilder payload = new StringBuilder(origin.length() + cacheName.length() + 16 + keys.size() * 8)
+            .append(origin).append('|')
+            .append(sentAtMillis).append('|')
+            .append(cacheName).append('|');
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append(keys.get(i));
+        }
+        return payload.toString();
+    }
+
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + payload);
+        }
+        List<Long> keys = new ArrayList<>();
+        if (!parts[3].isEmpty()) {
+            for (String key : parts[3].split(",")) {
+                keys.add(Long.parseLong(key));
+            }
+        }
+        return new CacheInvalidationMessage(parts[0], Long.parseLong(parts[1]), parts[2], keys);
+    }
+}
@@ -0,0 +1,18 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded {@link CacheInvalidationMessage}s between nodes. Every node, including the
+ * sender, receives each message; receivers skip their own.
+ */
+public interface CacheInvalidationTransport {
+
+    void send(String payload);
+
+    /**
+     * Starts delivering received payloads to the handler, several at a time when they arrive together.
+     */
+    void listen(Consumer<List<String>> handler);
+}
@@ -0,0 +1,11 @@
+package com.swiftbeard.todo_graphql.cache;
+
+/**
+ * Converts the values of one cache to and from the bytes stored in the remote cache level.
+ */
+public interface CacheValueSerializer {
+
+    byte[] serialize(Object value);
+
+    Object deserialize(byte[] bytes);
+}
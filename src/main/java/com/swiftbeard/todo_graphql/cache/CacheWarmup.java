@@ -0,0 +1,198 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.UserService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Saves the ids of each cache's hottest entries to a local file and reloads them on the next start,
+ * so a new node does not send every first read to the database. Warm-up runs as an application
+ * runner: Spring Boot reports the node ready only once it has finished or timed out.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.warmup.enabled", havingValue = "true")
+@Slf4j
+public class CacheWarmup implements ApplicationRunner {
+
+    private final CacheManager cacheManager;
+    private final CachingProperties.Warmup properties;
+    private final Map<String, Function<List<Long>, Map<Long, ?>>> bulkLoaders = new LinkedHashMap<>();
+
+    public CacheWarmup(CacheManager cacheManager,
+                       UserService userService,
+                       TodoService todoService,
+                       CachingProperties properties) {
+        this.cacheManager = cacheManager;
+        this.properties = properties.getWarmup();
+
+        bulkLoaders.put("users", ids -> userService.getUsersByIds(ids).stream()
+            .collect(Collectors.toMap(UserSnapshot::id, Function.identity())));
+        bulkLoaders.put("todos", ids -> todoService.getTodosByIds(ids).stream()
+            .collect(Collectors.toMap(TodoSnapshot::id, Function.identity())));
+        // Users without todos are left out: an unknown user id must still fail on read
+        bulkLoaders.put("userTodos", todoService::getTodosByUserIds);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Loads the keys of the last snapshot in parallel batches, waiting at most the configured timeout.
+     */
+    public void warmUp() {
+        Map<String, List<Long>> snapshot = readSnapshot();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            snapshot.forEach((cacheName, ids) -> {
+                Cache cache = cacheManager.getCache(cacheName);
+                Function<List<Long>, Map<Long, ?>> loader = bulkLoaders.get(cacheName);
+                if (cache == null || loader == null) {
+                    return;
+                }
+                for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+                    List<Long> batch = ids.subList(from, Math.min(from + properties.getBatchSize(), ids.size()));
+                    batches.add(CompletableFuture.runAsync(
+                        () -> loaded.addAndGet(fill(cache, loader.apply(batch))), executor));
+                }
+            });
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Cache warm-up loaded {} entries in {} ms", loaded.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException ex) {
+            log.warn("Cache warm-up timed out after {} with {} entries loaded", properties.getTimeout(), loaded.get());
+        } catch (ExecutionException ex) {
+            log.warn("Cache warm-up failed after {} entries: {}", loaded.get(), ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int fill(Cache cache, Map<Long, ?> values) {
+        values.forEach((id, value) -> {
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.putLocalIfAbsent(id, value);
+            } else {
+                cache.putIfAbsent(id, value);
+            }
+        });
+        return values.size();
+    }
+
+    @Scheduled(fixedDelayString = "${todo.cache.warmup.snapshot-interval:PT5M}",
+        initialDelayString = "${todo.cache.warmup.snapshot-interval:PT5M}")
+    public void scheduledSnapshot() {
+        writeSnapshot();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    /**
+     * Writes the ids of each cache's most frequently used entries; values are always reloaded.
+     */
+    public void writeSnapshot() {
+        Properties snapshot = new Properties();
+        for (String cacheName : bulkLoaders.keySet()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> local)) {
+                continue;
+            }
+            local.policy().eviction().ifPresent(eviction -> {
+                String ids = eviction.hottest(properties.getHotKeysPerCache()).keySet().stream()
+                    .map(Object::toString)
+                    .collect(Collectors.joining(","));
+                if (!ids.isEmpty()) {
+                    snapshot.setProperty(cacheName, ids);
+                }
+            });
+        }
+
+        Path file = properties.getSnapshotFile().toAbsolutePath();
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                snapshot.store(writer, "Hot cache keys");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote cache hot-key snapshot: {}", file);
+        } catch (IOException ex) {
+            log.warn("Could not write cache hot-key snapshot {}: {}", file, ex.getMessage());
+        }
+    }
+
+    Map<String, List<Long>> readSnapshot() {
+        Path file = properties.getSnapshotFile();
+        if (!Files.isReadable(file)) {
+            return Map.of();
+        }
+        Properties snapshot = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            snapshot.load(reader);
+        } catch (IOException ex) {
+            log.warn("Could not read cache hot-key snapshot {}: {}", file, ex.getMessage());
+            return Map.of();
+        }
+        Map<String, List<Long>> keysByCache = new LinkedHashMap<>();
+        for (String cacheName : snapshot.stringPropertyNames()) {
+            try {
+                keysByCache.put(cacheName, Arrays.stream(snapshot.getProperty(cacheName).split(","))
+                    .map(Long::valueOf)
+                    .toList());
+            } catch (NumberFormatException ex) {
+                log.warn("Ignoring hot-key snapshot of cache {}: {}", cacheName, ex.getMessage());
+            }
+        }
+        return keysByCache;
+    }
+}
@@ -0,0 +1,177 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A service cache on Caffeine {@link AsyncLoadingCache} semantics: concurrent misses of one key share a
+ * single in-flight future instead of each querying the database, and {@link #getAll} loads the missing
+ * keys of a batch with one call of the bulk loader.
+ * <p>
+ * Unlike Spring's async cache mode, a {@code @Cacheable(sync = true)} load runs on the calling thread,
+ * inside its transaction and shard routing, and holds no lock of the cache while it runs.
+ * <p>
+ * With an encoding, values are held as its compact bytes and decoded on each read. With an {@link OffHeapTier},
+ * a miss is first served from that tier; writes and evictions apply to both.
+ */
+public class CoalescingCaffeineCache extends CaffeineCache {
+
+    private final AsyncLoadingCache<Object, Object> asyncCache;
+    private final CacheValueSerializer encoding;
+    private final OffHeapTier offHeapTier;
+
+    public CoalescingCaffeineCache(String name, AsyncLoadingCache<Object, Object> cache) {
+        this(name, cache, null, null);
+    }
+
+    /**
+     * The cache's loader must return values already encoded; an off-heap tier requires an encoding.
+     */
+    public CoalescingCaffeineCache(String name,
+                                   AsyncLoadingCache<Object, Object> cache,
+                                   CacheValueSerializer encoding,
+                                   OffHeapTier offHeapTier) {
+        super(name, cache, true);
+        this.asyncCache = cache;
+        this.encoding = encoding;
+        this.offHeapTier = offHeapTier;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = asyncCache.get(key, (k, executor) -> loading);
+        if (inFlight != loading) {
+            Object value = await(key, valueLoader, inFlight);
+            if (value instanceof Failure failure) {
+                throw new ValueRetrievalException(key, valueLoader, failure.cause());
+            }
+            return (T) fromStoreValue(value);
+        }
+
+        Object promoted = offHeapTier != null ? offHeapTier.promote(key) : null;
+        if (promoted != null) {
+            loading.complete(promoted);
+            return (T) fromStoreValue(promoted);
+        }
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+            loading.complete(toStoreValue(loaded));
+        } catch (Exception ex) {
+            // Hand the failure to the callers already waiting, without caching it
+            asyncCache.asMap().remove(key, loading);
+            loading.complete(new Failure(ex));
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the values of the keys, loading all missing ones with a single call of the bulk loader.
+     * Keys the loader did not find are left out.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+        try {
+            asyncCache.getAll(keys).join().forEach((key, value) -> {
+                if (!(value instanceof Failure)) {
+                    values.put(key, fromStoreValue(value));
+                }
+            });
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+        return values;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        evictOffHeap(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            evictOffHeap(key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        evictOffHeap(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        evictOffHeap(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (offHeapTier != null) {
+            offHeapTier.clear();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        if (offHeapTier != null) {
+            offHeapTier.clear();
+        }
+        return notEmpty;
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        Object storeValue = super.toStoreValue(userValue);
+        return encoding != null && userValue != null ? encoding.serialize(storeValue) : storeValue;
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return encoding != null && storeValue instanceof byte[] bytes
+            ? encoding.deserialize(bytes)
+            : super.fromStoreValue(storeValue);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        return value instanceof Failure ? null : value;
+    }
+
+    private void evictOffHeap(Object key) {
+        if (offHeapTier != null) {
+            offHeapTier.evict(key);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    // Completes a failed load normally: Caffeine would log every failed future, including each not-found id
+    private record Failure(Throwable cause) {
+    }
+}
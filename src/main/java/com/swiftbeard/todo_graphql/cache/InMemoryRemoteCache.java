@@ -0,0 +1,64 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-local stand-in for a shared remote cache. Several cache managers sharing one instance
+ * behave like nodes sharing a remote cache, which is how tests exercise cross-node behaviour.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.remote.type", havingValue = "in-memory")
+public class InMemoryRemoteCache implements RemoteCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear(String keyPrefix) {
+        entries.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    @Override
+    public void publish(String message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously within the JVM. Used on H2 and in tests, where several
+ * buses sharing one instance stand in for several nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.invalidation.transport", havingValue = "in-process")
+public class InProcessCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<List<String>>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String payload) {
+        List<String> batch = List.of(payload);
+        handlers.forEach(handler -> handler.accept(batch));
+    }
+
+    @Override
+    public void listen(Consumer<List<String>> handler) {
+        handlers.add(handler);
+    }
+}
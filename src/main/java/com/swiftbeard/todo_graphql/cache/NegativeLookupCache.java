@@ -0,0 +1,104 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers lookups that ended in {@link ResourceNotFoundException} for a short time, so repeated
+ * reads of a missing key are answered without a database round trip. Entries are dropped by
+ * {@link CacheInvalidationBus} whenever a key of the matching service cache changes on any node.
+ */
+@Component
+public class NegativeLookupCache {
+
+    public static final String USERS = "users";
+    public static final String TODOS = "todos";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+
+    // Changes are announced by id only, so any user write may have freed an email or username
+    private static final Map<String, List<String>> ALIASES = Map.of(USERS, List.of(USERS_BY_EMAIL, USERS_BY_USERNAME));
+
+    private final boolean enabled;
+    private final OperationCacheMetrics operationCacheMetrics;
+    private final Map<String, Cache<Object, String>> lookups;
+    private final Map<String, Counter> hits;
+    private final Map<String, Counter> stored;
+
+    public NegativeLookupCache(CachingProperties properties,
+                               OperationCacheMetrics operationCacheMetrics,
+                               MeterRegistry meterRegistry) {
+        CachingProperties.Negative negative = properties.getNegative();
+        this.enabled = negative.isEnabled();
+        this.operationCacheMetrics = operationCacheMetrics;
+
+        List<String> names = List.of(USERS, TODOS, USERS_BY_EMAIL, USERS_BY_USERNAME);
+        this.lookups = names.stream().collect(Collectors.toUnmodifiableMap(name -> name,
+            name -> Caffeine.newBuilder()
+                .maximumSize(negative.getMaximumSize())
+                .expireAfterWrite(negative.getTtl())
+                .<Object, String>build()));
+        this.hits = names.stream().collect(Collectors.toUnmodifiableMap(name -> name,
+            name -> Counter.builder("todo.cache.negative.hits")
+                .description("Lookups answered as not found without querying the database")
+                .tag("lookup", name)
+                .register(meterRegistry)));
+        this.stored = names.stream().collect(Collectors.toUnmodifiableMap(name -> name,
+            name -> Counter.builder("todo.cache.negative.stored")
+                .description("Not-found results remembered")
+                .tag("lookup", name)
+                .register(meterRegistry)));
+        lookups.forEach((name, cache) -> Gauge.builder("todo.cache.negative.size", cache, Cache::estimatedSize)
+            .description("Not-found results currently remembered")
+            .tag("lookup", name)
+            .register(meterRegistry));
+    }
+
+    /**
+     * Runs the loader unless the key is known to be missing. A {@link ResourceNotFoundException} from
+     * the loader is remembered and rethrown; later calls rethrow it with the same message.
+     */
+    public <T> T get(String lookup, Object key, Supplier<T> loader) {
+        Cache<Object, String> missing = lookups.get(lookup);
+        if (!enabled || missing == null) {
+            return loader.get();
+        }
+        String message = missing.getIfPresent(key);
+        if (message != null) {
+            hits.get(lookup).increment();
+            operationCacheMetrics.record(lookup, OperationCacheMetrics.NEGATIVE_HIT);
+            throw new ResourceNotFoundException(message);
+        }
+        try {
+            return loader.get();
+        } catch (ResourceNotFoundException ex) {
+            missing.put(key, ex.getMessage());
+            stored.get(lookup).increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops the remembered misses for keys of a service cache, and every miss of the lookups by alias.
+     */
+    public void forget(String cacheName, Collection<Long> keys) {
+        Cache<Object, String> missing = lookups.get(cacheName);
+        if (missing == null) {
+            return;
+        }
+        missing.invalidateAll(keys);
+        ALIASES.getOrDefault(cacheName, List.of()).forEach(alias -> lookups.get(alias).invalidateAll());
+    }
+}
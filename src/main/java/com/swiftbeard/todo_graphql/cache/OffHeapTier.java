@@ -0,0 +1,93 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+/**
+ * Second tier of a node-local service cache, for the entries its on-heap Caffeine cache evicts for size.
+ * The encoded values are copied into direct buffers, outside the Java heap and within their own byte
+ * budget, and move back on heap when read again. An entry lives in one tier at a time.
+ */
+public class OffHeapTier {
+
+    private final Cache<Object, ByteBuffer> entries;
+    private final Counter promotions;
+    private final Counter demotions;
+
+    public OffHeapTier(String cacheName,
+                       long maximumBytes,
+                       Duration expireAfterWrite,
+                       MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((Object key, ByteBuffer buffer) -> buffer.capacity())
+            .expireAfterWrite(expireAfterWrite)
+            // Maintenance only drops buffers, so it runs inline and the byte count is always current
+            .executor(Runnable::run)
+            .build();
+
+        this.promotions = Counter.builder("todo.cache.off-heap.promotions")
+            .description("Entries moved back on heap because they were read again")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+        this.demotions = Counter.builder("todo.cache.off-heap.demotions")
+            .description("Entries moved off heap because the on-heap cache evicted them for size")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+        Gauge.builder("todo.cache.off-heap.entries", entries, Cache::estimatedSize)
+            .description("Entries held off heap")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+        Gauge.builder("todo.cache.off-heap.bytes", entries,
+                cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+            .description("Bytes of encoded values held off heap")
+            .baseUnit("bytes")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Eviction listener of the on-heap cache: keeps what it drops for size; expired entries are gone for good.
+     */
+    public void onEviction(Object key, Object value, RemovalCause cause) {
+        if (cause == RemovalCause.SIZE && key != null && value instanceof byte[] bytes) {
+            demote(key, bytes);
+        }
+    }
+
+    void demote(Object key, byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        entries.put(key, buffer);
+        demotions.increment();
+    }
+
+    /**
+     * Removes the value of a key from this tier and returns it, or {@code null} when it is not held here.
+     */
+    public byte[] promote(Object key) {
+        ByteBuffer buffer = entries.asMap().remove(key);
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        promotions.increment();
+        return bytes;
+    }
+
+    public void evict(Object key) {
+        entries.invalidate(key);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+}
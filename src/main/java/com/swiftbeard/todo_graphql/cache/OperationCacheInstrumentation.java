@@ -0,0 +1,63 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes cache lookups to the GraphQL operation whose data fetcher made them. Fetchers that
+ * hand their work to another thread (DataLoader batches) are not attributed.
+ */
+@Component
+public class OperationCacheInstrumentation extends SimplePerformantInstrumentation {
+
+    private final OperationCacheMetrics metrics;
+
+    public OperationCacheInstrumentation(OperationCacheMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new OperationState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        if (state instanceof OperationState operationState) {
+            // The document's own operation name, also when the request does not repeat it
+            operationState.operation = metrics.operationTag(
+                parameters.getExecutionContext().getOperationDefinition().getName());
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher() || !(state instanceof OperationState operationState)) {
+            return dataFetcher;
+        }
+        return environment -> {
+            String previous = metrics.bind(operationState.operation);
+            try {
+                return dataFetcher.get(environment);
+            } finally {
+                metrics.restore(previous);
+            }
+        };
+    }
+
+    static final class OperationState implements InstrumentationState {
+
+        private volatile String operation = OperationCacheMetrics.ANONYMOUS;
+    }
+}
@@ -0,0 +1,84 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts service cache hits and misses per GraphQL operation. The operation is bound to the
+ * thread running its data fetchers; lookups made outside an operation are not counted here.
+ */
+@Component
+public class OperationCacheMetrics {
+
+    static final String ANONYMOUS = "anonymous";
+    static final String OTHER = "other";
+    // Operation names come from clients, so the number of distinct tags is capped
+    static final int MAX_OPERATIONS = 200;
+    // A lookup answered from the negative cache, counted apart from hits on cached values
+    static final String NEGATIVE_HIT = "negative_hit";
+
+    private static final ThreadLocal<String> CURRENT_OPERATION = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> operations = ConcurrentHashMap.newKeySet();
+
+    public OperationCacheMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the tag value for an operation name, folding unnamed operations and names past the cap.
+     */
+    public String operationTag(String operationName) {
+        if (operationName == null || operationName.isBlank()) {
+            return ANONYMOUS;
+        }
+        if (operations.contains(operationName)) {
+            return operationName;
+        }
+        if (operations.size() >= MAX_OPERATIONS) {
+            return OTHER;
+        }
+        operations.add(operationName);
+        return operationName;
+    }
+
+    /**
+     * Binds the operation to the current thread and returns the previous binding for {@link #restore}.
+     */
+    public String bind(String operation) {
+        String previous = CURRENT_OPERATION.get();
+        CURRENT_OPERATION.set(operation);
+        return previous;
+    }
+
+    public void restore(String previous) {
+        if (previous == null) {
+            CURRENT_OPERATION.remove();
+        } else {
+            CURRENT_OPERATION.set(previous);
+        }
+    }
+
+    public void record(String cacheName, boolean hit) {
+        record(cacheName, hit ? "hit" : "miss");
+    }
+
+    public void record(String cacheName, String result) {
+        String operation = CURRENT_OPERATION.get();
+        if (operation == null) {
+            return;
+        }
+        Counter.builder("todo.graphql.cache.requests")
+            .description("Service cache lookups per GraphQL operation")
+            .tag("operation", operation)
+            .tag("cache", cacheName)
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,100 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Reports each {@code @Cacheable} lookup to {@link OperationCacheMetrics} and otherwise delegates.
+ * Only the caching aspect sees this decorator; the {@link org.springframework.cache.CacheManager}
+ * keeps handing out the plain caches.
+ */
+public class OperationRecordingCache implements Cache {
+
+    private final Cache delegate;
+    private final OperationCacheMetrics metrics;
+
+    public OperationRecordingCache(Cache delegate, OperationCacheMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        // A refreshing Caffeine cache loads on lookup, so a returned value alone is no hit
+        boolean present = !(delegate.getNativeCache() instanceof LoadingCache<?, ?> loadingCache)
+            || loadingCache.asMap().containsKey(key);
+        ValueWrapper value = delegate.get(key);
+        metrics.record(getName(), present && value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        metrics.record(getName(), !loaded[0]);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,41 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the caches named by caching annotations and wraps them in {@link OperationRecordingCache}.
+ */
+public class OperationRecordingCacheResolver implements CacheResolver {
+
+    private final Supplier<CacheManager> cacheManager;
+    private final OperationCacheMetrics metrics;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public OperationRecordingCacheResolver(Supplier<CacheManager> cacheManager, OperationCacheMetrics metrics) {
+        this.cacheManager = cacheManager;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        return context.getOperation().getCacheNames().stream()
+            .map(name -> caches.computeIfAbsent(name, this::recording))
+            .toList();
+    }
+
+    private Cache recording(String name) {
+        Cache cache = cacheManager.get().getCache(name);
+        if (cache == null) {
+            throw new IllegalArgumentException("Cannot find cache named '" + name + "'");
+        }
+        return new OperationRecordingCache(cache, metrics);
+    }
+}
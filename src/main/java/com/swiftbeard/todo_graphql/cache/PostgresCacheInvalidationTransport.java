@@ -0,0 +1,164 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
+import com.swiftbeard.todo_graphql.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL {@code NOTIFY} for sending and one dedicated {@code LISTEN} connection per node
+ * for receiving. The listening connection is opened with {@link DriverManager} from the configured
+ * URL (shard 0 when sharded), outside any pool: it stays checked out for the node's lifetime, and
+ * the pool's validation and lifetime limits would otherwise close it under the listener. Failed
+ * connections are retried with exponential backoff. Notifications sent while a node is
+ * reconnecting are lost to that node; its entries then live until they expire.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.invalidation.transport", havingValue = "postgres")
+@Slf4j
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport, DisposableBean {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final CachingProperties.Invalidation properties;
+    private final String listenUrl;
+    private final Properties listenCredentials = new Properties();
+
+    private volatile boolean running = true;
+    private volatile Thread listener;
+
+    public PostgresCacheInvalidationTransport(DataSource dataSource,
+                                              CachingProperties properties,
+                                              DataSourceProperties dataSourceProperties,
+                                              ShardingProperties shardingProperties) {
+        this.dataSource = dataSource;
+        this.properties = properties.getInvalidation();
+        if (!CHANNEL_NAME.matcher(this.properties.getChannel()).matches()) {
+            throw new IllegalStateException("todo.cache.invalidation.channel must be a lowercase identifier");
+        }
+
+        String username;
+        String password;
+        if (shardingProperties.isEnabled() && !shardingProperties.getShards().isEmpty()) {
+            ShardingProperties.Shard shard = shardingProperties.getShards().get(0);
+            this.listenUrl = shard.getUrl();
+            username = shard.getUsername();
+            password = shard.getPassword();
+        } else {
+            this.listenUrl = dataSourceProperties.determineUrl();
+            username = dataSourceProperties.determineUsername();
+            password = dataSourceProperties.determinePassword();
+        }
+        if (username != null) {
+            listenCredentials.setProperty("user", username);
+        }
+        if (password != null) {
+            listenCredentials.setProperty("password", password);
+        }
+    }
+
+    @Override
+    public void send(String payload) {
+        // Sent after commit on a connection of its own; the committed transaction's connection is still bound
+        ShardContext.callOn(0, () -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, properties.getChannel());
+                statement.setString(2, payload);
+                statement.execute();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not send cache invalidation", ex);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void listen(Consumer<List<String>> handler) {
+        Thread thread = new Thread(() -> listenLoop(handler), "cache-invalidation-listener");
+        thread.setDaemon(true);
+        listener = thread;
+        thread.start();
+    }
+
+    private void listenLoop(Consumer<List<String>> handler) {
+        Duration delay = properties.getReconnectDelay();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(listenUrl, listenCredentials)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                log.info("Listening for cache invalidations on channel {}", properties.getChannel());
+                delay = properties.getReconnectDelay();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                int timeoutMillis = (int) properties.getPollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+                    if (notifications == null || notifications.length == 0) {
+                        continue;
+                    }
+                    List<String> batch = new ArrayList<>(notifications.length);
+                    for (PGNotification notification : notifications) {
+                        batch.add(notification.getParameter());
+                    }
+                    handler.accept(batch);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (running) {
+                    log.warn("Cache invalidation listener failed, reconnecting in {}: {}", delay, ex.getMessage());
+                    pauseBeforeReconnect(delay);
+                    delay = nextDelay(delay);
+                }
+            }
+        }
+    }
+
+    // Doubles up to the configured maximum, so a database outage is not hammered with connection attempts
+    private Duration nextDelay(Duration delay) {
+        Duration doubled = delay.multipliedBy(2);
+        return doubled.compareTo(properties.getMaxReconnectDelay()) > 0 ? properties.getMaxReconnectDelay() : doubled;
+    }
+
+    private void pauseBeforeReconnect(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(properties.getPollTimeout().toMillis() * 2);
+        }
+    }
+}
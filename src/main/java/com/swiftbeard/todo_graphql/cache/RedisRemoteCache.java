@@ -0,0 +1,109 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanIterator;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Redis as the shared cache level. Values are stored as opaque bytes with a TTL; invalidations
+ * travel over Redis pub/sub on a dedicated connection.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.remote.type", havingValue = "redis")
+@Slf4j
+public class RedisRemoteCache implements RemoteCache, DisposableBean {
+
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final StatefulRedisPubSubConnection<String, String> subscription;
+    private final String channel;
+
+    public RedisRemoteCache(CachingProperties properties) {
+        CachingProperties.Remote remote = properties.getRemote();
+        this.client = RedisClient.create(remote.getRedisUri());
+        this.connection = client.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        this.connection.setTimeout(remote.getTimeout());
+        this.subscription = client.connectPubSub();
+        this.channel = remote.getInvalidationChannel();
+        log.info("Connected to remote cache at {}", remote.getRedisUri());
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return connection.sync().get(key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        connection.sync().set(key, value, SetArgs.Builder.px(ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(String key) {
+        connection.sync().del(key);
+    }
+
+    @Override
+    public void clear(String keyPrefix) {
+        RedisCommands<String, byte[]> commands = connection.sync();
+        ScanIterator<String> keys = ScanIterator.scan(commands,
+            ScanArgs.Builder.matches(keyPrefix + "*").limit(CLEAR_BATCH_SIZE));
+        List<String> batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+        while (keys.hasNext()) {
+            batch.add(keys.next());
+            if (batch.size() == CLEAR_BATCH_SIZE) {
+                commands.del(batch.toArray(String[]::new));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            commands.del(batch.toArray(String[]::new));
+        }
+    }
+
+    @Override
+    public void publish(String message) {
+        connection.sync().publish(channel, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        subscription.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String messageChannel, String message) {
+                if (channel.equals(messageChannel)) {
+                    listener.accept(message);
+                }
+            }
+        });
+        subscription.sync().subscribe(channel);
+    }
+
+    @Override
+    public void destroy() {
+        subscription.close();
+        connection.close();
+        client.shutdown();
+    }
+}
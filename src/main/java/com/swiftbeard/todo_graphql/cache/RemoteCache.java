@@ -0,0 +1,24 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Cache shared by all nodes, used as the second level behind each node's Caffeine cache,
+ * together with the channel nodes use to tell each other to drop local copies.
+ * {@link TwoLevelCache} treats any exception from a remote call as a miss.
+ */
+public interface RemoteCache {
+
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void evict(String key);
+
+    void clear(String keyPrefix);
+
+    void publish(String message);
+
+    void subscribe(Consumer<String> listener);
+}
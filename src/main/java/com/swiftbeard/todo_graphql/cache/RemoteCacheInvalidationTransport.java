@@ -0,0 +1,32 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends invalidations over the publish/subscribe channel of the {@link RemoteCache}, for deployments
+ * that share a remote cache but not a PostgreSQL database to LISTEN on.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.invalidation.transport", havingValue = "remote")
+public class RemoteCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final RemoteCache remote;
+
+    public RemoteCacheInvalidationTransport(RemoteCache remote) {
+        this.remote = remote;
+    }
+
+    @Override
+    public void send(String payload) {
+        remote.publish(payload);
+    }
+
+    @Override
+    public void listen(Consumer<List<String>> handler) {
+        remote.subscribe(payload -> handler.accept(List.of(payload)));
+    }
+}
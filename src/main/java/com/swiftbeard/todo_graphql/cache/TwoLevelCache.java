@@ -0,0 +1,241 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A node-local Caffeine cache (L1) in front of a {@link RemoteCache} shared by all nodes (L2).
+ * Reads fall through L1, then L2, then the loader. Writes go to both levels; other nodes drop their
+ * L1 copy when {@link CacheInvalidationBus} delivers the change. Both levels hold the serializer's
+ * bytes, so an L2 hit is kept in L1 as is and values are decoded only when served.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    static final String ALL_KEYS = "*";
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final RemoteCache remote;
+    private final CacheValueSerializer serializer;
+    private final Duration remoteTtl;
+    private final String keyPrefix;
+    private final ConcurrentMap<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter remoteErrors;
+
+    public TwoLevelCache(String name,
+                         Cache<Object, Object> local,
+                         RemoteCache remote,
+                         CacheValueSerializer serializer,
+                         Duration remoteTtl,
+                         String keyPrefix,
+                         MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.serializer = serializer;
+        this.remoteTtl = remoteTtl;
+        this.keyPrefix = keyPrefix + ":" + name + ":";
+
+        this.l1Hits = requests(meterRegistry, "l1", "hit");
+        this.l1Misses = requests(meterRegistry, "l1", "miss");
+        this.l2Hits = requests(meterRegistry, "l2", "hit");
+        this.l2Misses = requests(meterRegistry, "l2", "miss");
+        this.remoteErrors = Counter.builder("todo.cache.remote.errors")
+            .description("Remote cache calls that failed and were treated as a miss")
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder("todo.cache.requests")
+            .description("Cache lookups per level")
+            .tag("cache", name)
+            .tag("level", level)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        l1Misses.increment();
+
+        byte[] bytes = remoteGet(localKey);
+        if (bytes != null) {
+            local.put(localKey, bytes);
+        }
+        return bytes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        // One load per key on this node, run on the caller's thread outside any Caffeine compute
+        String localKey = localKey(key);
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(localKey, loading);
+        if (inFlight != null) {
+            return (T) fromStoreValue(awaitLoad(key, valueLoader, inFlight));
+        }
+
+        Object loaded;
+        try {
+            loaded = toStoreValue(valueLoader.call());
+        } catch (Exception ex) {
+            loads.remove(localKey, loading);
+            ValueRetrievalException failure = new ValueRetrievalException(key, valueLoader, ex);
+            loading.completeExceptionally(failure);
+            throw failure;
+        }
+        // An eviction during the load removed the future: the value may predate it, so it is not cached
+        if (loads.remove(localKey, loading)) {
+            local.put(localKey, loaded);
+            remotePut(localKey, loaded);
+        }
+        loading.complete(loaded);
+        return (T) fromStoreValue(loaded);
+    }
+
+    private Object awaitLoad(Object key, Callable<?> valueLoader, CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        Object storeValue = toStoreValue(value);
+        local.put(localKey, storeValue);
+        loads.remove(localKey);
+        remotePut(localKey, storeValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        loads.remove(localKey);
+        local.invalidate(localKey);
+        try {
+            remote.evict(keyPrefix + localKey);
+        } catch (RuntimeException ex) {
+            remoteFailure("evict", ex);
+        }
+    }
+
+    @Override
+    public void clear() {
+        loads.clear();
+        local.invalidateAll();
+        try {
+            remote.clear(keyPrefix);
+        } catch (RuntimeException ex) {
+            remoteFailure("clear", ex);
+        }
+    }
+
+    /**
+     * Drops the local copy after another node changed the entry.
+     */
+    public void invalidateLocal(String localKey) {
+        if (ALL_KEYS.equals(localKey)) {
+            loads.clear();
+            local.invalidateAll();
+        } else {
+            loads.remove(localKey);
+            local.invalidate(localKey);
+        }
+    }
+
+    /**
+     * Fills L1 only, for values read from the database rather than written; L2 and the other nodes are left alone.
+     */
+    public void putLocalIfAbsent(Object key, Object value) {
+        local.asMap().putIfAbsent(localKey(key), toStoreValue(value));
+    }
+
+    // L1 and L2 share one string form of the key, which is also what invalidations carry
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return serializer.serialize(super.toStoreValue(userValue));
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return storeValue instanceof byte[] bytes ? serializer.deserialize(bytes) : super.fromStoreValue(storeValue);
+    }
+
+    private byte[] remoteGet(String localKey) {
+        byte[] bytes;
+        try {
+            bytes = remote.get(keyPrefix + localKey);
+        } catch (RuntimeException ex) {
+            remoteFailure("get", ex);
+            return null;
+        }
+        if (bytes == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        return bytes;
+    }
+
+    private void remotePut(String localKey, Object value) {
+        try {
+            remote.put(keyPrefix + localKey, (byte[]) value, remoteTtl);
+        } catch (RuntimeException ex) {
+            remoteFailure("put", ex);
+        }
+    }
+
+    private void remoteFailure(String operation, RuntimeException ex) {
+        remoteErrors.increment();
+        log.warn("Remote cache {} on cache {} failed: {}", operation, name, ex.getMessage());
+    }
+}
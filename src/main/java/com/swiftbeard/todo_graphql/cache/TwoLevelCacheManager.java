@@ -0,0 +1,39 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds one {@link TwoLevelCache} per configured cache. Other nodes learn about writes only
+ * through {@link CacheInvalidationBus}, which drops their L1 copies.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final Map<String, TwoLevelCache> caches = new LinkedHashMap<>();
+
+    public TwoLevelCacheManager(Map<String, CacheValueSerializer> serializers,
+                                Map<String, com.github.benmanes.caffeine.cache.Cache<Object, Object>> localCaches,
+                                RemoteCache remote,
+                                CachingProperties.Remote properties,
+                                MeterRegistry meterRegistry) {
+        serializers.forEach((name, serializer) -> caches.put(name, new TwoLevelCache(name, localCaches.get(name),
+            remote, serializer, properties.getTtl(), properties.getKeyPrefix(), meterRegistry)));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+}
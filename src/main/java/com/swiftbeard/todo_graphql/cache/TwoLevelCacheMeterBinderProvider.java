@@ -0,0 +1,23 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets Spring Boot's cache metrics bind two-level caches like plain Caffeine caches. The standard
+ * {@code cache.*} meters describe the node-local level; the shared level is covered by
+ * {@code todo.cache.requests}.
+ */
+@Component
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return new CaffeineCacheMetrics<>((Cache<Object, Object>) cache.getNativeCache(), cache.getName(), tags);
+    }
+}
@@ -0,0 +1,95 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Maps emails and usernames to user ids, so lookups by either resolve to the same {@code users}
+ * cache entry as lookups by id. An alias is only trusted while the cached user still carries it:
+ * a rename or a deletion on any node evicts the user there, and the stale alias is dropped on its next read.
+ */
+@Component
+public class UserAliasIndex {
+
+    public static final String BY_EMAIL = "userIdsByEmail";
+    public static final String BY_USERNAME = "userIdsByUsername";
+
+    private static final String USERS = "users";
+
+    private final CacheManager cacheManager;
+
+    public UserAliasIndex(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public UserSnapshot getByEmail(String email, Supplier<UserSnapshot> loader) {
+        return resolve(BY_EMAIL, email, UserSnapshot::email, loader);
+    }
+
+    public UserSnapshot getByUsername(String username, Supplier<UserSnapshot> loader) {
+        return resolve(BY_USERNAME, username, UserSnapshot::username, loader);
+    }
+
+    /**
+     * Drops the aliases of a user whose email or username is about to change.
+     */
+    public void forget(String email, String username) {
+        evict(BY_EMAIL, email);
+        evict(BY_USERNAME, username);
+    }
+
+    private UserSnapshot resolve(String aliasCacheName, String alias, Function<UserSnapshot, String> attribute,
+                                 Supplier<UserSnapshot> loader) {
+        Cache aliases = cacheManager.getCache(aliasCacheName);
+        Cache users = cacheManager.getCache(USERS);
+        if (aliases == null || users == null) {
+            return loader.get();
+        }
+
+        Long id = aliases.get(alias, Long.class);
+        if (id != null) {
+            UserSnapshot user = users.get(id, UserSnapshot.class);
+            if (user != null && alias.equals(attribute.apply(user))) {
+                return user;
+            }
+            aliases.evict(alias);
+        }
+
+        UserSnapshot user = loader.get();
+        Cache.ValueWrapper current = users.putIfAbsent(user.id(), user);
+        if (current == null) {
+            index(user);
+            return user;
+        }
+        // Share the copy already cached by id, unless it disagrees with what was just read
+        if (current.get() instanceof UserSnapshot cached && alias.equals(attribute.apply(cached))) {
+            index(cached);
+            return cached;
+        }
+        return user;
+    }
+
+    private void index(UserSnapshot user) {
+        put(BY_EMAIL, user.email(), user.id());
+        put(BY_USERNAME, user.username(), user.id());
+    }
+
+    private void put(String aliasCacheName, String alias, Long id) {
+        Cache aliases = cacheManager.getCache(aliasCacheName);
+        if (aliases != null && alias != null) {
+            aliases.put(alias, id);
+        }
+    }
+
+    private void evict(String aliasCacheName, String alias) {
+        Cache aliases = cacheManager.getCache(aliasCacheName);
+        if (aliases != null && alias != null) {
+            aliases.evict(alias);
+        }
+    }
+}
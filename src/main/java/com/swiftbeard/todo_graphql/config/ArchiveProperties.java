@@ -0,0 +1,28 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for moving old completed todos from the hot {@code todos} table into {@code todos_archive}.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    // Completed todos older than this (by completed_at) are archived
+    private Duration minAge = Duration.ofDays(90);
+
+    // Rows moved per transaction; keeps row locks short-lived
+    private int batchSize = 500;
+
+    // Upper bound on batches per scheduled run
+    private int maxBatchesPerRun = 100;
+
+    // Pause between batches to leave room for foreground traffic
+    private Duration batchPause = Duration.ofMillis(50);
+}
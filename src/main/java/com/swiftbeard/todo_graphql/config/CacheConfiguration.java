@@ -1,29 +1,290 @@
 package com.swiftbeard.todo_graphql.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftbeard.todo_graphql.cache.BinaryCacheValueSerializer;
+import com.swiftbeard.todo_graphql.cache.CacheEntrySizes;
+import com.swiftbeard.todo_graphql.cache.CacheValueSerializer;
+import com.swiftbeard.todo_graphql.cache.CoalescingCaffeineCache;
+import com.swiftbeard.todo_graphql.cache.OffHeapTier;
+import com.swiftbeard.todo_graphql.cache.OperationCacheMetrics;
+import com.swiftbeard.todo_graphql.cache.OperationRecordingCacheResolver;
+import com.swiftbeard.todo_graphql.cache.RemoteCache;
+import com.swiftbeard.todo_graphql.cache.TwoLevelCacheManager;
+import com.swiftbeard.todo_graphql.cache.UserAliasIndex;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.UserService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableCaching
-public class CacheConfiguration {
+public class CacheConfiguration implements CachingConfigurer {
 
+    static final List<String> CACHE_NAMES = List.of("users", "todos", "userTodos",
+        UserAliasIndex.BY_EMAIL, UserAliasIndex.BY_USERNAME);
+
+    private final CachingProperties properties;
+    private final ObjectProvider<UserService> userService;
+    private final ObjectProvider<TodoService> todoService;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ObjectProvider<OperationCacheMetrics> operationCacheMetrics;
+    private final Map<String, CacheValueSerializer> serializers = new LinkedHashMap<>();
+    private final Map<String, Function<Long, Object>> loaders = new HashMap<>();
+    private final Map<String, Function<List<Long>, Map<Long, ?>>> bulkLoaders = new HashMap<>();
+    private final Map<String, BiFunction<Long, Object, Object>> reloaders = new HashMap<>();
+
+    public CacheConfiguration(CachingProperties properties,
+                              ObjectProvider<UserService> userService,
+                              ObjectProvider<TodoService> todoService,
+                              ObjectProvider<CacheManager> cacheManager,
+                              ObjectProvider<OperationCacheMetrics> operationCacheMetrics) {
+        this.properties = properties;
+        this.userService = userService;
+        this.todoService = todoService;
+        this.cacheManager = cacheManager;
+        this.operationCacheMetrics = operationCacheMetrics;
+
+        serializers.put("users", BinaryCacheValueSerializer.users());
+        serializers.put("todos", BinaryCacheValueSerializer.todos());
+        serializers.put("userTodos", BinaryCacheValueSerializer.todoLists());
+        serializers.put(UserAliasIndex.BY_EMAIL, BinaryCacheValueSerializer.ids());
+        serializers.put(UserAliasIndex.BY_USERNAME, BinaryCacheValueSerializer.ids());
+        loaders.put("users", id -> userService.getObject().loadUserById(id));
+        loaders.put("todos", id -> todoService.getObject().loadTodoById(id));
+        loaders.put("userTodos", id -> todoService.getObject().loadTodosByUserId(id));
+        // A refresh already knows the todo's owner, so it reads only the owner's partition
+        reloaders.put("todos", (id, old) -> todoService.getObject().loadTodoById(id, ((TodoSnapshot) old).userId()));
+        bulkLoaders.put("users", ids -> userService.getObject().getUsersByIds(ids).stream()
+            .collect(Collectors.toMap(UserSnapshot::id, Function.identity())));
+        bulkLoaders.put("todos", ids -> todoService.getObject().getTodosByIds(ids).stream()
+            .collect(Collectors.toMap(TodoSnapshot::id, Function.identity())));
+        // Users without todos are left out: an unknown user id must still fail on read
+        bulkLoaders.put("userTodos", ids -> todoService.getObject().getTodosByUserIds(ids));
+    }
+
+    /**
+     * Counts {@code @Cacheable} hits per GraphQL operation. Spring Boot binds the {@code cache.*}
+     * meters (hits, misses, loads, evictions, size) from the caches in {@link #cacheManager}.
+     */
+    @Override
+    public CacheResolver cacheResolver() {
+        return new OperationRecordingCacheResolver(cacheManager::getObject, operationCacheMetrics.getObject());
+    }
+
+    /**
+     * Refreshes and batch loads run on Spring Boot's {@code applicationTaskExecutor}, which the context
+     * shuts down on close; its size is set with {@code spring.task.execution.pool.*}.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("users", "todos", "userTodos");
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+    public CacheManager cacheManager(ObjectProvider<RemoteCache> remoteCache,
+                                     @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                     Executor loaderExecutor,
+                                     MeterRegistry meterRegistry) {
+        RemoteCache remote = remoteCache.getIfAvailable();
+        if (remote != null) {
+            return new TwoLevelCacheManager(serializers, localCaches(loaderExecutor, meterRegistry), remote,
+                properties.getRemote(), meterRegistry);
+        }
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        // Static: only the configured caches exist
+        cacheManager.setCaches(coalescingCaches(loaderExecutor, meterRegistry));
+        cacheManager.initializeCaches();
         return cacheManager;
     }
 
-    private Caffeine<Object, Object> caffeineCacheBuilder() {
-        return Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(10, TimeUnit.MINUTES)
+    // Caches with a loader share one in-flight load per key and load batches with the bulk repository reads
+    private List<CaffeineCache> coalescingCaches(Executor loaderExecutor, MeterRegistry meterRegistry) {
+        List<CaffeineCache> caches = new ArrayList<>();
+        for (String name : CACHE_NAMES) {
+            CachingProperties.Policy policy = policy(name);
+            Caffeine<Object, Object> builder = caffeineCacheBuilder(name, policy);
+            OffHeapTier offHeapTier = null;
+            if (policy.getOffHeapSize() != null) {
+                offHeapTier = new OffHeapTier(name, policy.getOffHeapSize().toBytes(), policy.getExpireAfterWrite(),
+                    meterRegistry);
+                builder.evictionListener(offHeapTier::onEviction);
+            }
+            CacheLoader<Object, Object> cacheLoader = cacheLoader(name, offHeapTier);
+            CaffeineCache cache = cacheLoader == null
+                ? new CaffeineCache(name, builder.build())
+                : new CoalescingCaffeineCache(name, builder.executor(loaderExecutor).buildAsync(cacheLoader),
+                    serializers.get(name), offHeapTier);
+            registerEstimatedBytes(name, policy, cache.getNativeCache(), meterRegistry);
+            caches.add(cache);
+        }
+        return caches;
+    }
+
+    // L1 of the two-level caches, which already runs at most one load per key on each node
+    private Map<String, Cache<Object, Object>> localCaches(Executor loaderExecutor, MeterRegistry meterRegistry) {
+        Map<String, Cache<Object, Object>> caches = new LinkedHashMap<>();
+        for (String name : CACHE_NAMES) {
+            CachingProperties.Policy policy = policy(name);
+            if (policy.getOffHeapSize() != null) {
+                throw new IllegalStateException("todo.cache.caches." + name +
+                    ".off-heap-size is not supported with a remote cache level");
+            }
+            Caffeine<Object, Object> builder = caffeineCacheBuilder(name, policy);
+            Cache<Object, Object> cache = policy.getRefreshAfterWrite() == null
+                ? builder.build()
+                : builder.executor(loaderExecutor).build(cacheLoader(name, null));
+            registerEstimatedBytes(name, policy, cache, meterRegistry);
+            caches.put(name, cache);
+        }
+        return caches;
+    }
+
+    // The weighted size of a cache with a byte budget is its estimated heap usage
+    private static void registerEstimatedBytes(String name,
+                                               CachingProperties.Policy policy,
+                                               Cache<Object, Object> cache,
+                                               MeterRegistry meterRegistry) {
+        if (policy.getMaximumBytes() == null) {
+            return;
+        }
+        Gauge.builder("todo.cache.estimated.bytes", cache,
+                c -> c.policy().eviction().orElseThrow().weightedSize().orElse(0))
+            .description("Estimated heap bytes held by the cache's entries")
+            .baseUnit("bytes")
+            .tag("cache", name)
+            .register(meterRegistry);
+        Gauge.builder("todo.cache.maximum.bytes", policy.getMaximumBytes(), DataSize::toBytes)
+            .description("Heap budget of the cache, as configured")
+            .baseUnit("bytes")
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    private CachingProperties.Policy policy(String name) {
+        CachingProperties.Policy policy = properties.getCaches().getOrDefault(name, new CachingProperties.Policy());
+        if (policy.getRefreshAfterWrite() != null && !loaders.containsKey(name)) {
+            throw new IllegalStateException("todo.cache.caches." + name +
+                ".refresh-after-write is not supported");
+        }
+        if (policy.getOffHeapSize() != null && !loaders.containsKey(name)) {
+            throw new IllegalStateException("todo.cache.caches." + name +
+                ".off-heap-size is not supported");
+        }
+        return policy;
+    }
+
+    // Loads encoded values, as the service caches hold them
+    private CacheLoader<Object, Object> cacheLoader(String name, OffHeapTier offHeapTier) {
+        Function<Long, Object> loader = loaders.get(name);
+        Function<List<Long>, Map<Long, ?>> bulkLoader = bulkLoaders.get(name);
+        BiFunction<Long, Object, Object> reloader = reloaders.get(name);
+        CacheValueSerializer serializer = serializers.get(name);
+        if (loader == null) {
+            return null;
+        }
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                Object promoted = offHeapTier != null ? offHeapTier.promote(key) : null;
+                return promoted != null ? promoted : serializer.serialize(loader.apply(id(key)));
+            }
+
+            @Override
+            public Map<Object, Object> loadAll(Set<?> keys) {
+                Map<Object, Object> values = new HashMap<>();
+                List<Long> missing = new ArrayList<>();
+                for (Object key : keys) {
+                    Object promoted = offHeapTier != null ? offHeapTier.promote(key) : null;
+                    if (promoted != null) {
+                        values.put(key, promoted);
+                    } else {
+                        missing.add(id(key));
+                    }
+                }
+                Map<Long, ?> loaded = missing.isEmpty() ? Map.of() : bulkLoader.apply(missing);
+                for (Object key : keys) {
+                    Object value = loaded.get(id(key));
+                    if (value != null) {
+                        values.put(key, serializer.serialize(value));
+                    }
+                }
+                return values;
+            }
+
+            // A refreshed entry is on heap, so only the database can have a newer value
+            @Override
+            public Object reload(Object key, Object oldValue) {
+                if (reloader != null && oldValue instanceof byte[] bytes) {
+                    return serializer.serialize(reloader.apply(id(key), serializer.deserialize(bytes)));
+                }
+                return serializer.serialize(loader.apply(id(key)));
+            }
+        };
+    }
+
+    // Two-level caches key L1 by the string form of the id
+    private static Long id(Object key) {
+        return Long.valueOf(key.toString());
+    }
+
+    static Caffeine<Object, Object> caffeineCacheBuilder(String name, CachingProperties.Policy policy) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .expireAfterWrite(policy.getExpireAfterWrite())
             .recordStats();
+        if (policy.getMaximumBytes() != null) {
+            if (policy.getMaximumWeight() != null) {
+                throw new IllegalStateException("todo.cache.caches." + name +
+                    " sets both maximum-bytes and maximum-weight");
+            }
+            builder.maximumWeight(policy.getMaximumBytes().toBytes())
+                .weigher(CacheEntrySizes::estimatedBytes);
+        } else if (policy.getMaximumWeight() != null) {
+            builder.maximumWeight(policy.getMaximumWeight())
+                .weigher((key, value) -> Math.max(1, weight(value)));
+        } else {
+            builder.maximumSize(policy.getMaximumSize());
+        }
+        if (policy.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(policy.getExpireAfterAccess());
+        }
+        if (policy.getRefreshAfterWrite() != null) {
+            if (policy.getRefreshAfterWrite().compareTo(policy.getExpireAfterWrite()) >= 0) {
+                throw new IllegalStateException("todo.cache.caches." + name +
+                    ".refresh-after-write must be shorter than expire-after-write");
+            }
+            builder.refreshAfterWrite(policy.getRefreshAfterWrite());
+        }
+        return builder;
+    }
+
+    // A list weighs one unit per element, encoded or not
+    private static int weight(Object value) {
+        if (value instanceof byte[] bytes) {
+            return BinaryCacheValueSerializer.elementCount(bytes);
+        }
+        return value instanceof Collection<?> list ? list.size() : 1;
     }
 }
@@ -0,0 +1,136 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the service caches ({@code users}, {@code todos}, {@code userTodos}).
+ * With a remote type other than {@code none}, each node's Caffeine cache becomes the first
+ * level in front of a cache shared by all nodes.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.cache")
+public class CachingProperties {
+
+    // Policy per cache name; caches without an entry use the defaults of Policy
+    private Map<String, Policy> caches = new LinkedHashMap<>();
+
+    private Remote remote = new Remote();
+
+    private Invalidation invalidation = new Invalidation();
+
+    private Warmup warmup = new Warmup();
+
+    private Negative negative = new Negative();
+
+    @Data
+    public static class Policy {
+
+        private long maximumSize = 1000;
+
+        // When set, replaces maximumSize; a list entry weighs one unit per element
+        private Long maximumWeight;
+
+        // When set, replaces maximumSize: entries are weighed by their estimated heap bytes
+        private DataSize maximumBytes;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        private Duration expireAfterAccess;
+
+        // Entries read after this age are reloaded in the background; must be shorter than expireAfterWrite
+        private Duration refreshAfterWrite;
+
+        // When set, entries evicted for size move to an off-heap tier of this size instead of being dropped
+        private DataSize offHeapSize;
+    }
+
+    @Data
+    public static class Remote {
+
+        private RemoteType type = RemoteType.NONE;
+
+        private String redisUri = "redis://localhost:6379";
+
+        // Remote calls slower than this count as a miss instead of stalling the request
+        private Duration timeout = Duration.ofMillis(200);
+
+        private Duration ttl = Duration.ofMinutes(30);
+
+        // Namespaces the keys of this application in a shared remote cache
+        private String keyPrefix = "todo";
+
+        // Publish/subscribe channel used by the remote invalidation transport
+        private String invalidationChannel = "todo-cache-invalidation";
+    }
+
+    @Data
+    public static class Invalidation {
+
+        private InvalidationTransport transport = InvalidationTransport.NONE;
+
+        // PostgreSQL channel; only nodes connected to the same database (shard 0 when sharded) hear it
+        private String channel = "todo_cache_invalidation";
+
+        // How long the listener waits for notifications before checking its connection again
+        private Duration pollTimeout = Duration.ofSeconds(1);
+
+        // First retry of a failed LISTEN connection; each further failure doubles it up to the maximum
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+
+        private Duration maxReconnectDelay = Duration.ofMinutes(1);
+
+        // Keeps each NOTIFY payload well below PostgreSQL's 8000-byte limit
+        private int maxKeysPerMessage = 200;
+    }
+
+    @Data
+    public static class Warmup {
+
+        private boolean enabled = false;
+
+        // Hottest keys of each cache, written periodically and on shutdown, read on startup
+        private Path snapshotFile = Path.of("cache-hot-keys.properties");
+
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        private int hotKeysPerCache = 10_000;
+
+        private int batchSize = 500;
+
+        private int parallelism = 4;
+
+        // Readiness waits at most this long; keys not loaded by then are left to regular misses
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Negative {
+
+        private boolean enabled = true;
+
+        // Bounds how long a key created concurrently with a failed lookup can still read as missing
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private long maximumSize = 100_000;
+    }
+
+    public enum InvalidationTransport {
+        NONE,
+        IN_PROCESS,
+        POSTGRES,
+        REMOTE
+    }
+
+    public enum RemoteType {
+        NONE,
+        IN_MEMORY,
+        REDIS
+    }
+}
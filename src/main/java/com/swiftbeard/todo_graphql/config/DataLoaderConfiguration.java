@@ -1,23 +1,30 @@
 package com.swiftbeard.todo_graphql.config;
 
-import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.cache.CoalescingCaffeineCache;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
 import com.swiftbeard.todo_graphql.service.TodoService;
 import lombok.RequiredArgsConstructor;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderRegistry;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.graphql.execution.DataLoaderRegistrar;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 @Configuration
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class DataLoaderConfiguration {
 
     private final TodoService todoService;
+    private final CacheManager cacheManager;
 
     /**
      * DataLoader for batching todo queries by user ID to prevent N+1 query problem
@@ -26,13 +33,22 @@ public class DataLoaderConfiguration {
     public DataLoaderRegistrar dataLoaderRegistrar() {
         return registry -> {
             // TodosByUser DataLoader
-            DataLoader<Long, List<Todo>> todosByUserLoader = DataLoader.newMappedDataLoader(
-                (userIds) -> CompletableFuture.supplyAsync(() -> {
-                    Map<Long, List<Todo>> todosByUserId = todoService.getTodosByUserIds(userIds);
-                    return todosByUserId;
-                })
+            DataLoader<Long, List<TodoSnapshot>> todosByUserLoader = DataLoader.newMappedDataLoader(
+                (userIds) -> CompletableFuture.supplyAsync(() -> todosByUserIds(userIds))
             );
             registry.register("todosByUser", todosByUserLoader);
         };
     }
+
+    // Served from the userTodos cache; the users it misses are loaded in one batch
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<TodoSnapshot>> todosByUserIds(Set<Long> userIds) {
+        if (!(cacheManager.getCache("userTodos") instanceof CoalescingCaffeineCache cache)) {
+            return todoService.getTodosByUserIds(List.copyOf(userIds));
+        }
+        Map<Long, List<TodoSnapshot>> todosByUserId = new HashMap<>();
+        cache.getAll(userIds).forEach((userId, todos) ->
+            todosByUserId.put((Long) userId, (List<TodoSnapshot>) todos));
+        return todosByUserId;
+    }
 }
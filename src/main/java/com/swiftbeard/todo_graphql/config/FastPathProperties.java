@@ -0,0 +1,22 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-query switches routing the hottest todo reads through {@code TodoJdbcRepository}
+ * instead of Hibernate. Each flag can be flipped independently.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.fast-path")
+public class FastPathProperties {
+
+    // todosByUser, todoStats and User.todoCount
+    private boolean findByUserId = false;
+
+    // todosByUser DataLoader batch
+    private boolean findByUserIdIn = false;
+
+    // User.completedTodoCount / User.pendingTodoCount
+    private boolean countByUserIdAndStatus = false;
+}
@@ -0,0 +1,34 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the transactional outbox relay.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    // Events published and deleted per relay transaction
+    private int batchSize = 100;
+
+    // Upper bound on batches drained per poll
+    private int maxBatchesPerPoll = 50;
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private Sink sink = Sink.IN_PROCESS;
+
+    // Target of the FILE sink: one JSON document per line
+    private String filePath = "outbox-events.jsonl";
+
+    public enum Sink {
+        IN_PROCESS,
+        FILE
+    }
+}
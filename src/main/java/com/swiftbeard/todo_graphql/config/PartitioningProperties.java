@@ -0,0 +1,25 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Optional declarative partitioning of the {@code todos} table (PostgreSQL only).
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.partitioning")
+public class PartitioningProperties {
+
+    private Mode mode = Mode.NONE;
+
+    // Number of hash partitions on user_id (mode HASH)
+    private int hashPartitions = 8;
+
+    // Copies an unpartitioned todos table at startup, blocking writes to it until the copy commits
+    private boolean migrate = false;
+
+    public enum Mode {
+        NONE,
+        HASH
+    }
+}
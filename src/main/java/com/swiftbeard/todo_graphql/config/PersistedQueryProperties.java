@@ -0,0 +1,24 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Queries that clients run by id with {@code GET /graphql/persisted/{id}}, answered with an ETag
+ * and {@code 304 Not Modified} while the data they read is unchanged.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.persisted-queries")
+public class PersistedQueryProperties {
+
+    private boolean enabled = true;
+
+    // One query per file; the file name without its extension is the id
+    private String locations = "classpath*:graphql/persisted/*.graphql";
+
+    // A result is tagged only once its version has been current this long, so that a node whose cached
+    // copy has not yet been invalidated cannot pin stale data to a new ETag; keep above invalidation latency
+    private Duration settleDelay = Duration.ofSeconds(2);
+}
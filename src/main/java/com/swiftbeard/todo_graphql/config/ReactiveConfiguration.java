@@ -0,0 +1,63 @@
+package com.swiftbeard.todo_graphql.config;
+
+import com.swiftbeard.todo_graphql.reactive.ReactiveTodo;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wires the R2DBC stack used by the {@code reactive} profile. Spring Boot's R2DBC auto-configuration
+ * is excluded in application.yaml so the default (JPA) stack never sees a second transaction manager.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveTodo.class)
+@RequiredArgsConstructor
+public class ReactiveConfiguration extends AbstractR2dbcConfiguration {
+
+    private final ReactiveProperties properties;
+    private final ShardingProperties shardingProperties;
+
+    @Override
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() {
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("The reactive profile does not support todo.sharding");
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+            .option(ConnectionFactoryOptions.USER, properties.getUsername())
+            .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+            .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("TodoR2dbcPool")
+            .initialSize(properties.getPoolInitialSize())
+            .maxSize(properties.getPoolMaxSize())
+            .maxAcquireTime(properties.getMaxAcquireTime())
+            .build());
+    }
+
+    // The R2DBC transaction manager stays out of the context: as a second TransactionManager bean
+    // it would make every @Transactional on the JPA services ambiguous
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    protected Collection<String> getMappingBasePackages() {
+        return List.of(ReactiveTodo.class.getPackageName());
+    }
+}
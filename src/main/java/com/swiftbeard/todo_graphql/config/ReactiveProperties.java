@@ -0,0 +1,28 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * R2DBC connection settings for the {@code reactive} profile. The URL must point at the same
+ * database as {@code spring.datasource}: the schema is still created and migrated through JPA.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.reactive")
+public class ReactiveProperties {
+
+    private String url = "r2dbc:h2:mem:///tododb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL";
+
+    private String username = "sa";
+
+    private String password = "";
+
+    private int poolInitialSize = 5;
+
+    private int poolMaxSize = 20;
+
+    // Time a query may wait for a free connection before failing
+    private Duration maxAcquireTime = Duration.ofSeconds(30);
+}
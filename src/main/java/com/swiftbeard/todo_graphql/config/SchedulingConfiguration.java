@@ -0,0 +1,15 @@
+package com.swiftbeard.todo_graphql.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background jobs (archival, maintenance). Tests can switch it off with
+ * {@code todo.scheduling.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "todo.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,87 @@
+package com.swiftbeard.todo_graphql.config;
+
+import com.swiftbeard.todo_graphql.config.PartitioningProperties.Mode;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import com.swiftbeard.todo_graphql.sharding.ShardRoutingDataSource;
+import com.swiftbeard.todo_graphql.sharding.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with one Hikari pool per shard behind a routing datasource.
+ * Enabled with {@code todo.sharding.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties,
+                                                         PartitioningProperties partitioningProperties,
+                                                         Environment environment) {
+        validate(properties, partitioningProperties, environment);
+
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int shard = 0; shard < properties.getShards().size(); shard++) {
+            ShardingProperties.Shard config = properties.getShards().get(shard);
+            HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(config.getUrl())
+                .username(config.getUsername())
+                .password(config.getPassword())
+                .driverClassName(config.getDriverClassName())
+                .build();
+            pool.setPoolName("TodoShardPool-" + shard);
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            pools.add(pool);
+        }
+        return new ShardRoutingDataSource(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ObjectProvider<ShardRouter> shardRouter,
+                                                         ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        return new ShardSchemaInitializer(shardRouter, jdbcTemplate);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchemaInitializer shardSchemaInitializer) {
+        return properties -> properties.put("hibernate.integrator_provider",
+            (IntegratorProvider) () -> List.of(shardSchemaInitializer));
+    }
+
+    private void validate(ShardingProperties properties, PartitioningProperties partitioningProperties,
+                          Environment environment) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("todo.sharding.enabled requires at least one entry in todo.sharding.shards");
+        }
+        if (partitioningProperties.getMode() != Mode.NONE) {
+            throw new IllegalStateException("todo.sharding and todo.partitioning cannot be combined; " +
+                "partitioned tables use a sequence that ignores per-shard id allocation");
+        }
+        // An open-in-view session would lazy-load on whichever shard the request thread happens to be bound to
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("todo.sharding requires spring.jpa.open-in-view=false");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash sharding of users and their todos across several datasources. When enabled, the
+ * {@code shards} list replaces {@code spring.datasource}; shard 0 also hosts Hibernate's own DDL.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    // Worker threads for scatter/gather queries; 0 means two per shard
+    private int scatterThreads = 0;
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        private int maximumPoolSize = 10;
+    }
+}
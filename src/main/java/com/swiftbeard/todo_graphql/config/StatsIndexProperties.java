@@ -0,0 +1,19 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory index that answers {@code todoStats} and the {@code User} todo counts.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.stats-index")
+public class StatsIndexProperties {
+
+    private boolean enabled = true;
+
+    // How often per-user counts grouped by the database are compared with the index to find drift
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,126 @@
+package com.swiftbeard.todo_graphql.config;
+
+import com.swiftbeard.todo_graphql.config.PartitioningProperties.Mode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migrates the unpartitioned {@code todos} table to PostgreSQL hash partitioning on {@code user_id} at startup.
+ * Every todo query and single-todo write carries {@code user_id}, so the planner prunes to one partition.
+ * On H2 and other databases the table is left as is, since queries are identical either way.
+ * <p>
+ * The migration copies every row inside one transaction that blocks writes to {@code todos} until it
+ * commits, so it only runs when {@code todo.partitioning.migrate} is set. Nodes starting together
+ * serialize on an advisory lock, and only the first one migrates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TodoPartitionManager implements ApplicationRunner {
+
+    static final String PARENT_TABLE = "todos";
+    static final String STAGING_TABLE = "todos_partitioned";
+    static final String ID_SEQUENCE = "todos_partitioned_id_seq";
+    // Advisory lock key taken by the migrating transaction; any constant shared by all nodes will do
+    static final long MIGRATION_LOCK = 0x746f646f73L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitioningProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getMode() == Mode.NONE) {
+            return;
+        }
+        if (!isPostgres()) {
+            log.info("Todo partitioning mode {} requires PostgreSQL; keeping the unpartitioned todos table",
+                properties.getMode());
+            return;
+        }
+        if (isPartitioned()) {
+            log.info("Table todos is already partitioned");
+            return;
+        }
+        if (!properties.isMigrate()) {
+            log.warn("Table todos is not partitioned; set todo.partitioning.migrate=true to copy it into {} " +
+                "partitions at startup (writes to todos block until the copy commits)", properties.getMode());
+            return;
+        }
+
+        List<String> statements = migrationStatements(properties);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + MIGRATION_LOCK + ")");
+            // Another node may have migrated while this one waited for the lock
+            if (isPartitioned()) {
+                log.info("Table todos was partitioned by another node");
+                return;
+            }
+            log.info("Migrating todos to {} partitioning ({} statements)", properties.getMode(), statements.size());
+            // Reads go on, but a write during the copy would be lost when the old table is dropped
+            jdbcTemplate.execute("LOCK TABLE " + PARENT_TABLE + " IN EXCLUSIVE MODE");
+            statements.forEach(jdbcTemplate::execute);
+            log.info("Todos partitioning migration completed");
+        });
+    }
+
+    static List<String> migrationStatements(PartitioningProperties properties) {
+        List<String> statements = new ArrayList<>();
+
+        // The partition key must be part of the primary key, so id alone is no longer unique by constraint
+        statements.add("CREATE TABLE " + STAGING_TABLE + " (LIKE " + PARENT_TABLE +
+            " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY HASH (user_id)");
+        statements.add("CREATE SEQUENCE " + ID_SEQUENCE);
+        statements.add("ALTER TABLE " + STAGING_TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+        statements.add("ALTER TABLE " + STAGING_TABLE + " ADD PRIMARY KEY (id, user_id)");
+        statements.add("ALTER TABLE " + STAGING_TABLE +
+            " ADD CONSTRAINT fk_todo_user FOREIGN KEY (user_id) REFERENCES users (id)");
+
+        int modulus = properties.getHashPartitions();
+        for (int remainder = 0; remainder < modulus; remainder++) {
+            statements.add("CREATE TABLE " + PARENT_TABLE + "_p" + remainder + " PARTITION OF " + STAGING_TABLE +
+                " FOR VALUES WITH (MODULUS " + modulus + ", REMAINDER " + remainder + ")");
+        }
+
+        statements.add("INSERT INTO " + STAGING_TABLE + " SELECT * FROM " + PARENT_TABLE);
+        statements.add("SELECT setval('" + ID_SEQUENCE + "', COALESCE((SELECT MAX(id) FROM " + PARENT_TABLE +
+            "), 0) + 1, false)");
+        statements.add("DROP TABLE " + PARENT_TABLE);
+        statements.add("ALTER TABLE " + STAGING_TABLE + " RENAME TO " + PARENT_TABLE);
+        statements.add("ALTER SEQUENCE " + ID_SEQUENCE + " OWNED BY " + PARENT_TABLE + ".id");
+
+        // Recreate the entity indexes on the partitioned parent; PostgreSQL cascades them to every partition
+        statements.add("CREATE INDEX idx_todo_user_id ON todos (user_id)");
+        statements.add("CREATE INDEX idx_todo_status ON todos (status)");
+        statements.add("CREATE INDEX idx_todo_priority ON todos (priority)");
+        statements.add("CREATE INDEX idx_todo_due_date ON todos (due_date)");
+        statements.add("CREATE INDEX idx_todo_user_status ON todos (user_id, status)");
+        statements.add("CREATE INDEX idx_todo_created_at ON todos (created_at)");
+        return statements;
+    }
+
+    private boolean isPostgres() {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+            connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgresql"));
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = ?",
+            Integer.class, PARENT_TABLE);
+        return count != null && count > 0;
+    }
+}
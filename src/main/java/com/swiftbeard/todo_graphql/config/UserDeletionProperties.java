@@ -0,0 +1,28 @@
+package com.swiftbeard.todo_graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code deleteUser}. Small accounts are always deleted synchronously with
+ * set-based statements; with {@code async-enabled} large accounts are deleted in background chunks.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.user-deletion")
+public class UserDeletionProperties {
+
+    private boolean asyncEnabled = false;
+
+    // Accounts with at least this many todos are deleted in the background
+    private long asyncThreshold = 10_000;
+
+    // Todos deleted per background transaction
+    private int chunkSize = 1000;
+
+    private Duration chunkPause = Duration.ofMillis(20);
+
+    // A background deletion whose node stopped renewing its claim this long ago is taken over by a starting node
+    private Duration claimTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,45 @@
+package com.swiftbeard.todo_graphql.controller;
+
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A query document registered under an id.
+ *
+ * @param userIds       the id arguments of its root fields when each of them reads a single user's data,
+ *                      or {@code null} when the query may read anyone's
+ * @param timeDependent whether its result can change with the clock alone, as overdue todos do
+ */
+public record PersistedQuery(String id, String document, List<Value<?>> userIds, boolean timeDependent) {
+
+    /**
+     * The users whose data the query reads with these variables, or {@code null} when that is not known.
+     */
+    public List<Long> resolveUserIds(Map<String, Object> variables) {
+        if (userIds == null) {
+            return null;
+        }
+        List<Long> resolved = new ArrayList<>(userIds.size());
+        for (Value<?> value : userIds) {
+            Object raw = value instanceof VariableReference variable ? variables.get(variable.getName())
+                : value instanceof IntValue intValue ? intValue.getValue()
+                : value instanceof StringValue stringValue ? stringValue.getValue()
+                : null;
+            if (raw == null) {
+                return null;
+            }
+            try {
+                resolved.add(Long.valueOf(raw.toString()));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        return resolved;
+    }
+}
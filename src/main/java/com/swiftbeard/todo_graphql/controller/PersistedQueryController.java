@@ -0,0 +1,154 @@
+package com.swiftbeard.todo_graphql.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftbeard.todo_graphql.config.PersistedQueryProperties;
+import com.swiftbeard.todo_graphql.service.DataVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Runs persisted queries over GET, so that clients and intermediaries can revalidate instead of downloading
+ * an unchanged result again. The strong ETag is built from the {@link DataVersions} of the users the query
+ * reads, before anything runs: a matching {@code If-None-Match} gets {@code 304} without executing a resolver.
+ * <p>
+ * A result is tagged only when the versions did not move while it was built, had no errors, does not
+ * depend on the clock and its version has been current for the settle delay.
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.persisted-queries.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PersistedQueryController {
+
+    // Intermediaries may store the result but must revalidate it on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private final PersistedQueryRegistry registry;
+    private final ExecutionGraphQlService graphQlService;
+    private final DataVersions dataVersions;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long settleDelayNanos;
+    // When this node first saw each ETag as the current version
+    private final Cache<String, Long> firstSeen = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterAccess(Duration.ofMinutes(30))
+        .build();
+
+    public PersistedQueryController(PersistedQueryRegistry registry,
+                                    ExecutionGraphQlService graphQlService,
+                                    DataVersions dataVersions,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    PersistedQueryProperties properties) {
+        this.registry = registry;
+        this.graphQlService = graphQlService;
+        this.dataVersions = dataVersions;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.settleDelayNanos = properties.getSettleDelay().toNanos();
+    }
+
+    @GetMapping("/graphql/persisted/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> execute(
+            @PathVariable String id,
+            @RequestParam(required = false) String variables,
+            @RequestParam(required = false) String operationName,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Locale locale) {
+        PersistedQuery query = registry.find(id).orElse(null);
+        if (query == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        Map<String, Object> variableValues;
+        try {
+            variableValues = StringUtils.hasText(variables)
+                ? objectMapper.readValue(variables, new TypeReference<Map<String, Object>>() { })
+                : Map.of();
+        } catch (JsonProcessingException ex) {
+            log.debug("Invalid variables for persisted query {}: {}", id, ex.getOriginalMessage());
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        String etag = etag(query, variableValues);
+        if (etag != null && matches(ifNoneMatch, etag)) {
+            record(id, "not_modified");
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build());
+        }
+        return graphQlService.execute(new DefaultExecutionGraphQlRequest(query.document(), operationName,
+                variableValues, null, UUID.randomUUID().toString(), locale))
+            .map(response -> {
+                if (etag == null || !response.getErrors().isEmpty() || !etag.equals(etag(query, variableValues))
+                        || !settled(etag)) {
+                    record(id, "untagged");
+                    return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(response.toMap());
+                }
+                record(id, "tagged");
+                return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(response.toMap());
+            });
+    }
+
+    // Null when the result can change without a write to the rows DataVersions reads
+    private String etag(PersistedQuery query, Map<String, Object> variables) {
+        if (query.timeDependent()) {
+            return null;
+        }
+        List<Long> userIds = query.resolveUserIds(variables);
+        String version = userIds == null ? "g" + dataVersions.global()
+            : userIds.stream().map(dataVersions::user).collect(Collectors.joining("-"));
+        return '"' + version + '"';
+    }
+
+    // The version is read from the database, which changes before the caches the resolvers read are invalidated
+    private boolean settled(String etag) {
+        long now = System.nanoTime();
+        return now - firstSeen.get(etag, tag -> now) >= settleDelayNanos;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as for If-None-Match; compression filters may have weakened the tag
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(String id, String result) {
+        meterRegistry.counter("todo.graphql.persisted.requests", "query", id, "result", result).increment();
+    }
+}
@@ -0,0 +1,101 @@
+package com.swiftbeard.todo_graphql.controller;
+
+import com.swiftbeard.todo_graphql.config.PersistedQueryProperties;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.Node;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.Value;
+import graphql.parser.Parser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Loads the persisted queries at startup and works out, from each document alone, which users' data
+ * it reads. Only queries can be persisted: a GET must not write.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.persisted-queries.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PersistedQueryRegistry {
+
+    // Root fields whose whole result, nested fields included, belongs to the user of that argument
+    private static final Map<String, String> USER_SCOPED_FIELDS = Map.of(
+        "user", "id",
+        "todosByUser", "userId",
+        "todosByUserAndStatus", "userId",
+        "todosByUserOrdered", "userId",
+        "searchTodosByUser", "userId");
+
+    private static final Set<String> TIME_DEPENDENT_FIELDS = Set.of(
+        "overdueTodos", "overdueTodosByUser", "isOverdue", "todoStats");
+
+    private final Map<String, PersistedQuery> queries = new LinkedHashMap<>();
+
+    public PersistedQueryRegistry(PersistedQueryProperties properties) throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(properties.getLocations())) {
+            String id = StringUtils.stripFilenameExtension(resource.getFilename());
+            queries.put(id, parse(id, resource.getContentAsString(StandardCharsets.UTF_8)));
+        }
+        log.info("Loaded {} persisted queries: {}", queries.size(), queries.keySet());
+    }
+
+    public Optional<PersistedQuery> find(String id) {
+        return Optional.ofNullable(queries.get(id));
+    }
+
+    static PersistedQuery parse(String id, String document) {
+        Document parsed = Parser.parse(document);
+        List<OperationDefinition> operations = parsed.getDefinitionsOfType(OperationDefinition.class);
+        if (operations.size() != 1 || operations.get(0).getOperation() != OperationDefinition.Operation.QUERY) {
+            throw new IllegalStateException("Persisted query " + id + " must hold exactly one query operation");
+        }
+        Set<String> fieldNames = new HashSet<>();
+        collectFieldNames(parsed, fieldNames);
+        boolean timeDependent = fieldNames.stream().anyMatch(TIME_DEPENDENT_FIELDS::contains);
+        return new PersistedQuery(id, document, userIds(operations.get(0)), timeDependent);
+    }
+
+    private static List<Value<?>> userIds(OperationDefinition operation) {
+        List<Value<?>> userIds = new ArrayList<>();
+        for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+            String argument = selection instanceof Field field ? USER_SCOPED_FIELDS.get(field.getName()) : null;
+            Value<?> value = argument != null ? ((Field) selection).getArguments().stream()
+                .filter(candidate -> candidate.getName().equals(argument))
+                .findFirst()
+                .map(candidate -> (Value<?>) candidate.getValue())
+                .orElse(null) : null;
+            if (value == null) {
+                return null;
+            }
+            userIds.add(value);
+        }
+        return userIds;
+    }
+
+    private static void collectFieldNames(Node<?> node, Set<String> names) {
+        if (node instanceof Field field) {
+            names.add(field.getName());
+        }
+        for (Node<?> child : node.getChildren()) {
+            collectFieldNames(child, names);
+        }
+    }
+}
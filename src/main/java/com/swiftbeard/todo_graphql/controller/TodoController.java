@@ -1,13 +1,20 @@
 package com.swiftbeard.todo_graphql.controller;
 
 import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
 import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
 import com.swiftbeard.todo_graphql.entity.Todo;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
-import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import com.swiftbeard.todo_graphql.service.TodoArchiveService;
 import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex.TodoCounts;
+import com.swiftbeard.todo_graphql.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -15,89 +22,122 @@ import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Controller
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class TodoController {
 
     private final TodoService todoService;
+    private final TodoArchiveService todoArchiveService;
+    private final UserService userService;
+    private final TodoStatsIndex todoStatsIndex;
 
     // Query Mappings
     @QueryMapping
-    public Todo todo(@Argument Long id) {
-        log.debug("GraphQL query: todo(id: {})", id);
-        return todoService.getTodoById(id);
+    public TodoSnapshot todo(@Argument Long id, @Argument Long userId, @Argument Boolean includeArchived) {
+        log.debug("GraphQL query: todo(id: {}, userId: {}, includeArchived: {})", id, userId, includeArchived);
+        if (!Boolean.TRUE.equals(includeArchived)) {
+            return findTodo(id, userId);
+        }
+        try {
+            return findTodo(id, userId);
+        } catch (ResourceNotFoundException ex) {
+            return todoArchiveService.getArchivedTodoById(id);
+        }
     }
 
     @QueryMapping
-    public List<Todo> todos() {
+    public List<TodoSnapshot> todos() {
         log.debug("GraphQL query: todos()");
-        return todoService.getAllTodos();
+        return snapshots(todoService.getAllTodos());
     }
 
     @QueryMapping
-    public List<Todo> todosByUser(@Argument Long userId) {
-        log.debug("GraphQL query: todosByUser(userId: {})", userId);
-        return todoService.getTodosByUserId(userId);
+    public List<TodoSnapshot> todosByUser(@Argument Long userId, @Argument Boolean includeArchived) {
+        log.debug("GraphQL query: todosByUser(userId: {}, includeArchived: {})", userId, includeArchived);
+        List<TodoSnapshot> todos = todoService.getTodosByUserId(userId);
+        if (!Boolean.TRUE.equals(includeArchived)) {
+            return todos;
+        }
+        List<TodoSnapshot> allTodos = new ArrayList<>(todos);
+        allTodos.addAll(todoArchiveService.getArchivedTodosByUserId(userId));
+        return allTodos;
     }
 
     @QueryMapping
-    public List<Todo> todosByUserAndStatus(@Argument Long userId, @Argument TodoStatus status) {
+    public List<TodoSnapshot> todosByUserAndStatus(@Argument Long userId, @Argument TodoStatus status) {
         log.debug("GraphQL query: todosByUserAndStatus(userId: {}, status: {})", userId, status);
-        return todoService.getTodosByUserIdAndStatus(userId, status);
+        return snapshots(todoService.getTodosByUserIdAndStatus(userId, status));
     }
 
     @QueryMapping
-    public List<Todo> todosByUserOrdered(@Argument Long userId) {
+    public List<TodoSnapshot> todosByUserOrdered(@Argument Long userId) {
         log.debug("GraphQL query: todosByUserOrdered(userId: {})", userId);
-        return todoService.getTodosByUserIdOrdered(userId);
+        return snapshots(todoService.getTodosByUserIdOrdered(userId));
     }
 
     @QueryMapping
-    public List<Todo> overdueTodos() {
+    public List<TodoSnapshot> overdueTodos() {
         log.debug("GraphQL query: overdueTodos()");
-        return todoService.getOverdueTodos();
+        return snapshots(todoService.getOverdueTodos());
     }
 
     @QueryMapping
-    public List<Todo> overdueTodosByUser(@Argument Long userId) {
+    public List<TodoSnapshot> overdueTodosByUser(@Argument Long userId) {
         log.debug("GraphQL query: overdueTodosByUser(userId: {})", userId);
-        return todoService.getOverdueTodosByUserId(userId);
+        return snapshots(todoService.getOverdueTodosByUserId(userId));
     }
 
     @QueryMapping
-    public List<Todo> searchTodosByUser(@Argument Long userId, @Argument String search) {
+    public List<TodoSnapshot> searchTodosByUser(@Argument Long userId, @Argument String search) {
         log.debug("GraphQL query: searchTodosByUser(userId: {}, search: {})", userId, search);
-        return todoService.searchTodosByUser(userId, search);
+        return snapshots(todoService.searchTodosByUser(userId, search));
     }
 
     @QueryMapping
     public TodoStats todoStats(@Argument Long userId) {
         log.debug("GraphQL query: todoStats(userId: {})", userId);
-        List<Todo> todos = todoService.getTodosByUserId(userId);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<TodoCounts> indexed = todoStatsIndex.counts(userId, now);
+        if (indexed.isPresent()) {
+            // The index does not know users; an unknown id must still fail
+            userService.getUserById(userId);
+            TodoCounts counts = indexed.get();
+            return new TodoStats(
+                counts.total(),
+                counts.withStatus(TodoStatus.COMPLETED),
+                counts.withStatus(TodoStatus.PENDING),
+                counts.withStatus(TodoStatus.IN_PROGRESS),
+                counts.withStatus(TodoStatus.CANCELLED),
+                counts.overdue()
+            );
+        }
+
+        List<TodoSnapshot> todos = todoService.getTodosByUserId(userId);
 
         long completedCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.COMPLETED)
+            .filter(t -> t.status() == TodoStatus.COMPLETED)
             .count();
 
         long pendingCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.PENDING)
+            .filter(t -> t.status() == TodoStatus.PENDING)
             .count();
 
         long inProgressCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.IN_PROGRESS)
+            .filter(t -> t.status() == TodoStatus.IN_PROGRESS)
             .count();
 
         long cancelledCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.CANCELLED)
+            .filter(t -> t.status() == TodoStatus.CANCELLED)
             .count();
 
         long overdueCount = todos.stream()
-            .filter(t -> t.getDueDate() != null &&
-                t.getDueDate().isBefore(LocalDateTime.now()) &&
-                t.getStatus() != TodoStatus.COMPLETED)
+            .filter(t -> t.isOverdue(now))
             .count();
 
         return new TodoStats(
@@ -110,44 +150,55 @@ public class TodoController {
         );
     }
 
+    private TodoSnapshot findTodo(Long id, Long userId) {
+        // Passing the owner lets a partitioned todos table prune to the owner's partition
+        return userId != null
+            ? TodoSnapshot.of(todoService.getTodoByIdAndUserId(id, userId))
+            : todoService.getTodoById(id);
+    }
+
+    private List<TodoSnapshot> snapshots(List<Todo> todos) {
+        return todos.stream().map(TodoSnapshot::of).toList();
+    }
+
     // Mutation Mappings
     @MutationMapping
-    public Todo createTodo(@Argument CreateTodoInput input) {
+    public TodoSnapshot createTodo(@Argument CreateTodoInput input) {
         log.debug("GraphQL mutation: createTodo(input: {})", input);
-        return todoService.createTodo(input);
+        return TodoSnapshot.of(todoService.createTodo(input));
     }
 
     @MutationMapping
-    public Todo updateTodo(@Argument Long id, @Argument UpdateTodoInput input) {
-        log.debug("GraphQL mutation: updateTodo(id: {}, input: {})", id, input);
-        return todoService.updateTodo(id, input);
+    public TodoSnapshot updateTodo(@Argument Long id, @Argument Long userId, @Argument UpdateTodoInput input,
+                                   @Argument Long expectedVersion) {
+        log.debug("GraphQL mutation: updateTodo(id: {}, userId: {}, input: {}, expectedVersion: {})",
+            id, userId, input, expectedVersion);
+        return TodoSnapshot.of(todoService.updateTodo(id, userId, input, expectedVersion));
     }
 
     @MutationMapping
-    public Boolean deleteTodo(@Argument Long id) {
-        log.debug("GraphQL mutation: deleteTodo(id: {})", id);
-        return todoService.deleteTodo(id);
+    public Boolean deleteTodo(@Argument Long id, @Argument Long userId) {
+        log.debug("GraphQL mutation: deleteTodo(id: {}, userId: {})", id, userId);
+        return todoService.deleteTodo(id, userId);
     }
 
     @MutationMapping
-    public Todo completeTodo(@Argument Long id) {
-        log.debug("GraphQL mutation: completeTodo(id: {})", id);
-        return todoService.completeTodo(id);
+    public TodoSnapshot completeTodo(@Argument Long id, @Argument Long userId, @Argument Long expectedVersion) {
+        log.debug("GraphQL mutation: completeTodo(id: {}, userId: {}, expectedVersion: {})", id, userId, expectedVersion);
+        return TodoSnapshot.of(todoService.completeTodo(id, userId, expectedVersion));
     }
 
     // Field Resolvers
     @SchemaMapping(typeName = "Todo", field = "user")
-    public User user(Todo todo) {
-        log.debug("GraphQL field resolver: Todo.user for todo id: {}", todo.getId());
-        return todo.getUser();
+    public UserSnapshot user(TodoSnapshot todo) {
+        log.debug("GraphQL field resolver: Todo.user for todo id: {}", todo.id());
+        return userService.getUserById(todo.userId());
     }
 
     @SchemaMapping(typeName = "Todo", field = "isOverdue")
-    public Boolean isOverdue(Todo todo) {
-        log.debug("GraphQL field resolver: Todo.isOverdue for todo id: {}", todo.getId());
-        return todo.getDueDate() != null &&
-            todo.getDueDate().isBefore(LocalDateTime.now()) &&
-            todo.getStatus() != TodoStatus.COMPLETED;
+    public Boolean isOverdue(TodoSnapshot todo) {
+        log.debug("GraphQL field resolver: Todo.isOverdue for todo id: {}", todo.id());
+        return todo.isOverdue(LocalDateTime.now());
     }
 
     // Stats DTO
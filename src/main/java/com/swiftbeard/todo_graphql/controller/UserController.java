@@ -1,81 +1,89 @@
 package com.swiftbeard.todo_graphql.controller;
 
 import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
 import com.swiftbeard.todo_graphql.dto.UpdateUserInput;
-import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
 import com.swiftbeard.todo_graphql.entity.User;
 import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex.TodoCounts;
 import com.swiftbeard.todo_graphql.service.UserService;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.dataloader.DataLoader;
+import org.springframework.context.annotation.Profile;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 @Controller
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
 
     private final UserService userService;
     private final TodoService todoService;
+    private final TodoStatsIndex todoStatsIndex;
 
     // Query Mappings
     @QueryMapping
-    public User user(@Argument Long id) {
+    public UserSnapshot user(@Argument Long id) {
         log.debug("GraphQL query: user(id: {})", id);
         return userService.getUserById(id);
     }
 
     @QueryMapping
-    public User userByEmail(@Argument String email) {
+    public UserSnapshot userByEmail(@Argument String email) {
         log.debug("GraphQL query: userByEmail(email: {})", email);
         return userService.getUserByEmail(email);
     }
 
     @QueryMapping
-    public User userByUsername(@Argument String username) {
+    public UserSnapshot userByUsername(@Argument String username) {
         log.debug("GraphQL query: userByUsername(username: {})", username);
         return userService.getUserByUsername(username);
     }
 
     @QueryMapping
-    public List<User> users() {
+    public List<UserSnapshot> users() {
         log.debug("GraphQL query: users()");
-        return userService.getAllUsers();
+        return snapshots(userService.getAllUsers());
     }
 
     @QueryMapping
-    public List<User> activeUsers() {
+    public List<UserSnapshot> activeUsers() {
         log.debug("GraphQL query: activeUsers()");
-        return userService.getActiveUsers();
+        return snapshots(userService.getActiveUsers());
     }
 
     @QueryMapping
-    public List<User> searchUsers(@Argument String search) {
+    public List<UserSnapshot> searchUsers(@Argument String search) {
         log.debug("GraphQL query: searchUsers(search: {})", search);
-        return userService.searchUsers(search);
+        return snapshots(userService.searchUsers(search));
     }
 
     // Mutation Mappings
     @MutationMapping
-    public User createUser(@Argument CreateUserInput input) {
+    public UserSnapshot createUser(@Argument CreateUserInput input) {
         log.debug("GraphQL mutation: createUser(input: {})", input);
-        return userService.createUser(input);
+        return UserSnapshot.of(userService.createUser(input));
     }
 
     @MutationMapping
-    public User updateUser(@Argument Long id, @Argument UpdateUserInput input) {
-        log.debug("GraphQL mutation: updateUser(id: {}, input: {})", id, input);
-        return userService.updateUser(id, input);
+    public UserSnapshot updateUser(@Argument Long id, @Argument UpdateUserInput input, @Argument Long expectedVersion) {
+        log.debug("GraphQL mutation: updateUser(id: {}, input: {}, expectedVersion: {})", id, input, expectedVersion);
+        return UserSnapshot.of(userService.updateUser(id, input, expectedVersion));
     }
 
     @MutationMapping
@@ -86,27 +94,41 @@ public class UserController {
 
     // Field Resolvers using DataLoader for efficient batching
     @SchemaMapping(typeName = "User", field = "todos")
-    public CompletableFuture<List<Todo>> todos(User user, DataFetchingEnvironment environment) {
-        log.debug("GraphQL field resolver: User.todos for user id: {}", user.getId());
-        DataLoader<Long, List<Todo>> dataLoader = environment.getDataLoader("todosByUser");
-        return dataLoader.load(user.getId());
+    public CompletableFuture<List<TodoSnapshot>> todos(UserSnapshot user, DataFetchingEnvironment environment) {
+        log.debug("GraphQL field resolver: User.todos for user id: {}", user.id());
+        DataLoader<Long, List<TodoSnapshot>> dataLoader = environment.getDataLoader("todosByUser");
+        return dataLoader.load(user.id());
     }
 
     @SchemaMapping(typeName = "User", field = "todoCount")
-    public Integer todoCount(User user) {
-        log.debug("GraphQL field resolver: User.todoCount for user id: {}", user.getId());
-        return todoService.getTodosByUserId(user.getId()).size();
+    public Integer todoCount(UserSnapshot user) {
+        log.debug("GraphQL field resolver: User.todoCount for user id: {}", user.id());
+        return counts(user)
+            .map(TodoCounts::total)
+            .orElseGet(() -> todoService.getTodosByUserId(user.id()).size());
     }
 
     @SchemaMapping(typeName = "User", field = "completedTodoCount")
-    public Integer completedTodoCount(User user) {
-        log.debug("GraphQL field resolver: User.completedTodoCount for user id: {}", user.getId());
-        return todoService.countTodosByUserIdAndStatus(user.getId(), TodoStatus.COMPLETED).intValue();
+    public Integer completedTodoCount(UserSnapshot user) {
+        log.debug("GraphQL field resolver: User.completedTodoCount for user id: {}", user.id());
+        return counts(user)
+            .map(counts -> counts.withStatus(TodoStatus.COMPLETED))
+            .orElseGet(() -> todoService.countTodosByUserIdAndStatus(user.id(), TodoStatus.COMPLETED).intValue());
     }
 
     @SchemaMapping(typeName = "User", field = "pendingTodoCount")
-    public Integer pendingTodoCount(User user) {
-        log.debug("GraphQL field resolver: User.pendingTodoCount for user id: {}", user.getId());
-        return todoService.countTodosByUserIdAndStatus(user.getId(), TodoStatus.PENDING).intValue();
+    public Integer pendingTodoCount(UserSnapshot user) {
+        log.debug("GraphQL field resolver: User.pendingTodoCount for user id: {}", user.id());
+        return counts(user)
+            .map(counts -> counts.withStatus(TodoStatus.PENDING))
+            .orElseGet(() -> todoService.countTodosByUserIdAndStatus(user.id(), TodoStatus.PENDING).intValue());
+    }
+
+    private Optional<TodoCounts> counts(UserSnapshot user) {
+        return todoStatsIndex.counts(user.id(), LocalDateTime.now());
+    }
+
+    private List<UserSnapshot> snapshots(List<User> users) {
+        return users.stream().map(UserSnapshot::of).toList();
     }
 }
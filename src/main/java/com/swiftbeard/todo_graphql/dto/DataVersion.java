@@ -0,0 +1,30 @@
+package com.swiftbeard.todo_graphql.dto;
+
+/**
+ * Fingerprint of the committed users and todos rows in a scope: how many there are, the sum of their
+ * optimistic-lock versions and the highest id. Every update bumps a version, every insert takes a new
+ * highest id and every delete lowers a count, so any committed write changes the fingerprint.
+ */
+public record DataVersion(
+    long users,
+    long userVersions,
+    long lastUserId,
+    long todos,
+    long todoVersions,
+    long lastTodoId
+) {
+
+    /**
+     * Combines the fingerprints of the same scope read on several shards.
+     */
+    public DataVersion merge(DataVersion other) {
+        return new DataVersion(users + other.users, userVersions + other.userVersions,
+            Math.max(lastUserId, other.lastUserId), todos + other.todos, todoVersions + other.todoVersions,
+            Math.max(lastTodoId, other.lastTodoId));
+    }
+
+    public String tag() {
+        return Long.toString(users, 36) + '.' + Long.toString(userVersions, 36) + '.' + Long.toString(lastUserId, 36)
+            + '.' + Long.toString(todos, 36) + '.' + Long.toString(todoVersions, 36) + '.' + Long.toString(lastTodoId, 36);
+    }
+}
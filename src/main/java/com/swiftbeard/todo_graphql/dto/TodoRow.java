@@ -0,0 +1,29 @@
+package com.swiftbeard.todo_graphql.dto;
+
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a todos row read over plain JDBC, bypassing the persistence context.
+ */
+public record TodoRow(
+    Long id,
+    String title,
+    String description,
+    TodoStatus status,
+    TodoPriority priority,
+    LocalDateTime dueDate,
+    LocalDateTime completedAt,
+    Long userId,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Long version
+) {
+
+    public TodoSnapshot toSnapshot() {
+        return new TodoSnapshot(id, title, description, status, priority, dueDate, completedAt,
+            userId, createdAt, updatedAt, version);
+    }
+}
@@ -0,0 +1,46 @@
+package com.swiftbeard.todo_graphql.dto;
+
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a todo's columns, as cached and served to the GraphQL layer. The owner is
+ * kept as its id; {@code Todo.user} is resolved through the cached {@code UserService}.
+ */
+public record TodoSnapshot(
+    Long id,
+    String title,
+    String description,
+    TodoStatus status,
+    TodoPriority priority,
+    LocalDateTime dueDate,
+    LocalDateTime completedAt,
+    Long userId,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Long version
+) {
+
+    // Reading the id of a lazy owner proxy does not initialize it
+    public static TodoSnapshot of(Todo todo) {
+        return new TodoSnapshot(
+            todo.getId(),
+            todo.getTitle(),
+            todo.getDescription(),
+            todo.getStatus(),
+            todo.getPriority(),
+            todo.getDueDate(),
+            todo.getCompletedAt(),
+            todo.getUser().getId(),
+            todo.getCreatedAt(),
+            todo.getUpdatedAt(),
+            todo.getVersion());
+    }
+
+    public boolean isOverdue(LocalDateTime now) {
+        return dueDate != null && dueDate.isBefore(now) && status != TodoStatus.COMPLETED;
+    }
+}
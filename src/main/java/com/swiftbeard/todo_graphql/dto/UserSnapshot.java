@@ -0,0 +1,35 @@
+package com.swiftbeard.todo_graphql.dto;
+
+import com.swiftbeard.todo_graphql.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a user's columns, as cached and served to the GraphQL layer. It holds no
+ * Hibernate state; {@code User.todos} and the todo counts are resolved separately.
+ */
+public record UserSnapshot(
+    Long id,
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    Boolean isActive,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Long version
+) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getIsActive(),
+            user.getCreatedAt(),
+            user.getUpdatedAt(),
+            user.getVersion());
+    }
+}
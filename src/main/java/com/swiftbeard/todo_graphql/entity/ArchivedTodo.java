@@ -0,0 +1,69 @@
+package com.swiftbeard.todo_graphql.entity;
+
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a completed todo that has been moved out of the hot {@code todos} table.
+ * Rows keep their original id so archived todos stay addressable by the same key.
+ */
+@Entity
+@Table(name = "todos_archive", indexes = {
+    @Index(name = "idx_todo_archive_user_id", columnList = "user_id"),
+    @Index(name = "idx_todo_archive_archived_at", columnList = "archived_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTodo {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TodoStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TodoPriority priority;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Archived rows are served through the regular Todo type
+    public TodoSnapshot toSnapshot() {
+        return new TodoSnapshot(id, title, description, status, priority, dueDate, completedAt,
+            userId, createdAt, updatedAt, version);
+    }
+}
@@ -59,7 +59,7 @@ public class Todo {
     private LocalDateTime completedAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_todo_user"))
     @NotNull(message = "User is required")
     private User user;
 
@@ -71,6 +71,10 @@ public class Todo {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public enum TodoStatus {
         PENDING,
         IN_PROGRESS,
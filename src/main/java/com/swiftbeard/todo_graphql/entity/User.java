@@ -32,12 +32,12 @@ public class User {
 
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @Size(max = 100, message = "First name must not exceed 100 characters")
@@ -52,6 +52,17 @@ public class User {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Set when the user's data is being deleted in the background; pending deletions resume after a restart
+    @Column(name = "deletion_requested_at")
+    private LocalDateTime deletionRequestedAt;
+
+    // The node running the background deletion, which renews the claim with every chunk
+    @Column(name = "deletion_claimed_by", length = 36)
+    private String deletionClaimedBy;
+
+    @Column(name = "deletion_claimed_at")
+    private LocalDateTime deletionClaimedAt;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Todo> todos = new ArrayList<>();
@@ -64,6 +75,10 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Helper methods for bidirectional relationship
     public void addTodo(Todo todo) {
         todos.add(todo);
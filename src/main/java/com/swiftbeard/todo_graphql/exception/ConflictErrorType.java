@@ -0,0 +1,10 @@
+package com.swiftbeard.todo_graphql.exception;
+
+import graphql.ErrorClassification;
+
+/**
+ * GraphQL error classification for writes rejected by optimistic concurrency control.
+ */
+public enum ConflictErrorType implements ErrorClassification {
+    CONFLICT
+}
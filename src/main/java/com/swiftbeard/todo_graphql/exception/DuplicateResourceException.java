@@ -1,7 +1,22 @@
 package com.swiftbeard.todo_graphql.exception;
 
+import lombok.Getter;
+
+@Getter
 public class DuplicateResourceException extends RuntimeException {
+
+    private final String entity;
+    private final String field;
+
     public DuplicateResourceException(String message) {
         super(message);
+        this.entity = null;
+        this.field = null;
+    }
+
+    public DuplicateResourceException(String entity, String field, Object value) {
+        super(entity + " already exists with " + field + ": " + value);
+        this.entity = entity;
+        this.field = field;
     }
 }
@@ -1,21 +1,30 @@
 package com.swiftbeard.todo_graphql.exception;
 
+import com.swiftbeard.todo_graphql.service.OptimisticLockMetrics;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.graphql.execution.ErrorType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class GraphQLExceptionHandler extends DataFetcherExceptionResolverAdapter {
 
+    private final OptimisticLockMetrics optimisticLockMetrics;
+
     @Override
     protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
         log.error("GraphQL error occurred: {}", ex.getMessage(), ex);
@@ -30,14 +39,43 @@ public class GraphQLExceptionHandler extends DataFetcherExceptionResolverAdapter
         }
 
         if (ex instanceof DuplicateResourceException) {
+            DuplicateResourceException duplicate = (DuplicateResourceException) ex;
+            Map<String, Object> extensions = new LinkedHashMap<>();
+            if (duplicate.getEntity() != null) {
+                extensions.put("entity", duplicate.getEntity());
+            }
+            if (duplicate.getField() != null) {
+                extensions.put("field", duplicate.getField());
+            }
             return GraphqlErrorBuilder.newError()
                 .errorType(ErrorType.BAD_REQUEST)
                 .message(ex.getMessage())
+                .extensions(extensions)
                 .path(env.getExecutionStepInfo().getPath())
                 .location(env.getField().getSourceLocation())
                 .build();
         }
 
+        if (ex instanceof OptimisticConflictException) {
+            OptimisticConflictException conflict = (OptimisticConflictException) ex;
+            return conflictError(conflict.getMessage(), conflict.getEntity(), conflict.getId(),
+                conflict.getExpectedVersion(), conflict.getActualVersion(), env);
+        }
+
+        // Raised when the versioned UPDATE matches no row because another writer committed first
+        if (ex instanceof OptimisticLockingFailureException) {
+            String entity = "unknown";
+            Object id = null;
+            if (ex instanceof ObjectOptimisticLockingFailureException) {
+                ObjectOptimisticLockingFailureException objectEx = (ObjectOptimisticLockingFailureException) ex;
+                entity = simpleName(objectEx.getPersistentClassName());
+                id = objectEx.getIdentifier();
+            }
+            optimisticLockMetrics.recordConflict(entity);
+            return conflictError(entity + " with id: " + id + " was modified concurrently",
+                entity, id, null, null, env);
+        }
+
         if (ex instanceof ConstraintViolationException) {
             String violations = ((ConstraintViolationException) ex).getConstraintViolations()
                 .stream()
@@ -69,4 +107,34 @@ public class GraphQLExceptionHandler extends DataFetcherExceptionResolverAdapter
             .location(env.getField().getSourceLocation())
             .build();
     }
+
+    private GraphQLError conflictError(String message, String entity, Object id, Long expectedVersion,
+                                       Long actualVersion, DataFetchingEnvironment env) {
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("entity", entity);
+        if (id != null) {
+            extensions.put("id", String.valueOf(id));
+        }
+        if (expectedVersion != null) {
+            extensions.put("expectedVersion", expectedVersion);
+        }
+        if (actualVersion != null) {
+            extensions.put("actualVersion", actualVersion);
+        }
+
+        return GraphqlErrorBuilder.newError()
+            .errorType(ConflictErrorType.CONFLICT)
+            .message(message)
+            .extensions(extensions)
+            .path(env.getExecutionStepInfo().getPath())
+            .location(env.getField().getSourceLocation())
+            .build();
+    }
+
+    private static String simpleName(String className) {
+        if (className == null) {
+            return "unknown";
+        }
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
 }
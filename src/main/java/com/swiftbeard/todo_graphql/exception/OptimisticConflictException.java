@@ -0,0 +1,21 @@
+package com.swiftbeard.todo_graphql.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OptimisticConflictException extends RuntimeException {
+
+    private final String entity;
+    private final Object id;
+    private final Long expectedVersion;
+    private final Long actualVersion;
+
+    public OptimisticConflictException(String entity, Object id, Long expectedVersion, Long actualVersion) {
+        super(entity + " with id: " + id + " was modified concurrently (expected version " + expectedVersion +
+            ", actual version " + actualVersion + ")");
+        this.entity = entity;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+}
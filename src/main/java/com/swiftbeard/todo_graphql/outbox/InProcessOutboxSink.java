@@ -0,0 +1,25 @@
+package com.swiftbeard.todo_graphql.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes outbox events on the Spring application event bus; consumers use
+ * {@code @EventListener} on {@link OutboxMessage}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
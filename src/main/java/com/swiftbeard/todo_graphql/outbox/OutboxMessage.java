@@ -0,0 +1,29 @@
+package com.swiftbeard.todo_graphql.outbox;
+
+import com.swiftbeard.todo_graphql.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change event as handed to an {@link OutboxSink}. The payload is the JSON written by the mutation.
+ */
+public record OutboxMessage(
+    Long id,
+    String aggregateType,
+    Long aggregateId,
+    String eventType,
+    String payload,
+    LocalDateTime createdAt
+) {
+
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(
+            event.getId(),
+            event.getAggregateType(),
+            event.getAggregateId(),
+            event.getEventType(),
+            event.getPayload(),
+            event.getCreatedAt()
+        );
+    }
+}
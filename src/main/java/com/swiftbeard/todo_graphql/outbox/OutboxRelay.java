@@ -0,0 +1,139 @@
+package com.swiftbeard.todo_graphql.outbox;
+
+import com.swiftbeard.todo_graphql.config.OutboxProperties;
+import com.swiftbeard.todo_graphql.entity.OutboxEvent;
+import com.swiftbeard.todo_graphql.repository.OutboxEventRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table in batches and hands the events to the configured {@link OutboxSink}.
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, so several application instances
+ * can relay concurrently without publishing the same event twice.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+    private final Timer publishLag;
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       OutboxProperties properties,
+                       TransactionTemplate transactionTemplate,
+                       ShardRouter shardRouter,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+
+        this.publishedEvents = Counter.builder("todo.outbox.published")
+            .description("Outbox events handed to the sink")
+            .register(meterRegistry);
+        this.failedBatches = Counter.builder("todo.outbox.failed.batches")
+            .description("Outbox batches rolled back because the sink failed")
+            .register(meterRegistry);
+        this.publishLag = Timer.builder("todo.outbox.lag")
+            .description("Time from commit of the change to publication of its event")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder("todo.outbox.oldest.pending", oldestPendingAgeMillis, AtomicLong::get)
+            .description("Age of the oldest event still waiting in the outbox")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${todo.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        relay();
+    }
+
+    /**
+     * Publishes pending events until the outbox is empty or the per-poll batch limit is hit.
+     *
+     * @return number of events published
+     */
+    public int relay() {
+        // Events are written on the shard of the change they describe
+        AtomicLong total = new AtomicLong();
+        AtomicLong oldestAge = new AtomicLong();
+        shardRouter.forEachShard(shard -> {
+            total.addAndGet(relayShard());
+            LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+            if (oldest != null) {
+                oldestAge.accumulateAndGet(Duration.between(oldest, LocalDateTime.now()).toMillis(), Math::max);
+            }
+        });
+        oldestPendingAgeMillis.set(oldestAge.get());
+        return total.intValue();
+    }
+
+    private int relayShard() {
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerPoll(); batch++) {
+            int published;
+            try {
+                Integer count = transactionTemplate.execute(status -> relayBatch());
+                published = count != null ? count : 0;
+            } catch (RuntimeException ex) {
+                failedBatches.increment();
+                log.warn("Outbox relay batch failed, will retry on next poll: {}", ex.getMessage());
+                break;
+            }
+            total += published;
+            if (published < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> messages = events.stream().map(OutboxMessage::from).toList();
+        try {
+            sink.publish(messages);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Outbox sink rejected batch", ex);
+        }
+        outboxEventRepository.deleteAllInBatch(events);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            publishLag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        publishedEvents.increment(events.size());
+        log.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+}
@@ -0,0 +1,12 @@
+package com.swiftbeard.todo_graphql.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Delivery is at-least-once: if {@link #publish} throws,
+ * the batch stays in the outbox and is retried on the next poll.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,82 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.todo_graphql.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link OutboxService}: inserts change events into {@code outbox_events}
+ * on the caller's R2DBC transaction. The payloads match the blocking stack, so the relay and its
+ * consumers cannot tell which stack produced an event.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOutboxWriter {
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public Mono<Void> recordTodoEvent(String eventType, ReactiveTodo todo) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", todo.getId());
+        payload.put("userId", todo.getUserId());
+        payload.put("title", todo.getTitle());
+        payload.put("description", todo.getDescription());
+        payload.put("status", todo.getStatus());
+        payload.put("priority", todo.getPriority());
+        payload.put("dueDate", todo.getDueDate());
+        payload.put("completedAt", todo.getCompletedAt());
+        return record(OutboxService.TODO_AGGREGATE, todo.getId(), eventType, payload);
+    }
+
+    public Mono<Void> recordUserEvent(String eventType, ReactiveUser user) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", user.getId());
+        payload.put("username", user.getUsername());
+        payload.put("email", user.getEmail());
+        payload.put("firstName", user.getFirstName());
+        payload.put("lastName", user.getLastName());
+        payload.put("isActive", user.getIsActive());
+        return record(OutboxService.USER_AGGREGATE, user.getId(), eventType, payload);
+    }
+
+    public Mono<Void> recordDeletion(String aggregateType, Long aggregateId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", aggregateId);
+        return record(aggregateType, aggregateId, aggregateType + "Deleted", payload);
+    }
+
+    private Mono<Void> record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        log.debug("Recording outbox event {} for {} id: {}", eventType, aggregateType, aggregateId);
+        return Mono.fromCallable(() -> toJson(payload))
+            .flatMap(json -> databaseClient.sql("INSERT INTO outbox_events " +
+                    "(aggregate_type, aggregate_id, event_type, payload, created_at) " +
+                    "VALUES (:aggregateType, :aggregateId, :eventType, :payload, :createdAt)")
+                .bind("aggregateType", aggregateType)
+                .bind("aggregateId", aggregateId)
+                .bind("eventType", eventType)
+                .bind("payload", json)
+                .bind("createdAt", LocalDateTime.now())
+                .then());
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code todos} table for the reactive profile. The owner is kept as a plain
+ * {@code userId}; {@code Todo.user} is resolved in batches by the reactive controller.
+ */
+@Table("todos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactiveTodo {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    @Builder.Default
+    private TodoStatus status = TodoStatus.PENDING;
+
+    @Builder.Default
+    private TodoPriority priority = TodoPriority.MEDIUM;
+
+    private LocalDateTime dueDate;
+
+    private LocalDateTime completedAt;
+
+    private Long userId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    public static ReactiveTodo from(TodoSnapshot todo) {
+        return ReactiveTodo.builder()
+            .id(todo.id())
+            .title(todo.title())
+            .description(todo.description())
+            .status(todo.status())
+            .priority(todo.priority())
+            .dueDate(todo.dueDate())
+            .completedAt(todo.completedAt())
+            .userId(todo.userId())
+            .createdAt(todo.createdAt())
+            .updatedAt(todo.updatedAt())
+            .version(todo.version())
+            .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.controller.TodoController.TodoStats;
+import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTodoController {
+
+    private final ReactiveTodoService todoService;
+    private final ReactiveUserService userService;
+
+    // Query Mappings
+    @QueryMapping
+    public Mono<ReactiveTodo> todo(@Argument Long id, @Argument Long userId, @Argument Boolean includeArchived) {
+        log.debug("GraphQL query: todo(id: {}, userId: {}, includeArchived: {})", id, userId, includeArchived);
+        Mono<ReactiveTodo> todo = userId != null
+            ? todoService.getTodoByIdAndUserId(id, userId)
+            : todoService.getTodoById(id);
+        if (!Boolean.TRUE.equals(includeArchived)) {
+            return todo;
+        }
+        return todo.onErrorResume(ResourceNotFoundException.class, ex -> todoService.getArchivedTodoById(id));
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> todos() {
+        log.debug("GraphQL query: todos()");
+        return todoService.getAllTodos();
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> todosByUser(@Argument Long userId, @Argument Boolean includeArchived) {
+        log.debug("GraphQL query: todosByUser(userId: {}, includeArchived: {})", userId, includeArchived);
+        Flux<ReactiveTodo> todos = todoService.getTodosByUserId(userId);
+        if (!Boolean.TRUE.equals(includeArchived)) {
+            return todos;
+        }
+        return todos.concatWith(todoService.getArchivedTodosByUserId(userId));
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> todosByUserAndStatus(@Argument Long userId, @Argument TodoStatus status) {
+        log.debug("GraphQL query: todosByUserAndStatus(userId: {}, status: {})", userId, status);
+        return todoService.getTodosByUserIdAndStatus(userId, status);
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> todosByUserOrdered(@Argument Long userId) {
+        log.debug("GraphQL query: todosByUserOrdered(userId: {})", userId);
+        return todoService.getTodosByUserIdOrdered(userId);
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> overdueTodos() {
+        log.debug("GraphQL query: overdueTodos()");
+        return todoService.getOverdueTodos();
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> overdueTodosByUser(@Argument Long userId) {
+        log.debug("GraphQL query: overdueTodosByUser(userId: {})", userId);
+        return todoService.getOverdueTodosByUserId(userId);
+    }
+
+    @QueryMapping
+    public Flux<ReactiveTodo> searchTodosByUser(@Argument Long userId, @Argument String search) {
+        log.debug("GraphQL query: searchTodosByUser(userId: {}, search: {})", userId, search);
+        return todoService.searchTodosByUser(userId, search);
+    }
+
+    @QueryMapping
+    public Mono<TodoStats> todoStats(@Argument Long userId) {
+        log.debug("GraphQL query: todoStats(userId: {})", userId);
+        return todoService.getTodosByUserId(userId)
+            .collectList()
+            .map(todos -> new TodoStats(
+                todos.size(),
+                (int) todos.stream().filter(t -> t.getStatus() == TodoStatus.COMPLETED).count(),
+                (int) todos.stream().filter(t -> t.getStatus() == TodoStatus.PENDING).count(),
+                (int) todos.stream().filter(t -> t.getStatus() == TodoStatus.IN_PROGRESS).count(),
+                (int) todos.stream().filter(t -> t.getStatus() == TodoStatus.CANCELLED).count(),
+                (int) todos.stream().filter(ReactiveTodoController::overdue).count()
+            ));
+    }
+
+    // Mutation Mappings
+    @MutationMapping
+    public Mono<ReactiveTodo> createTodo(@Argument CreateTodoInput input) {
+        log.debug("GraphQL mutation: createTodo(input: {})", input);
+        return todoService.createTodo(input);
+    }
+
+    @MutationMapping
+    public Mono<ReactiveTodo> updateTodo(@Argument Long id, @Argument UpdateTodoInput input,
+                                         @Argument Long expectedVersion) {
+        log.debug("GraphQL mutation: updateTodo(id: {}, input: {}, expectedVersion: {})", id, input, expectedVersion);
+        return todoService.updateTodo(id, input, expectedVersion);
+    }
+
+    @MutationMapping
+    public Mono<Boolean> deleteTodo(@Argument Long id) {
+        log.debug("GraphQL mutation: deleteTodo(id: {})", id);
+        return todoService.deleteTodo(id);
+    }
+
+    @MutationMapping
+    public Mono<ReactiveTodo> completeTodo(@Argument Long id, @Argument Long expectedVersion) {
+        log.debug("GraphQL mutation: completeTodo(id: {}, expectedVersion: {})", id, expectedVersion);
+        return todoService.completeTodo(id, expectedVersion);
+    }
+
+    // Field Resolvers: owners of all todos in a response are loaded with one query
+    @BatchMapping(typeName = "Todo", field = "user")
+    public Mono<Map<ReactiveTodo, ReactiveUser>> user(List<ReactiveTodo> todos) {
+        log.debug("GraphQL batch resolver: Todo.user for {} todos", todos.size());
+        return userService.getUsersByIds(todos.stream().map(ReactiveTodo::getUserId).distinct().toList())
+            .collectMap(ReactiveUser::getId)
+            .map(usersById -> {
+                Map<ReactiveTodo, ReactiveUser> owners = new HashMap<>();
+                for (ReactiveTodo todo : todos) {
+                    ReactiveUser owner = usersById.get(todo.getUserId());
+                    if (owner != null) {
+                        owners.put(todo, owner);
+                    }
+                }
+                return owners;
+            });
+    }
+
+    @SchemaMapping(typeName = "Todo", field = "isOverdue")
+    public Boolean isOverdue(ReactiveTodo todo) {
+        log.debug("GraphQL field resolver: Todo.isOverdue for todo id: {}", todo.getId());
+        return overdue(todo);
+    }
+
+    private static boolean overdue(ReactiveTodo todo) {
+        return todo.getDueDate() != null &&
+            todo.getDueDate().isBefore(LocalDateTime.now()) &&
+            todo.getStatus() != TodoStatus.COMPLETED;
+    }
+}
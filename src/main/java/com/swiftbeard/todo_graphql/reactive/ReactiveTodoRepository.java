@@ -0,0 +1,96 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of {@link com.swiftbeard.todo_graphql.repository.TodoRepository}.
+ */
+@Repository
+public interface ReactiveTodoRepository extends R2dbcRepository<ReactiveTodo, Long> {
+
+    Flux<ReactiveTodo> findByUserId(Long userId);
+
+    Mono<ReactiveTodo> findByIdAndUserId(Long id, Long userId);
+
+    Flux<ReactiveTodo> findByUserIdAndStatus(Long userId, TodoStatus status);
+
+    Flux<ReactiveTodo> findByUserIdIn(Collection<Long> userIds);
+
+    @Query("SELECT * FROM todos WHERE user_id = :userId ORDER BY priority DESC, due_date ASC")
+    Flux<ReactiveTodo> findByUserIdOrderedByPriorityAndDueDate(@Param("userId") Long userId);
+
+    @Query("SELECT * FROM todos WHERE due_date < :date AND status <> 'COMPLETED'")
+    Flux<ReactiveTodo> findOverdueTodos(@Param("date") LocalDateTime date);
+
+    @Query("SELECT * FROM todos WHERE user_id = :userId AND due_date < :date AND status <> 'COMPLETED'")
+    Flux<ReactiveTodo> findOverdueTodosByUserId(@Param("userId") Long userId, @Param("date") LocalDateTime date);
+
+    @Query("SELECT * FROM todos WHERE user_id = :userId " +
+           "AND (LOWER(title) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(description) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Flux<ReactiveTodo> searchTodosByUser(@Param("userId") Long userId, @Param("search") String search);
+
+    Mono<Long> countByUserId(Long userId);
+
+    Mono<Long> countByUserIdAndStatus(Long userId, TodoStatus status);
+
+    @Query("SELECT id FROM todos WHERE user_id = :userId")
+    Flux<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT user_id FROM todos WHERE id = :id")
+    Mono<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("SELECT version FROM todos WHERE id = :id")
+    Mono<Long> findVersionById(@Param("id") Long id);
+
+    // Same single-statement partial update as TodoRepository.updateFields
+    @Modifying
+    @Query("UPDATE todos SET title = COALESCE(:title, title), " +
+           "description = COALESCE(:description, description), " +
+           "status = COALESCE(:status, status), " +
+           "priority = COALESCE(:priority, priority), " +
+           "due_date = COALESCE(:dueDate, due_date), " +
+           "completed_at = COALESCE(completed_at, :completedAt), " +
+           "updated_at = :now, version = version + 1 " +
+           "WHERE id = :id AND version = COALESCE(:expectedVersion, version)")
+    Mono<Integer> updateFields(@Param("id") Long id,
+                               @Param("expectedVersion") Long expectedVersion,
+                               @Param("title") String title,
+                               @Param("description") String description,
+                               @Param("status") TodoStatus status,
+                               @Param("priority") TodoPriority priority,
+                               @Param("dueDate") LocalDateTime dueDate,
+                               @Param("completedAt") LocalDateTime completedAt,
+                               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE todos SET status = :status, completed_at = :now, updated_at = :now, version = version + 1 " +
+           "WHERE id = :id AND version = COALESCE(:expectedVersion, version)")
+    Mono<Integer> markCompleted(@Param("id") Long id,
+                                @Param("expectedVersion") Long expectedVersion,
+                                @Param("status") TodoStatus status,
+                                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM todos WHERE id = :id")
+    Mono<Integer> deleteTodoById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM todos WHERE user_id = :userId")
+    Mono<Integer> deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM todos_archive WHERE user_id = :userId")
+    Mono<Integer> deleteArchivedByUserId(@Param("userId") Long userId);
+}
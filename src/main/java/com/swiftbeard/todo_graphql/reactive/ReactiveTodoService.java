@@ -0,0 +1,231 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import com.swiftbeard.todo_graphql.service.OptimisticLockMetrics;
+import com.swiftbeard.todo_graphql.service.OutboxService;
+import com.swiftbeard.todo_graphql.service.TodoArchiveService;
+import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link TodoService} used by the {@code reactive} profile.
+ * Mutations use the same conditional single-statement updates as the blocking stack and, once
+ * committed, publish the same cache invalidations, so blocking nodes sharing the database and
+ * the invalidation transport never serve what a reactive node changed.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveTodoService {
+
+    private final ReactiveTodoRepository todoRepository;
+    private final ReactiveUserService userService;
+    private final ReactiveOutboxWriter outboxWriter;
+    private final TransactionalOperator transactionalOperator;
+    private final OptimisticLockMetrics optimisticLockMetrics;
+    private final TodoArchiveService todoArchiveService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ObjectProvider<TodoStatsIndex> todoStatsIndex;
+
+    public Mono<ReactiveTodo> getTodoById(Long id) {
+        log.debug("Fetching todo by id: {}", id);
+        return todoRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo not found with id: " + id)));
+    }
+
+    public Mono<ReactiveTodo> getTodoByIdAndUserId(Long id, Long userId) {
+        log.debug("Fetching todo by id: {} for user id: {}", id, userId);
+        return todoRepository.findByIdAndUserId(id, userId)
+            .switchIfEmpty(Mono.error(() ->
+                new ResourceNotFoundException("Todo not found with id: " + id + " for user id: " + userId)));
+    }
+
+    public Flux<ReactiveTodo> getTodosByUserId(Long userId) {
+        log.debug("Fetching todos for user id: {}", userId);
+        // Verify user exists
+        return userService.getUserById(userId)
+            .thenMany(todoRepository.findByUserId(userId));
+    }
+
+    public Flux<ReactiveTodo> getTodosByUserIdAndStatus(Long userId, TodoStatus status) {
+        log.debug("Fetching todos for user id: {} with status: {}", userId, status);
+        return todoRepository.findByUserIdAndStatus(userId, status);
+    }
+
+    public Flux<ReactiveTodo> getTodosByUserIdOrdered(Long userId) {
+        log.debug("Fetching ordered todos for user id: {}", userId);
+        return todoRepository.findByUserIdOrderedByPriorityAndDueDate(userId);
+    }
+
+    public Flux<ReactiveTodo> getOverdueTodos() {
+        log.debug("Fetching overdue todos");
+        return todoRepository.findOverdueTodos(LocalDateTime.now());
+    }
+
+    public Flux<ReactiveTodo> getOverdueTodosByUserId(Long userId) {
+        log.debug("Fetching overdue todos for user id: {}", userId);
+        return todoRepository.findOverdueTodosByUserId(userId, LocalDateTime.now());
+    }
+
+    public Flux<ReactiveTodo> getAllTodos() {
+        log.debug("Fetching all todos");
+        return todoRepository.findAll();
+    }
+
+    public Flux<ReactiveTodo> searchTodosByUser(Long userId, String search) {
+        log.debug("Searching todos for user id: {} with term: {}", userId, search);
+        return todoRepository.searchTodosByUser(userId, search);
+    }
+
+    // Archive reads are rare and opt-in, so they reuse the blocking archive service off the event loop
+    public Flux<ReactiveTodo> getArchivedTodosByUserId(Long userId) {
+        return Mono.fromCallable(() -> todoArchiveService.getArchivedTodosByUserId(userId))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapIterable(todos -> todos.stream().map(ReactiveTodo::from).toList());
+    }
+
+    public Mono<ReactiveTodo> getArchivedTodoById(Long id) {
+        return Mono.fromCallable(() -> ReactiveTodo.from(todoArchiveService.getArchivedTodoById(id)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<ReactiveTodo> createTodo(@Valid CreateTodoInput input) {
+        log.info("Creating new todo with title: {} for user id: {}", input.getTitle(), input.getUserId());
+        LocalDateTime now = LocalDateTime.now();
+        ReactiveTodo todo = ReactiveTodo.builder()
+            .title(input.getTitle())
+            .description(input.getDescription())
+            .status(input.getStatus() != null ? input.getStatus() : TodoStatus.PENDING)
+            .priority(input.getPriority() != null ? input.getPriority() : TodoPriority.MEDIUM)
+            .dueDate(input.getDueDate())
+            .userId(input.getUserId())
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+
+        // The INSERT's foreign key is the existence check
+        return todoRepository.save(todo)
+            .onErrorMap(ex -> ex instanceof DataIntegrityViolationException violation
+                    && TodoService.violatesUserForeignKey(violation),
+                ex -> new ResourceNotFoundException("User not found with id: " + input.getUserId()))
+            .flatMap(saved -> outboxWriter.recordTodoEvent("TodoCreated", saved).thenReturn(saved))
+            .as(transactionalOperator::transactional)
+            .doOnNext(saved -> {
+                afterCommit(saved.getId(), saved.getUserId());
+                log.info("Todo created successfully with id: {}", saved.getId());
+            });
+    }
+
+    public Mono<ReactiveTodo> updateTodo(Long id, @Valid UpdateTodoInput input, Long expectedVersion) {
+        log.info("Updating todo with id: {} (expected version: {})", id, expectedVersion);
+        LocalDateTime now = LocalDateTime.now();
+        // Automatically set completedAt when status changes to COMPLETED
+        LocalDateTime completedAt = input.getStatus() == TodoStatus.COMPLETED ? now : null;
+
+        return Mono.defer(() -> {
+                optimisticLockMetrics.recordUpdate("Todo");
+                return todoRepository.updateFields(id, expectedVersion, input.getTitle(), input.getDescription(),
+                    input.getStatus(), input.getPriority(), input.getDueDate(), completedAt, now);
+            })
+            .flatMap(updated -> updated == 0 ? notFoundOrConflict(id, expectedVersion) : getTodoById(id))
+            .flatMap(updated -> outboxWriter.recordTodoEvent("TodoUpdated", updated).thenReturn(updated))
+            .as(transactionalOperator::transactional)
+            .doOnNext(updated -> {
+                afterCommit(updated.getId(), updated.getUserId());
+                log.info("Todo updated successfully with id: {}", updated.getId());
+            });
+    }
+
+    public Mono<Boolean> deleteTodo(Long id) {
+        log.info("Deleting todo with id: {}", id);
+        // The owner decides which cached todo list goes stale
+        return todoRepository.findUserIdById(id)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo not found with id: " + id)))
+            .flatMap(ownerId -> todoRepository.deleteTodoById(id)
+                .flatMap(deleted -> deleted == 0
+                    ? Mono.<Long>error(new ResourceNotFoundException("Todo not found with id: " + id))
+                    : outboxWriter.recordDeletion(OutboxService.TODO_AGGREGATE, id).thenReturn(ownerId)))
+            .as(transactionalOperator::transactional)
+            .doOnNext(ownerId -> {
+                afterCommit(id, ownerId);
+                log.info("Todo deleted successfully with id: {}", id);
+            })
+            .thenReturn(true);
+    }
+
+    public Mono<ReactiveTodo> completeTodo(Long id, Long expectedVersion) {
+        log.info("Completing todo with id: {} (expected version: {})", id, expectedVersion);
+        return Mono.defer(() -> {
+                optimisticLockMetrics.recordUpdate("Todo");
+                return todoRepository.markCompleted(id, expectedVersion, TodoStatus.COMPLETED, LocalDateTime.now());
+            })
+            .flatMap(updated -> updated == 0 ? notFoundOrConflict(id, expectedVersion) : getTodoById(id))
+            .flatMap(completed -> outboxWriter.recordTodoEvent("TodoCompleted", completed).thenReturn(completed))
+            .as(transactionalOperator::transactional)
+            .doOnNext(completed -> {
+                afterCommit(completed.getId(), completed.getUserId());
+                log.info("Todo completed successfully with id: {}", completed.getId());
+            });
+    }
+
+    // Runs after the TransactionalOperator committed. No transaction is bound to this thread, so the
+    // bus evicts this node's copies, advances the data versions and notifies the other nodes right away
+    private void afterCommit(Long todoId, Long userId) {
+        cacheInvalidationBus.evictAfterCommit("todos", todoId);
+        cacheInvalidationBus.evictAfterCommit("userTodos", userId);
+        todoStatsIndex.ifAvailable(index -> index.invalidateAfterCommit(List.of(userId)));
+    }
+
+    // Only reached when the conditional UPDATE matched no row: either the todo is gone or its version moved on
+    private Mono<ReactiveTodo> notFoundOrConflict(Long id, Long expectedVersion) {
+        return todoRepository.findVersionById(id)
+            .flatMap(actualVersion -> {
+                optimisticLockMetrics.recordConflict("Todo");
+                return Mono.<ReactiveTodo>error(new OptimisticConflictException("Todo", id, expectedVersion, actualVersion));
+            })
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo not found with id: " + id)));
+    }
+
+    // Batch loading method for User.todos
+    public Mono<Map<Long, List<ReactiveTodo>>> getTodosByUserIds(Collection<Long> userIds) {
+        log.debug("Batch fetching todos for user ids: {}", userIds);
+        return todoRepository.findByUserIdIn(userIds)
+            .collect(Collectors.groupingBy(ReactiveTodo::getUserId));
+    }
+
+    public Mono<Long> countTodosByUserId(Long userId) {
+        log.debug("Counting todos for user id: {}", userId);
+        return todoRepository.countByUserId(userId);
+    }
+
+    public Mono<Long> countTodosByUserIdAndStatus(Long userId, TodoStatus status) {
+        log.debug("Counting todos for user id: {} with status: {}", userId, status);
+        return todoRepository.countByUserIdAndStatus(userId, status);
+    }
+}
@@ -0,0 +1,44 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code users} table for the reactive profile. The table itself is
+ * defined by the JPA {@link com.swiftbeard.todo_graphql.entity.User} entity.
+ */
+@Table("users")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactiveUser {
+
+    @Id
+    private Long id;
+
+    private String username;
+
+    private String email;
+
+    private String firstName;
+
+    private String lastName;
+
+    @Builder.Default
+    private Boolean isActive = true;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+}
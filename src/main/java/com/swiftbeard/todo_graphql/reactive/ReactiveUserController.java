@@ -0,0 +1,115 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.UpdateUserInput;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Controller
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+    private final ReactiveTodoService todoService;
+
+    // Query Mappings
+    @QueryMapping
+    public Mono<ReactiveUser> user(@Argument Long id) {
+        log.debug("GraphQL query: user(id: {})", id);
+        return userService.getUserById(id);
+    }
+
+    @QueryMapping
+    public Mono<ReactiveUser> userByEmail(@Argument String email) {
+        log.debug("GraphQL query: userByEmail(email: {})", email);
+        return userService.getUserByEmail(email);
+    }
+
+    @QueryMapping
+    public Mono<ReactiveUser> userByUsername(@Argument String username) {
+        log.debug("GraphQL query: userByUsername(username: {})", username);
+        return userService.getUserByUsername(username);
+    }
+
+    @QueryMapping
+    public Flux<ReactiveUser> users() {
+        log.debug("GraphQL query: users()");
+        return userService.getAllUsers();
+    }
+
+    @QueryMapping
+    public Flux<ReactiveUser> activeUsers() {
+        log.debug("GraphQL query: activeUsers()");
+        return userService.getActiveUsers();
+    }
+
+    @QueryMapping
+    public Flux<ReactiveUser> searchUsers(@Argument String search) {
+        log.debug("GraphQL query: searchUsers(search: {})", search);
+        return userService.searchUsers(search);
+    }
+
+    // Mutation Mappings
+    @MutationMapping
+    public Mono<ReactiveUser> createUser(@Argument CreateUserInput input) {
+        log.debug("GraphQL mutation: createUser(input: {})", input);
+        return userService.createUser(input);
+    }
+
+    @MutationMapping
+    public Mono<ReactiveUser> updateUser(@Argument Long id, @Argument UpdateUserInput input,
+                                         @Argument Long expectedVersion) {
+        log.debug("GraphQL mutation: updateUser(id: {}, input: {}, expectedVersion: {})", id, input, expectedVersion);
+        return userService.updateUser(id, input, expectedVersion);
+    }
+
+    @MutationMapping
+    public Mono<Boolean> deleteUser(@Argument Long id) {
+        log.debug("GraphQL mutation: deleteUser(id: {})", id);
+        return userService.deleteUser(id);
+    }
+
+    // Field Resolvers: User.todos is batched per request, like the todosByUser DataLoader
+    @BatchMapping(typeName = "User", field = "todos")
+    public Mono<Map<ReactiveUser, List<ReactiveTodo>>> todos(List<ReactiveUser> users) {
+        log.debug("GraphQL batch resolver: User.todos for {} users", users.size());
+        return todoService.getTodosByUserIds(users.stream().map(ReactiveUser::getId).distinct().toList())
+            .map(todosByUserId -> users.stream().collect(Collectors.toMap(Function.identity(),
+                user -> todosByUserId.getOrDefault(user.getId(), List.of()), (first, second) -> first)));
+    }
+
+    @SchemaMapping(typeName = "User", field = "todoCount")
+    public Mono<Integer> todoCount(ReactiveUser user) {
+        log.debug("GraphQL field resolver: User.todoCount for user id: {}", user.getId());
+        return todoService.countTodosByUserId(user.getId()).map(Long::intValue);
+    }
+
+    @SchemaMapping(typeName = "User", field = "completedTodoCount")
+    public Mono<Integer> completedTodoCount(ReactiveUser user) {
+        log.debug("GraphQL field resolver: User.completedTodoCount for user id: {}", user.getId());
+        return todoService.countTodosByUserIdAndStatus(user.getId(), TodoStatus.COMPLETED).map(Long::intValue);
+    }
+
+    @SchemaMapping(typeName = "User", field = "pendingTodoCount")
+    public Mono<Integer> pendingTodoCount(ReactiveUser user) {
+        log.debug("GraphQL field resolver: User.pendingTodoCount for user id: {}", user.getId());
+        return todoService.countTodosByUserIdAndStatus(user.getId(), TodoStatus.PENDING).map(Long::intValue);
+    }
+}
@@ -0,0 +1,30 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<ReactiveUser, Long> {
+
+    Mono<ReactiveUser> findByEmail(String email);
+
+    Mono<ReactiveUser> findByUsername(String username);
+
+    @Query("SELECT * FROM users WHERE is_active = TRUE ORDER BY created_at DESC")
+    Flux<ReactiveUser> findAllActiveUsers();
+
+    @Query("SELECT * FROM users WHERE LOWER(username) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(first_name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(last_name) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Flux<ReactiveUser> searchUsers(@Param("search") String search);
+
+    @Modifying
+    @Query("DELETE FROM users WHERE id = :id")
+    Mono<Integer> deleteUserById(@Param("id") Long id);
+}
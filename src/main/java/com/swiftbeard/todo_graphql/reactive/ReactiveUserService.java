@@ -0,0 +1,186 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.UserAliasIndex;
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.UpdateUserInput;
+import com.swiftbeard.todo_graphql.exception.DuplicateResourceException;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import com.swiftbeard.todo_graphql.service.OptimisticLockMetrics;
+import com.swiftbeard.todo_graphql.service.OutboxService;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex;
+import com.swiftbeard.todo_graphql.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link UserService} used by the {@code reactive} profile.
+ * Committed writes are published through the {@link CacheInvalidationBus} like the blocking ones.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveTodoRepository todoRepository;
+    private final ReactiveOutboxWriter outboxWriter;
+    private final TransactionalOperator transactionalOperator;
+    private final OptimisticLockMetrics optimisticLockMetrics;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final UserAliasIndex userAliasIndex;
+    private final ObjectProvider<TodoStatsIndex> todoStatsIndex;
+
+    public Mono<ReactiveUser> getUserById(Long id) {
+        log.debug("Fetching user by id: {}", id);
+        return userRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id: " + id)));
+    }
+
+    public Mono<ReactiveUser> getUserByEmail(String email) {
+        log.debug("Fetching user by email: {}", email);
+        return userRepository.findByEmail(email)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with email: " + email)));
+    }
+
+    public Mono<ReactiveUser> getUserByUsername(String username) {
+        log.debug("Fetching user by username: {}", username);
+        return userRepository.findByUsername(username)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with username: " + username)));
+    }
+
+    public Flux<ReactiveUser> getAllUsers() {
+        log.debug("Fetching all users");
+        return userRepository.findAll();
+    }
+
+    public Flux<ReactiveUser> getActiveUsers() {
+        log.debug("Fetching active users");
+        return userRepository.findAllActiveUsers();
+    }
+
+    public Flux<ReactiveUser> searchUsers(String search) {
+        log.debug("Searching users with term: {}", search);
+        return userRepository.searchUsers(search);
+    }
+
+    public Flux<ReactiveUser> getUsersByIds(Collection<Long> ids) {
+        log.debug("Batch fetching users by ids: {}", ids);
+        return userRepository.findAllById(ids);
+    }
+
+    public Mono<ReactiveUser> createUser(@Valid CreateUserInput input) {
+        log.info("Creating new user with username: {}", input.getUsername());
+        LocalDateTime now = LocalDateTime.now();
+        ReactiveUser user = ReactiveUser.builder()
+            .username(input.getUsername())
+            .email(input.getEmail())
+            .firstName(input.getFirstName())
+            .lastName(input.getLastName())
+            .isActive(true)
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+
+        return userRepository.save(user)
+            .onErrorMap(DataIntegrityViolationException.class, ex -> translateDuplicate(ex, user))
+            .flatMap(saved -> outboxWriter.recordUserEvent("UserCreated", saved).thenReturn(saved))
+            .as(transactionalOperator::transactional)
+            .doOnNext(saved -> {
+                // Drops a remembered "not found" for the new id here and on the other nodes
+                cacheInvalidationBus.evictAfterCommit("users", saved.getId());
+                log.info("User created successfully with id: {}", saved.getId());
+            });
+    }
+
+    public Mono<ReactiveUser> updateUser(Long id, @Valid UpdateUserInput input, Long expectedVersion) {
+        log.info("Updating user with id: {} (expected version: {})", id, expectedVersion);
+        return getUserById(id)
+            .flatMap(user -> applyUpdate(user, input, expectedVersion))
+            .flatMap(updated -> outboxWriter.recordUserEvent("UserUpdated", updated).thenReturn(updated))
+            .as(transactionalOperator::transactional)
+            .doOnNext(updated -> {
+                cacheInvalidationBus.evictAfterCommit("users", updated.getId());
+                log.info("User updated successfully with id: {}", updated.getId());
+            });
+    }
+
+    private Mono<ReactiveUser> applyUpdate(ReactiveUser user, UpdateUserInput input, Long expectedVersion) {
+        optimisticLockMetrics.recordUpdate("User");
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            optimisticLockMetrics.recordConflict("User");
+            return Mono.error(new OptimisticConflictException("User", user.getId(), expectedVersion, user.getVersion()));
+        }
+
+        boolean aliasChanged = input.getEmail() != null && !input.getEmail().equals(user.getEmail())
+            || input.getUsername() != null && !input.getUsername().equals(user.getUsername());
+        if (aliasChanged) {
+            userAliasIndex.forget(user.getEmail(), user.getUsername());
+        }
+        if (input.getEmail() != null) {
+            user.setEmail(input.getEmail());
+        }
+        if (input.getUsername() != null) {
+            user.setUsername(input.getUsername());
+        }
+        if (input.getFirstName() != null) {
+            user.setFirstName(input.getFirstName());
+        }
+        if (input.getLastName() != null) {
+            user.setLastName(input.getLastName());
+        }
+        if (input.getIsActive() != null) {
+            user.setIsActive(input.getIsActive());
+        }
+        user.setUpdatedAt(LocalDateTime.now());
+
+        return userRepository.save(user)
+            .onErrorMap(DataIntegrityViolationException.class, ex -> translateDuplicate(ex, user));
+    }
+
+    public Mono<Boolean> deleteUser(Long id) {
+        log.info("Deleting user with id: {}", id);
+        // Always inline; background chunked deletion is only available on the blocking stack.
+        // The todo ids are read in the same transaction so their cached entries can be evicted.
+        return todoRepository.findIdsByUserId(id).collectList()
+            .flatMap(todoIds -> todoRepository.deleteByUserId(id)
+                .then(todoRepository.deleteArchivedByUserId(id))
+                .then(userRepository.deleteUserById(id))
+                .flatMap(deleted -> deleted == 0
+                    ? Mono.<List<Long>>error(new ResourceNotFoundException("User not found with id: " + id))
+                    : outboxWriter.recordDeletion(OutboxService.USER_AGGREGATE, id).thenReturn(todoIds)))
+            .as(transactionalOperator::transactional)
+            .map(todoIds -> {
+                cacheInvalidationBus.evictAfterCommit("users", id);
+                cacheInvalidationBus.evictAfterCommit("userTodos", id);
+                cacheInvalidationBus.evictAfterCommit("todos", todoIds);
+                todoStatsIndex.ifAvailable(index -> index.invalidateAfterCommit(List.of(id)));
+                log.info("User deleted successfully with id: {}", id);
+                return true;
+            });
+    }
+
+    private Throwable translateDuplicate(DataIntegrityViolationException ex, ReactiveUser user) {
+        String field = UserService.violatedUniqueField(ex);
+        if (field == null) {
+            return ex;
+        }
+        return new DuplicateResourceException("User", field, "email".equals(field) ? user.getEmail() : user.getUsername());
+    }
+}
@@ -0,0 +1,20 @@
+package com.swiftbeard.todo_graphql.repository;
+
+import com.swiftbeard.todo_graphql.entity.ArchivedTodo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedTodoRepository extends JpaRepository<ArchivedTodo, Long> {
+
+    List<ArchivedTodo> findByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedTodo a WHERE a.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,190 @@
+package com.swiftbeard.todo_graphql.repository;
+
+import com.swiftbeard.todo_graphql.dto.DataVersion;
+import com.swiftbeard.todo_graphql.dto.TodoRow;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC versions of the hottest {@link TodoRepository} reads. Rows are mapped by hand
+ * into {@link TodoRow} records, skipping entity instantiation, dirty-check snapshots and
+ * persistence-context registration.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TodoJdbcRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT id, title, description, status, priority, due_date, " +
+        "completed_at, user_id, created_at, updated_at, version FROM todos";
+
+    private static final String SELECT_STATS_COLUMNS = "SELECT id, user_id, status, priority, due_date FROM todos";
+
+    private static final String SELECT_STATS_GROUPS = "SELECT user_id, status, priority, COUNT(*) FROM todos " +
+        "GROUP BY user_id, status, priority ORDER BY user_id";
+
+    // Inside a transaction, lets PostgreSQL stream the full scan through a cursor instead of buffering it
+    private static final int STATS_FETCH_SIZE = 1000;
+
+    // Live tuples as tracked by the statistics collector, for the table itself or its partitions
+    private static final String POSTGRES_ROW_ESTIMATE = "SELECT COALESCE(SUM(n_live_tup), 0) FROM pg_stat_user_tables " +
+        "WHERE relid = 'todos'::regclass OR relid IN (SELECT inhrelid FROM pg_inherits WHERE inhparent = 'todos'::regclass)";
+
+    private static final String H2_ROW_ESTIMATE = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES " +
+        "WHERE TABLE_NAME = 'TODOS' AND TABLE_SCHEMA = CURRENT_SCHEMA";
+
+    private static final String DATA_VERSION_COLUMNS = "COUNT(*) AS row_count, COALESCE(SUM(version), 0) AS version_sum, " +
+        "COALESCE(MAX(id), 0) AS max_id";
+
+    private static final String SELECT_DATA_VERSION = "SELECT u.row_count, u.version_sum, u.max_id, " +
+        "t.row_count, t.version_sum, t.max_id FROM ";
+
+    private static final RowMapper<DataVersion> DATA_VERSION_MAPPER = (rs, rowNum) -> new DataVersion(
+        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6));
+
+    static final RowMapper<TodoRow> ROW_MAPPER = TodoJdbcRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<TodoRow> findByUserId(Long userId) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE user_id = :userId",
+            new MapSqlParameterSource("userId", userId), ROW_MAPPER);
+    }
+
+    public List<TodoRow> findByUserIdIn(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE user_id IN (:userIds)",
+            new MapSqlParameterSource("userIds", userIds), ROW_MAPPER);
+    }
+
+    public long countByUserIdAndStatus(Long userId, TodoStatus status) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM todos WHERE user_id = :userId AND status = :status",
+            new MapSqlParameterSource("userId", userId).addValue("status", status.name()), Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Streams the columns of the in-memory stats index for every todo on the current shard, without
+     * materializing a row object per todo.
+     */
+    public void forEachStatsRow(StatsRowHandler handler) {
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_STATS_COLUMNS);
+            statement.setFetchSize(STATS_FETCH_SIZE);
+            return statement;
+        }, statsRowCallback(handler));
+    }
+
+    public void forEachStatsRow(Long userId, StatsRowHandler handler) {
+        jdbcTemplate.query(SELECT_STATS_COLUMNS + " WHERE user_id = :userId",
+            new MapSqlParameterSource("userId", userId), statsRowCallback(handler));
+    }
+
+    private static RowCallbackHandler statsRowCallback(StatsRowHandler handler) {
+        return rs -> {
+            String priority = rs.getString(4);
+            handler.accept(rs.getLong(1), rs.getLong(2), TodoStatus.valueOf(rs.getString(3)),
+                priority != null ? TodoPriority.valueOf(priority) : null, toLocalDateTime(rs.getTimestamp(5)));
+        };
+    }
+
+    @FunctionalInterface
+    public interface StatsRowHandler {
+        void accept(long id, long userId, TodoStatus status, TodoPriority priority, LocalDateTime dueDate);
+    }
+
+    /**
+     * Streams the number of todos per user, status and priority on the current shard, grouped by the
+     * database and ordered by user, so that the stats index can be checked without a row per todo.
+     */
+    public void forEachStatsGroup(StatsGroupHandler handler) {
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_STATS_GROUPS);
+            statement.setFetchSize(STATS_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            String priority = rs.getString(3);
+            handler.accept(rs.getLong(1), TodoStatus.valueOf(rs.getString(2)),
+                priority != null ? TodoPriority.valueOf(priority) : null, rs.getInt(4));
+        });
+    }
+
+    @FunctionalInterface
+    public interface StatsGroupHandler {
+        void accept(long userId, TodoStatus status, TodoPriority priority, int count);
+    }
+
+    /**
+     * Fingerprint of a user's row and their todos on the current shard, in one statement over the
+     * primary key and the user_id index.
+     */
+    public DataVersion dataVersion(Long userId) {
+        return jdbcTemplate.queryForObject(SELECT_DATA_VERSION +
+                "(SELECT " + DATA_VERSION_COLUMNS + " FROM users WHERE id = :userId) u CROSS JOIN " +
+                "(SELECT " + DATA_VERSION_COLUMNS + " FROM todos WHERE user_id = :userId) t",
+            new MapSqlParameterSource("userId", userId), DATA_VERSION_MAPPER);
+    }
+
+    /**
+     * Fingerprint of all users and todos on the current shard.
+     */
+    public DataVersion dataVersion() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(SELECT_DATA_VERSION +
+            "(SELECT " + DATA_VERSION_COLUMNS + " FROM users) u CROSS JOIN " +
+            "(SELECT " + DATA_VERSION_COLUMNS + " FROM todos) t", DATA_VERSION_MAPPER);
+    }
+
+    /**
+     * The database's own estimate of the rows in todos on the current shard, summed over partitions.
+     * Read from the statistics instead of a {@code COUNT(*)} scan of the largest table.
+     */
+    public long estimatedRowCount() {
+        JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+        Long estimate = jdbc.queryForObject(isPostgres(jdbc) ? POSTGRES_ROW_ESTIMATE : H2_ROW_ESTIMATE, Long.class);
+        return estimate != null ? Math.max(estimate, 0L) : 0L;
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbc) {
+        Boolean postgres = jdbc.execute((ConnectionCallback<Boolean>) connection ->
+            connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgresql"));
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    private static TodoRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new TodoRow(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            TodoStatus.valueOf(rs.getString(4)),
+            TodoPriority.valueOf(rs.getString(5)),
+            toLocalDateTime(rs.getTimestamp(6)),
+            toLocalDateTime(rs.getTimestamp(7)),
+            rs.getLong(8),
+            toLocalDateTime(rs.getTimestamp(9)),
+            toLocalDateTime(rs.getTimestamp(10)),
+            rs.getLong(11)
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -3,7 +3,9 @@ package com.swiftbeard.todo_graphql.repository;
 import com.swiftbeard.todo_graphql.entity.Todo;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +19,9 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
 
     List<Todo> findByUserId(Long userId);
 
+    // Carries user_id so a hash-partitioned todos table is pruned to a single partition
+    Optional<Todo> findByIdAndUserId(Long id, Long userId);
+
     List<Todo> findByUserIdAndStatus(Long userId, TodoStatus status);
 
     List<Todo> findByUserIdAndPriority(Long userId, TodoPriority priority);
@@ -43,10 +48,85 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
            "OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Todo> searchTodosByUser(@Param("userId") Long userId, @Param("search") String search);
 
+    // Single-todo writes and their conflict checks carry user_id as well as id, so a hash-partitioned
+    // todos table is pruned to the owner's partition
+    @Query("SELECT t.version FROM Todo t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Reads the foreign key column only, no join to users. Without user_id it probes every partition,
+    // so it is only used when neither the caller nor the todos cache knows the owner
+    @Query("SELECT t.user.id FROM Todo t WHERE t.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    // Single-statement partial update: null arguments keep the current value, completedAt is only
+    // set if still empty, and a non-null expectedVersion turns the WHERE clause into a version check
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.title = COALESCE(:title, t.title), " +
+           "t.description = COALESCE(:description, t.description), " +
+           "t.status = COALESCE(:status, t.status), " +
+           "t.priority = COALESCE(:priority, t.priority), " +
+           "t.dueDate = COALESCE(:dueDate, t.dueDate), " +
+           "t.completedAt = COALESCE(t.completedAt, :completedAt), " +
+           "t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.user.id = :userId AND t.version = COALESCE(:expectedVersion, t.version)")
+    int updateFields(@Param("id") Long id,
+                     @Param("userId") Long userId,
+                     @Param("expectedVersion") Long expectedVersion,
+                     @Param("title") String title,
+                     @Param("description") String description,
+                     @Param("status") TodoStatus status,
+                     @Param("priority") TodoPriority priority,
+                     @Param("dueDate") LocalDateTime dueDate,
+                     @Param("completedAt") LocalDateTime completedAt,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.status = :status, t.completedAt = :now, t.updatedAt = :now, " +
+           "t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.user.id = :userId AND t.version = COALESCE(:expectedVersion, t.version)")
+    int markCompleted(@Param("id") Long id,
+                      @Param("userId") Long userId,
+                      @Param("expectedVersion") Long expectedVersion,
+                      @Param("status") TodoStatus status,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id = :id AND t.user.id = :userId")
+    int deleteTodoById(@Param("id") Long id, @Param("userId") Long userId);
+
     @Query("SELECT COUNT(t) FROM Todo t WHERE t.user.id = :userId AND t.status = :status")
     Long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") TodoStatus status);
 
     // Efficient batch loading for DataLoader
     @Query("SELECT t FROM Todo t WHERE t.user.id IN :userIds")
     List<Todo> findByUserIdIn(@Param("userIds") List<Long> userIds);
+
+    // Archival: claims a batch of old completed todos, skipping rows locked by a concurrent archiver
+    @Query(value = "SELECT id, user_id FROM todos WHERE status = 'COMPLETED' AND completed_at < :cutoff " +
+                   "ORDER BY completed_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockArchivableTodos(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO todos_archive (id, title, description, status, priority, due_date, completed_at, " +
+                   "user_id, created_at, updated_at, version, archived_at) " +
+                   "SELECT id, title, description, status, priority, due_date, completed_at, " +
+                   "user_id, created_at, updated_at, version, :archivedAt FROM todos WHERE id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    long countByUserId(Long userId);
+
+    @Query("SELECT t.id FROM Todo t WHERE t.user.id = :userId ORDER BY t.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Set-based delete: bypasses the User.todos cascade, which would load and delete each todo
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT MIN(t.completedAt) FROM Todo t WHERE t.status = 'COMPLETED' AND t.completedAt < :cutoff")
+    LocalDateTime findOldestArchivableCompletedAt(@Param("cutoff") LocalDateTime cutoff);
 }
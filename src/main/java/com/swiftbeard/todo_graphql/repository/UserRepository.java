@@ -2,10 +2,12 @@ package com.swiftbeard.todo_graphql.repository;
 
 import com.swiftbeard.todo_graphql.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,4 +38,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) " +
            "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<User> searchUsers(@Param("search") String search);
+
+    // Bulk delete without cascading; the caller removes the user's todos first
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isActive = false, u.deletionRequestedAt = :now, u.deletionClaimedBy = :node, " +
+           "u.deletionClaimedAt = :now, u.version = u.version + 1 WHERE u.id = :id")
+    int markForDeletion(@Param("id") Long id, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    // Takes or renews the claim on a pending deletion, unless another node renewed its own since staleBefore
+    @Modifying
+    @Query("UPDATE User u SET u.deletionClaimedBy = :node, u.deletionClaimedAt = :now " +
+           "WHERE u.id = :id AND u.deletionRequestedAt IS NOT NULL " +
+           "AND (u.deletionClaimedBy = :node OR u.deletionClaimedAt IS NULL OR u.deletionClaimedAt < :staleBefore)")
+    int claimDeletion(@Param("id") Long id,
+                      @Param("node") String node,
+                      @Param("now") LocalDateTime now,
+                      @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT u.id FROM User u WHERE u.deletionRequestedAt IS NOT NULL ORDER BY u.deletionRequestedAt")
+    List<Long> findIdsPendingDeletion();
 }
@@ -0,0 +1,41 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.dto.DataVersion;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Versions of the committed data, from which persisted GET queries derive their ETags without running
+ * resolvers. They are read from the database, so every node, before and after a restart, derives the
+ * same version for the same data.
+ */
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class DataVersions {
+
+    private final TodoJdbcRepository todoJdbcRepository;
+    private final ShardRouter shardRouter;
+
+    /**
+     * The version of a user's row and their todos: one indexed aggregate on the user's shard.
+     */
+    public String user(Long userId) {
+        return shardRouter.onShardOf(userId, () -> todoJdbcRepository.dataVersion(userId)).tag();
+    }
+
+    /**
+     * The version of all users and todos, aggregated over every shard.
+     */
+    public String global() {
+        return shardRouter.scatter(() -> List.of(todoJdbcRepository.dataVersion())).stream()
+            .reduce(DataVersion::merge)
+            .orElseThrow()
+            .tag();
+    }
+}
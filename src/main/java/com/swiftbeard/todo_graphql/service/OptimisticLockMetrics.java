@@ -0,0 +1,33 @@
+package com.swiftbeard.todo_graphql.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts versioned updates and the conflicts among them, so the conflict rate
+ * ({@code todo.optimistic.conflicts / todo.optimistic.updates}) can be graphed per entity.
+ */
+@Component
+@RequiredArgsConstructor
+public class OptimisticLockMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordUpdate(String entity) {
+        Counter.builder("todo.optimistic.updates")
+            .description("Versioned updates attempted")
+            .tag("entity", entity)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordConflict(String entity) {
+        Counter.builder("todo.optimistic.conflicts")
+            .description("Updates rejected because the entity was modified concurrently")
+            .tag("entity", entity)
+            .register(meterRegistry)
+            .increment();
+    }
+}
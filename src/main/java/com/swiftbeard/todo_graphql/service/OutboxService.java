@@ -0,0 +1,83 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftbeard.todo_graphql.entity.OutboxEvent;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records change events in the outbox table. Must run inside the caller's transaction so an
+ * event is stored if and only if the change it describes is committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    public static final String TODO_AGGREGATE = "Todo";
+    public static final String USER_AGGREGATE = "User";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTodoEvent(String eventType, Todo todo) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", todo.getId());
+        payload.put("userId", todo.getUser() != null ? todo.getUser().getId() : null);
+        payload.put("title", todo.getTitle());
+        payload.put("description", todo.getDescription());
+        payload.put("status", todo.getStatus());
+        payload.put("priority", todo.getPriority());
+        payload.put("dueDate", todo.getDueDate());
+        payload.put("completedAt", todo.getCompletedAt());
+        record(TODO_AGGREGATE, todo.getId(), eventType, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserEvent(String eventType, User user) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", user.getId());
+        payload.put("username", user.getUsername());
+        payload.put("email", user.getEmail());
+        payload.put("firstName", user.getFirstName());
+        payload.put("lastName", user.getLastName());
+        payload.put("isActive", user.getIsActive());
+        record(USER_AGGREGATE, user.getId(), eventType, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(String aggregateType, Long aggregateId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", aggregateId);
+        record(aggregateType, aggregateId, aggregateType + "Deleted", payload);
+    }
+
+    private void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        log.debug("Recording outbox event {} for {} id: {}", eventType, aggregateType, aggregateId);
+        outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateType(aggregateType)
+            .aggregateId(aggregateId)
+            .eventType(eventType)
+            .payload(toJson(payload))
+            .build());
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
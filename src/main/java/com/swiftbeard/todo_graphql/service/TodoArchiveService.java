@@ -0,0 +1,192 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.config.ArchiveProperties;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.ArchivedTodo;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import com.swiftbeard.todo_graphql.repository.ArchivedTodoRepository;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
+import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves completed todos older than {@code todo.archive.min-age} from the hot {@code todos}
+ * table into {@code todos_archive}. Each batch runs in its own short transaction and claims
+ * rows with {@code FOR UPDATE SKIP LOCKED}, so archiving never blocks foreground writers.
+ */
+@Service
+@Slf4j
+public class TodoArchiveService {
+
+    private final TodoRepository todoRepository;
+    private final TodoJdbcRepository todoJdbcRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final UserService userService;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ShardRouter shardRouter;
+    private final ObjectProvider<TodoStatsIndex> todoStatsIndex;
+
+    private final AtomicLong hotRows = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter archivedRows;
+
+    public TodoArchiveService(TodoRepository todoRepository,
+                              TodoJdbcRepository todoJdbcRepository,
+                              ArchivedTodoRepository archivedTodoRepository,
+                              UserService userService,
+                              ArchiveProperties properties,
+                              TransactionTemplate transactionTemplate,
+                              CacheInvalidationBus cacheInvalidationBus,
+                              ShardRouter shardRouter,
+                              ObjectProvider<TodoStatsIndex> todoStatsIndex,
+                              MeterRegistry meterRegistry) {
+        this.todoRepository = todoRepository;
+        this.todoJdbcRepository = todoJdbcRepository;
+        this.archivedTodoRepository = archivedTodoRepository;
+        this.userService = userService;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.shardRouter = shardRouter;
+        this.todoStatsIndex = todoStatsIndex;
+
+        Gauge.builder("todo.archive.hot.rows", hotRows, AtomicLong::get)
+            .description("Estimated rows in the hot todos table as of the last archive run")
+            .register(meterRegistry);
+        Gauge.builder("todo.archive.lag", lagSeconds, AtomicLong::get)
+            .description("Age beyond the archive threshold of the oldest completed todo still in the hot table")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.archivedRows = Counter.builder("todo.archive.archived.rows")
+            .description("Todos moved to the archive table")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${todo.archive.interval:PT15M}", initialDelayString = "${todo.archive.initial-delay:PT1M}")
+    public void runScheduledArchive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        archiveCompletedTodos(LocalDateTime.now().minus(properties.getMinAge()));
+    }
+
+    /**
+     * Archives completed todos whose completedAt is before the cutoff, batch by batch.
+     *
+     * @return number of todos moved to the archive
+     */
+    public int archiveCompletedTodos(LocalDateTime cutoff) {
+        log.info("Archiving completed todos older than {}", cutoff);
+        AtomicLong total = new AtomicLong();
+        shardRouter.forEachShard(shard -> total.addAndGet(archiveShard(cutoff)));
+
+        refreshMetrics(cutoff);
+        log.info("Archived {} completed todos", total.get());
+        return total.intValue();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TodoSnapshot> getArchivedTodosByUserId(Long userId) {
+        log.debug("Fetching archived todos for user id: {}", userId);
+        return shardRouter.onShardOf(userId, () -> {
+            // Verify user exists
+            userService.getUserById(userId);
+            List<TodoSnapshot> todos = new ArrayList<>();
+            for (ArchivedTodo archived : archivedTodoRepository.findByUserId(userId)) {
+                todos.add(archived.toSnapshot());
+            }
+            return todos;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public TodoSnapshot getArchivedTodoById(Long id) {
+        log.debug("Fetching archived todo by id: {}", id);
+        return shardRouter.onShardOf(id, () -> archivedTodoRepository.findById(id)
+            .map(ArchivedTodo::toSnapshot)
+            .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id)));
+    }
+
+    private int archiveShard(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            int count = moved != null ? moved : 0;
+            total += count;
+            if (count < properties.getBatchSize()) {
+                break;
+            }
+            pauseBetweenBatches();
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Object[]> claimed = todoRepository.lockArchivableTodos(cutoff, properties.getBatchSize());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(claimed.size());
+        Set<Long> userIds = new HashSet<>();
+        for (Object[] row : claimed) {
+            ids.add(((Number) row[0]).longValue());
+            userIds.add(((Number) row[1]).longValue());
+        }
+
+        todoRepository.copyToArchive(ids, LocalDateTime.now());
+        int deleted = todoRepository.deleteByIdIn(ids);
+        archivedRows.increment(deleted);
+
+        cacheInvalidationBus.evictAfterCommit("todos", ids);
+        cacheInvalidationBus.evictAfterCommit("userTodos", userIds);
+        todoStatsIndex.ifAvailable(index -> index.invalidateAfterCommit(userIds));
+        return deleted;
+    }
+
+    private void refreshMetrics(LocalDateTime cutoff) {
+        AtomicLong rows = new AtomicLong();
+        AtomicLong lag = new AtomicLong();
+        shardRouter.forEachShard(shard -> {
+            rows.addAndGet(todoJdbcRepository.estimatedRowCount());
+            LocalDateTime oldest = todoRepository.findOldestArchivableCompletedAt(cutoff);
+            if (oldest != null) {
+                lag.accumulateAndGet(Duration.between(oldest, cutoff).toSeconds(), Math::max);
+            }
+        });
+        hotRows.set(rows.get());
+        lagSeconds.set(lag.get());
+    }
+
+    private void pauseBetweenBatches() {
+        long pauseMillis = properties.getBatchPause().toMillis();
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,25 +1,38 @@
 package com.swiftbeard.todo_graphql.service;
 
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.NegativeLookupCache;
+import com.swiftbeard.todo_graphql.config.FastPathProperties;
 import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.TodoRow;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
 import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
 import com.swiftbeard.todo_graphql.entity.Todo;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
 import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
 import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
 import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,62 +42,105 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class TodoService {
 
+    private static final String USER_FOREIGN_KEY = "fk_todo_user";
+
     private final TodoRepository todoRepository;
+    private final TodoJdbcRepository todoJdbcRepository;
+    private final FastPathProperties fastPathProperties;
+    private final ShardRouter shardRouter;
     private final UserService userService;
+    private final OptimisticLockMetrics optimisticLockMetrics;
+    private final OutboxService outboxService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ObjectProvider<TodoStatsIndex> todoStatsIndex;
+    private final CacheManager cacheManager;
+
+    @Cacheable(value = "todos", key = "#id", sync = true)
+    public TodoSnapshot getTodoById(Long id) {
+        return loadTodoById(id);
+    }
 
-    @Cacheable(value = "todos", key = "#id")
-    public Todo getTodoById(Long id) {
+    // Uncached read behind the todos cache, also used to refresh its entries ahead of expiry
+    public TodoSnapshot loadTodoById(Long id) {
         log.debug("Fetching todo by id: {}", id);
-        return todoRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+        return negativeLookupCache.get(NegativeLookupCache.TODOS, id,
+            () -> TodoSnapshot.of(shardRouter.onShardOf(id, () -> todoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id)))));
     }
 
-    @Cacheable(value = "userTodos", key = "#userId")
-    public List<Todo> getTodosByUserId(Long userId) {
+    // Same as above for callers that already know the owner, so the read is pruned to its partition
+    public TodoSnapshot loadTodoById(Long id, Long userId) {
+        log.debug("Fetching todo by id: {} for user id: {}", id, userId);
+        return negativeLookupCache.get(NegativeLookupCache.TODOS, id,
+            () -> TodoSnapshot.of(shardRouter.onShardOf(id, () -> reload(id, userId))));
+    }
+
+    public Todo getTodoByIdAndUserId(Long id, Long userId) {
+        log.debug("Fetching todo by id: {} for user id: {}", id, userId);
+        return shardRouter.onShardOf(userId, () -> todoRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id + " for user id: " + userId)));
+    }
+
+    @Cacheable(value = "userTodos", key = "#userId", sync = true)
+    public List<TodoSnapshot> getTodosByUserId(Long userId) {
+        return loadTodosByUserId(userId);
+    }
+
+    // Uncached read behind the userTodos cache, also used to refresh its entries ahead of expiry
+    public List<TodoSnapshot> loadTodosByUserId(Long userId) {
         log.debug("Fetching todos for user id: {}", userId);
-        // Verify user exists
-        userService.getUserById(userId);
-        return todoRepository.findByUserId(userId);
+        return shardRouter.onShardOf(userId, () -> {
+            // Verify user exists
+            userService.getUserById(userId);
+            if (fastPathProperties.isFindByUserId()) {
+                return toSnapshots(todoJdbcRepository.findByUserId(userId));
+            }
+            return todoRepository.findByUserId(userId).stream().map(TodoSnapshot::of).toList();
+        });
     }
 
     public List<Todo> getTodosByUserIdAndStatus(Long userId, TodoStatus status) {
         log.debug("Fetching todos for user id: {} with status: {}", userId, status);
-        return todoRepository.findByUserIdAndStatus(userId, status);
+        return shardRouter.onShardOf(userId, () -> todoRepository.findByUserIdAndStatus(userId, status));
     }
 
     public List<Todo> getTodosByUserIdOrdered(Long userId) {
         log.debug("Fetching ordered todos for user id: {}", userId);
-        return todoRepository.findByUserIdOrderedByPriorityAndDueDate(userId);
+        return shardRouter.onShardOf(userId, () -> todoRepository.findByUserIdOrderedByPriorityAndDueDate(userId));
     }
 
     public List<Todo> getOverdueTodos() {
         log.debug("Fetching overdue todos");
-        return todoRepository.findOverdueTodos(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        return shardRouter.scatter(() -> todoRepository.findOverdueTodos(now));
     }
 
     public List<Todo> getOverdueTodosByUserId(Long userId) {
         log.debug("Fetching overdue todos for user id: {}", userId);
-        return todoRepository.findOverdueTodosByUserId(userId, LocalDateTime.now());
+        return shardRouter.onShardOf(userId, () -> todoRepository.findOverdueTodosByUserId(userId, LocalDateTime.now()));
     }
 
     public List<Todo> getAllTodos() {
         log.debug("Fetching all todos");
-        return todoRepository.findAll();
+        return shardRouter.scatter(todoRepository::findAll);
     }
 
     public List<Todo> searchTodosByUser(Long userId, String search) {
         log.debug("Searching todos for user id: {} with term: {}", userId, search);
-        return todoRepository.searchTodosByUser(userId, search);
+        return shardRouter.onShardOf(userId, () -> todoRepository.searchTodosByUser(userId, search));
     }
 
     @Transactional
-    @CachePut(value = "todos", key = "#result.id")
-    @CacheEvict(value = "userTodos", key = "#input.userId")
     public Todo createTodo(@Valid CreateTodoInput input) {
         log.info("Creating new todo with title: {} for user id: {}", input.getTitle(), input.getUserId());
+        // A todo lives on its user's shard
+        return shardRouter.onShardOf(input.getUserId(), () -> insertTodo(input));
+    }
 
-        // Verify user exists
-        User user = userService.getUserById(input.getUserId());
+    private Todo insertTodo(CreateTodoInput input) {
+        // Reference only: the INSERT's foreign key is the existence check
+        User user = userService.getUserReference(input.getUserId());
 
         Todo todo = Todo.builder()
             .title(input.getTitle())
@@ -95,82 +151,179 @@ public class TodoService {
             .user(user)
             .build();
 
-        Todo savedTodo = todoRepository.save(todo);
+        Todo savedTodo;
+        try {
+            savedTodo = todoRepository.save(todo);
+        } catch (DataIntegrityViolationException ex) {
+            if (!violatesUserForeignKey(ex)) {
+                throw ex;
+            }
+            throw new ResourceNotFoundException("User not found with id: " + input.getUserId());
+        }
+        outboxService.recordTodoEvent("TodoCreated", savedTodo);
+        afterWrite(TodoSnapshot.of(savedTodo));
         log.info("Todo created successfully with id: {}", savedTodo.getId());
         return savedTodo;
     }
 
     @Transactional
-    @CachePut(value = "todos", key = "#id")
-    @CacheEvict(value = "userTodos", allEntries = true)
-    public Todo updateTodo(Long id, @Valid UpdateTodoInput input) {
-        log.info("Updating todo with id: {}", id);
+    public Todo updateTodo(Long id, @Valid UpdateTodoInput input, Long expectedVersion) {
+        return updateTodo(id, null, input, expectedVersion);
+    }
 
-        Todo todo = getTodoById(id);
+    /**
+     * Updates the todo with its owner in every statement. A null userId is resolved by {@link #ownerOf}.
+     */
+    @Transactional
+    public Todo updateTodo(Long id, Long userId, @Valid UpdateTodoInput input, Long expectedVersion) {
+        log.info("Updating todo with id: {} (expected version: {})", id, expectedVersion);
+        return shardRouter.onShardOf(id, () -> applyUpdate(id, ownerOf(id, userId), input, expectedVersion));
+    }
 
-        if (input.getTitle() != null) {
-            todo.setTitle(input.getTitle());
-        }
-        if (input.getDescription() != null) {
-            todo.setDescription(input.getDescription());
-        }
-        if (input.getStatus() != null) {
-            todo.setStatus(input.getStatus());
-            // Automatically set completedAt when status changes to COMPLETED
-            if (input.getStatus() == TodoStatus.COMPLETED && todo.getCompletedAt() == null) {
-                todo.setCompletedAt(LocalDateTime.now());
-            }
-        }
-        if (input.getPriority() != null) {
-            todo.setPriority(input.getPriority());
-        }
-        if (input.getDueDate() != null) {
-            todo.setDueDate(input.getDueDate());
+    private Todo applyUpdate(Long id, Long userId, UpdateTodoInput input, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        // Automatically set completedAt when status changes to COMPLETED
+        LocalDateTime completedAt = input.getStatus() == TodoStatus.COMPLETED ? now : null;
+
+        optimisticLockMetrics.recordUpdate("Todo");
+        int updated = todoRepository.updateFields(id, userId, expectedVersion, input.getTitle(), input.getDescription(),
+            input.getStatus(), input.getPriority(), input.getDueDate(), completedAt, now);
+        if (updated == 0) {
+            throw notFoundOrConflict(id, userId, expectedVersion);
         }
 
-        Todo updatedTodo = todoRepository.save(todo);
+        Todo updatedTodo = reload(id, userId);
+        outboxService.recordTodoEvent("TodoUpdated", updatedTodo);
+        afterWrite(TodoSnapshot.of(updatedTodo));
         log.info("Todo updated successfully with id: {}", updatedTodo.getId());
         return updatedTodo;
     }
 
     @Transactional
-    @CacheEvict(value = {"todos", "userTodos"}, allEntries = true)
     public boolean deleteTodo(Long id) {
+        return deleteTodo(id, null);
+    }
+
+    @Transactional
+    public boolean deleteTodo(Long id, Long userId) {
         log.info("Deleting todo with id: {}", id);
 
-        if (!todoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Todo not found with id: " + id);
-        }
+        return shardRouter.onShardOf(id, () -> {
+            // The owner decides which cached todo list goes stale
+            Long ownerId = ownerOf(id, userId);
+            if (todoRepository.deleteTodoById(id, ownerId) == 0) {
+                throw new ResourceNotFoundException("Todo not found with id: " + id + " for user id: " + ownerId);
+            }
 
-        todoRepository.deleteById(id);
-        log.info("Todo deleted successfully with id: {}", id);
-        return true;
+            outboxService.recordDeletion(OutboxService.TODO_AGGREGATE, id);
+            cacheInvalidationBus.evictAfterCommit("todos", id);
+            cacheInvalidationBus.evictAfterCommit("userTodos", ownerId);
+            todoStatsIndex.ifAvailable(index -> index.removeAfterCommit(id, ownerId));
+            log.info("Todo deleted successfully with id: {}", id);
+            return true;
+        });
     }
 
     @Transactional
-    @CachePut(value = "todos", key = "#id")
-    public Todo completeTodo(Long id) {
-        log.info("Completing todo with id: {}", id);
+    public Todo completeTodo(Long id, Long expectedVersion) {
+        return completeTodo(id, null, expectedVersion);
+    }
+
+    @Transactional
+    public Todo completeTodo(Long id, Long userId, Long expectedVersion) {
+        log.info("Completing todo with id: {} (expected version: {})", id, expectedVersion);
+
+        return shardRouter.onShardOf(id, () -> {
+            Long ownerId = ownerOf(id, userId);
+            optimisticLockMetrics.recordUpdate("Todo");
+            if (todoRepository.markCompleted(id, ownerId, expectedVersion, TodoStatus.COMPLETED, LocalDateTime.now()) == 0) {
+                throw notFoundOrConflict(id, ownerId, expectedVersion);
+            }
+
+            Todo completedTodo = reload(id, ownerId);
+            outboxService.recordTodoEvent("TodoCompleted", completedTodo);
+            afterWrite(TodoSnapshot.of(completedTodo));
+            log.info("Todo completed successfully with id: {}", completedTodo.getId());
+            return completedTodo;
+        });
+    }
+
+    /**
+     * Whether the insert failed on the todo's user_id foreign key, i.e. the user does not exist.
+     * Any other integrity violation is a different problem and must not be reported as a missing user.
+     */
+    public static boolean violatesUserForeignKey(DataIntegrityViolationException ex) {
+        String constraint = null;
+        if (ex.getCause() instanceof ConstraintViolationException) {
+            constraint = ((ConstraintViolationException) ex.getCause()).getConstraintName();
+        }
+        String detail = (constraint + " " + ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        // The constraint name as declared on the entity, or PostgreSQL's "Key (column)=" detail for older tables
+        return detail.contains(USER_FOREIGN_KEY) || detail.contains("key (user_id)=");
+    }
+
+    // The caller's userId, else the owner recorded in the cached todo, else one lookup by id: only that
+    // last step reads todos without user_id, and so without partition pruning
+    private Long ownerOf(Long id, Long userId) {
+        if (userId != null) {
+            return userId;
+        }
+        Cache todos = cacheManager.getCache("todos");
+        TodoSnapshot cached = todos != null ? todos.get(id, TodoSnapshot.class) : null;
+        if (cached != null) {
+            return cached.userId();
+        }
+        return todoRepository.findUserIdById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+    }
 
-        Todo todo = getTodoById(id);
-        todo.complete();
+    private void afterWrite(TodoSnapshot todo) {
+        cacheInvalidationBus.putAfterCommit("todos", todo.id(), todo);
+        cacheInvalidationBus.evictAfterCommit("userTodos", todo.userId());
+        todoStatsIndex.ifAvailable(index -> index.recordAfterCommit(todo));
+    }
 
-        Todo completedTodo = todoRepository.save(todo);
-        log.info("Todo completed successfully with id: {}", completedTodo.getId());
-        return completedTodo;
+    private Todo reload(Long id, Long userId) {
+        return todoRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+    }
+
+    // Only reached when the conditional UPDATE matched no row: either the todo is gone or its version moved on
+    private RuntimeException notFoundOrConflict(Long id, Long userId, Long expectedVersion) {
+        Optional<Long> actualVersion = todoRepository.findVersionByIdAndUserId(id, userId);
+        if (actualVersion.isEmpty()) {
+            return new ResourceNotFoundException("Todo not found with id: " + id + " for user id: " + userId);
+        }
+        optimisticLockMetrics.recordConflict("Todo");
+        return new OptimisticConflictException("Todo", id, expectedVersion, actualVersion.get());
     }
 
     // Batch loading method for DataLoader
-    public Map<Long, List<Todo>> getTodosByUserIds(List<Long> userIds) {
+    public Map<Long, List<TodoSnapshot>> getTodosByUserIds(List<Long> userIds) {
         log.debug("Batch fetching todos for user ids: {}", userIds);
-        List<Todo> todos = todoRepository.findByUserIdIn(userIds);
+        List<TodoSnapshot> todos = shardRouter.scatterByIds(userIds, shardUserIds -> fastPathProperties.isFindByUserIdIn()
+            ? toSnapshots(todoJdbcRepository.findByUserIdIn(shardUserIds))
+            : todoRepository.findByUserIdIn(shardUserIds).stream().map(TodoSnapshot::of).toList());
 
         return todos.stream()
-            .collect(Collectors.groupingBy(todo -> todo.getUser().getId()));
+            .collect(Collectors.groupingBy(TodoSnapshot::userId));
+    }
+
+    public List<TodoSnapshot> getTodosByIds(List<Long> ids) {
+        log.debug("Batch fetching todos by ids: {}", ids);
+        return shardRouter.scatterByIds(ids, shardIds -> todoRepository.findAllById(shardIds).stream()
+            .map(TodoSnapshot::of)
+            .toList());
     }
 
     public Long countTodosByUserIdAndStatus(Long userId, TodoStatus status) {
         log.debug("Counting todos for user id: {} with status: {}", userId, status);
-        return todoRepository.countByUserIdAndStatus(userId, status);
+        return shardRouter.onShardOf(userId, () -> fastPathProperties.isCountByUserIdAndStatus()
+            ? todoJdbcRepository.countByUserIdAndStatus(userId, status)
+            : todoRepository.countByUserIdAndStatus(userId, status));
+    }
+
+    private List<TodoSnapshot> toSnapshots(List<TodoRow> rows) {
+        return rows.stream().map(TodoRow::toSnapshot).toList();
     }
 }
@@ -0,0 +1,468 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.config.StatsIndexProperties;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Per-user todo counts by status and priority, plus the due dates of the todos that can become overdue,
+ * kept in primitive arrays so that {@code todoStats} and the {@code User} todo counts are answered
+ * without touching the database.
+ * <p>
+ * The index is built from one scan of the todos table before the node reports ready, then follows the
+ * writes of {@link TodoService} as they commit. Writes it cannot follow row by row (archiving, user
+ * deletion, writes on other nodes) mark the user's entry stale, and the next read reloads it. A periodic
+ * reconciliation compares each user's counts with counts grouped by the database and marks the users
+ * that disagree stale; entries that changed while it was reading are left alone.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class TodoStatsIndex implements ApplicationRunner {
+
+    private static final int STATUSES = TodoStatus.values().length;
+    private static final int PRIORITIES = TodoPriority.values().length;
+    private static final byte COMPLETED = (byte) TodoStatus.COMPLETED.ordinal();
+    private static final byte NO_PRIORITY = -1;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private final TodoJdbcRepository todoJdbcRepository;
+    private final ShardRouter shardRouter;
+    private final StatsIndexProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<Long, UserTodos> users = new ConcurrentHashMap<>();
+    // Stamps every entry change, so that a build or reconciliation can tell which entries moved on while it was reading
+    private final AtomicLong changes = new AtomicLong();
+    // Once built, a user without an entry has no todos, as far as this node's writes go
+    private volatile boolean built;
+    // Without a transport, todos created on other nodes never reach the index
+    private final boolean followsOtherNodes;
+    private long reconciliations;
+
+    private final Counter loads;
+    private final Counter drift;
+
+    public TodoStatsIndex(TodoJdbcRepository todoJdbcRepository,
+                          ShardRouter shardRouter,
+                          StatsIndexProperties properties,
+                          PlatformTransactionManager transactionManager,
+                          CacheInvalidationBus cacheInvalidationBus,
+                          MeterRegistry meterRegistry) {
+        this.todoJdbcRepository = todoJdbcRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.followsOtherNodes = cacheInvalidationBus.hasTransport();
+
+        Gauge.builder("todo.stats.index.users", users, Map::size)
+            .description("Users held in the todo stats index")
+            .register(meterRegistry);
+        this.loads = Counter.builder("todo.stats.index.loads")
+            .description("Users whose todos were read from the database because their index entry was stale")
+            .register(meterRegistry);
+        this.drift = Counter.builder("todo.stats.index.drift")
+            .description("Users whose index entry a reconciliation found out of step with the database")
+            .register(meterRegistry);
+
+        cacheInvalidationBus.onRemoteChange((cacheName, keys) -> {
+            if ("userTodos".equals(cacheName)) {
+                markStale(keys);
+            }
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * Marks stale the users whose counts by status and priority disagree with the database, without
+     * reading a row per todo or holding a second copy of the index. Overdue counts are not compared.
+     */
+    @Scheduled(fixedDelayString = "${todo.stats-index.reconcile-interval:PT10M}",
+        initialDelayString = "${todo.stats-index.reconcile-interval:PT10M}")
+    public synchronized void reconcile() {
+        if (!properties.isEnabled() || !built) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long stamp = changes.get();
+        long pass = ++reconciliations;
+        List<Long> drifted = new ArrayList<>();
+        GroupedCounts grouped = new GroupedCounts();
+        shardRouter.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status -> {
+            todoJdbcRepository.forEachStatsGroup((userId, todoStatus, priority, count) -> {
+                if (grouped.userId != userId) {
+                    check(grouped, stamp, pass, drifted);
+                    grouped.reset(userId);
+                }
+                grouped.add(todoStatus, priority, count);
+            });
+            check(grouped, stamp, pass, drifted);
+            grouped.reset(GroupedCounts.NO_USER);
+        }));
+        // Entries for users the database no longer has todos for
+        users.forEach((userId, entry) -> {
+            synchronized (entry) {
+                if (entry.reconciledIn != pass && entry.size > 0 && entry.current && entry.changedAt <= stamp) {
+                    drifted.add(userId);
+                }
+            }
+        });
+
+        if (!drifted.isEmpty()) {
+            markStale(drifted);
+            drift.increment(drifted.size());
+            log.warn("Todo stats index marked {} users stale that were out of step with the database", drifted.size());
+        }
+        log.debug("Todo stats index reconciled in {} ms", System.currentTimeMillis() - started);
+    }
+
+    /**
+     * The user's counts as of {@code now}, or empty while the index is disabled. Does not check that
+     * the user exists.
+     */
+    public Optional<TodoCounts> counts(Long userId, LocalDateTime now) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        long nowMillis = toMillis(now);
+        UserTodos entry = users.get(userId);
+        if (entry == null && built && followsOtherNodes) {
+            return Optional.of(new TodoCounts(0, new int[STATUSES], new int[PRIORITIES], 0));
+        }
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.current) {
+                    return Optional.of(entry.counts(nowMillis));
+                }
+            }
+        }
+        UserTodos loaded = load(userId);
+        synchronized (loaded) {
+            return Optional.of(loaded.counts(nowMillis));
+        }
+    }
+
+    /**
+     * Adds the todo, or replaces its previous state, once the current transaction commits.
+     */
+    public void recordAfterCommit(TodoSnapshot todo) {
+        if (properties.isEnabled()) {
+            afterCommit(() -> update(todo.userId(),
+                entry -> entry.put(todo.id(), todo.status(), todo.priority(), todo.dueDate())));
+        }
+    }
+
+    public void removeAfterCommit(Long todoId, Long userId) {
+        if (properties.isEnabled()) {
+            afterCommit(() -> update(userId, entry -> entry.remove(todoId)));
+        }
+    }
+
+    /**
+     * Makes the next read of these users go to the database, for writes whose rows are not known here.
+     */
+    public void invalidateAfterCommit(Collection<Long> userIds) {
+        if (properties.isEnabled() && !userIds.isEmpty()) {
+            afterCommit(() -> markStale(userIds));
+        }
+    }
+
+    synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long stamp = changes.get();
+        Map<Long, UserTodos> scanned = new HashMap<>();
+        shardRouter.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status ->
+            todoJdbcRepository.forEachStatsRow((id, userId, todoStatus, priority, dueDate) ->
+                scanned.computeIfAbsent(userId, key -> new UserTodos(true)).put(id, todoStatus, priority, dueDate))));
+
+        for (Map.Entry<Long, UserTodos> scannedUser : scanned.entrySet()) {
+            install(scannedUser.getKey(), scannedUser.getValue(), stamp);
+        }
+        built = true;
+        log.info("Todo stats index rebuilt for {} users in {} ms", scanned.size(), System.currentTimeMillis() - started);
+    }
+
+    private UserTodos load(Long userId) {
+        long stamp = changes.get();
+        UserTodos loaded = new UserTodos(true);
+        shardRouter.onShardOf(userId, () -> {
+            todoJdbcRepository.forEachStatsRow(userId, (id, owner, status, priority, dueDate) ->
+                loaded.put(id, status, priority, dueDate));
+            return null;
+        });
+        install(userId, loaded, stamp);
+        loads.increment();
+        return loaded;
+    }
+
+    // Swaps in the entry read from the database unless the live one changed after the read began
+    private void install(Long userId, UserTodos fresh, long stamp) {
+        users.compute(userId, (id, live) -> {
+            if (live != null) {
+                synchronized (live) {
+                    if (live.changedAt > stamp) {
+                        return live;
+                    }
+                }
+            }
+            return fresh.size == 0 ? null : fresh;
+        });
+    }
+
+    // Collects the user of the grouped counts if the live entry, unchanged since the read began, disagrees
+    private void check(GroupedCounts grouped, long stamp, long pass, List<Long> drifted) {
+        if (grouped.userId == GroupedCounts.NO_USER) {
+            return;
+        }
+        UserTodos entry = users.get(grouped.userId);
+        if (entry == null) {
+            drifted.add(grouped.userId);
+            return;
+        }
+        synchronized (entry) {
+            entry.reconciledIn = pass;
+            if (entry.current && entry.changedAt <= stamp
+                    && !entry.sameCounts(grouped.total, grouped.byStatus, grouped.byPriority)) {
+                drifted.add(grouped.userId);
+            }
+        }
+    }
+
+    private void markStale(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            update(userId, entry -> entry.current = false);
+        }
+    }
+
+    private void update(Long userId, Consumer<UserTodos> change) {
+        users.compute(userId, (id, entry) -> {
+            // Without other nodes' writes, a new entry only holds this node's and is loaded on its first read
+            UserTodos target = entry != null ? entry : new UserTodos(built && followsOtherNodes);
+            synchronized (target) {
+                change.accept(target);
+                target.changedAt = changes.incrementAndGet();
+            }
+            return target;
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * One user's todo counts at a given instant, indexed by enum ordinal.
+     */
+    public record TodoCounts(int total, int[] byStatus, int[] byPriority, int overdue) {
+
+        public int withStatus(TodoStatus status) {
+            return byStatus[status.ordinal()];
+        }
+
+        public int withPriority(TodoPriority priority) {
+            return byPriority[priority.ordinal()];
+        }
+    }
+
+    // The counts of one user as grouped by the database, reused from user to user
+    private static final class GroupedCounts {
+
+        private static final long NO_USER = Long.MIN_VALUE;
+
+        private long userId = NO_USER;
+        private int total;
+        private final int[] byStatus = new int[STATUSES];
+        private final int[] byPriority = new int[PRIORITIES];
+
+        void reset(long userId) {
+            this.userId = userId;
+            total = 0;
+            Arrays.fill(byStatus, 0);
+            Arrays.fill(byPriority, 0);
+        }
+
+        void add(TodoStatus status, TodoPriority priority, int count) {
+            total += count;
+            byStatus[status.ordinal()] += count;
+            if (priority != null) {
+                byPriority[priority.ordinal()] += count;
+            }
+        }
+    }
+
+    // One user's todos as parallel arrays sorted by id, about 26 bytes per todo, with the counts kept alongside
+    private static final class UserTodos {
+
+        private static final int INITIAL_CAPACITY = 4;
+
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private byte[] priorities = new byte[INITIAL_CAPACITY];
+        private long[] dueDates = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private final int[] byStatus = new int[STATUSES];
+        private final int[] byPriority = new int[PRIORITIES];
+        // Due dates of the todos that are not completed, ascending, so the overdue ones are always a prefix
+        private long[] openDueDates = new long[INITIAL_CAPACITY];
+        private int openDueCount;
+
+        private boolean current;
+        private long changedAt;
+        private long reconciledIn;
+
+        UserTodos(boolean current) {
+            this.current = current;
+        }
+
+        void put(long id, TodoStatus status, TodoPriority priority, LocalDateTime dueDate) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                count(index, -1);
+            } else {
+                index = -index - 1;
+                insertSlot(index);
+                ids[index] = id;
+            }
+            statuses[index] = (byte) status.ordinal();
+            priorities[index] = priority != null ? (byte) priority.ordinal() : NO_PRIORITY;
+            dueDates[index] = dueDate != null ? toMillis(dueDate) : NO_DUE_DATE;
+            count(index, 1);
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            count(index, -1);
+            int tail = size - index - 1;
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(statuses, index + 1, statuses, index, tail);
+            System.arraycopy(priorities, index + 1, priorities, index, tail);
+            System.arraycopy(dueDates, index + 1, dueDates, index, tail);
+            size--;
+        }
+
+        TodoCounts counts(long nowMillis) {
+            return new TodoCounts(size, byStatus.clone(), byPriority.clone(), openDueDatesBefore(nowMillis));
+        }
+
+        boolean sameCounts(int total, int[] otherByStatus, int[] otherByPriority) {
+            return size == total && Arrays.equals(byStatus, otherByStatus) && Arrays.equals(byPriority, otherByPriority);
+        }
+
+        private void insertSlot(int index) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                dueDates = Arrays.copyOf(dueDates, capacity);
+            }
+            int tail = size - index;
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(statuses, index, statuses, index + 1, tail);
+            System.arraycopy(priorities, index, priorities, index + 1, tail);
+            System.arraycopy(dueDates, index, dueDates, index + 1, tail);
+            size++;
+        }
+
+        private void count(int index, int delta) {
+            byStatus[statuses[index]] += delta;
+            if (priorities[index] != NO_PRIORITY) {
+                byPriority[priorities[index]] += delta;
+            }
+            if (dueDates[index] == NO_DUE_DATE || statuses[index] == COMPLETED) {
+                return;
+            }
+            if (delta > 0) {
+                addOpenDueDate(dueDates[index]);
+            } else {
+                removeOpenDueDate(dueDates[index]);
+            }
+        }
+
+        private void addOpenDueDate(long dueDate) {
+            if (openDueCount == openDueDates.length) {
+                openDueDates = Arrays.copyOf(openDueDates, openDueCount * 2);
+            }
+            int index = openDueDatesBefore(dueDate);
+            System.arraycopy(openDueDates, index, openDueDates, index + 1, openDueCount - index);
+            openDueDates[index] = dueDate;
+            openDueCount++;
+        }
+
+        private void removeOpenDueDate(long dueDate) {
+            int index = openDueDatesBefore(dueDate);
+            System.arraycopy(openDueDates, index + 1, openDueDates, index, openDueCount - index - 1);
+            openDueCount--;
+        }
+
+        // Lower bound: how many open due dates fall strictly before the instant
+        private int openDueDatesBefore(long instant) {
+            int low = 0;
+            int high = openDueCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (openDueDates[middle] < instant) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.config.UserDeletionProperties;
+import com.swiftbeard.todo_graphql.repository.ArchivedTodoRepository;
+import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import com.swiftbeard.todo_graphql.repository.UserRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes a user and everything they own with set-based statements instead of cascading
+ * through {@code User.todos}, which would load and delete every todo one by one.
+ * Background deletions are recorded on the user row and resumed at startup, so a restart does not lose them.
+ * The node running one claims it on the row and renews the claim with every chunk, so a deletion runs
+ * on one node at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDeletionService implements ApplicationRunner, DisposableBean {
+
+    private final TodoRepository todoRepository;
+    private final UserRepository userRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final OutboxService outboxService;
+    private final UserDeletionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ShardRouter shardRouter;
+    private final ObjectProvider<TodoStatsIndex> todoStatsIndex;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public boolean shouldDeleteInBackground(Long userId) {
+        return properties.isAsyncEnabled() && todoRepository.countByUserId(userId) >= properties.getAsyncThreshold();
+    }
+
+    /**
+     * Deletes the user's todos, archived todos and the user row in the caller's transaction.
+     * Todos go in pages of ids, so that their cached {@code todos} entries are evicted with the rest.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteNow(Long userId) {
+        List<Long> todoIds = new ArrayList<>();
+        List<Long> page;
+        do {
+            page = deleteChunk(userId);
+            todoIds.addAll(page);
+        } while (page.size() == properties.getChunkSize());
+        // Sweeps todos inserted after the last page, so the user row can go
+        todoRepository.deleteByUserId(userId);
+        archivedTodoRepository.deleteByUserId(userId);
+        userRepository.deleteUserById(userId);
+        outboxService.recordDeletion(OutboxService.USER_AGGREGATE, userId);
+
+        evictAfterCommit(userId);
+        cacheInvalidationBus.evictAfterCommit("todos", todoIds);
+        log.debug("Deleted user id: {} with {} todos", userId, todoIds.size());
+    }
+
+    /**
+     * Deactivates the user and records the pending deletion now, then deletes their data in background
+     * chunks once the caller commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void scheduleDeletion(Long userId) {
+        userRepository.markForDeletion(userId, nodeId, LocalDateTime.now());
+        evictAfterCommit(userId);
+        afterCommit(() -> executor.execute(() -> deleteInChunks(userId)));
+    }
+
+    // Picks up deletions a previous run recorded but did not finish, unless another live node runs them
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> claimed = shardRouter.scatter(userRepository::findIdsPendingDeletion).stream()
+            .filter(userId -> shardRouter.onShardOf(userId, () -> claim(userId)))
+            .toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        log.info("Resuming background deletion of {} users", claimed.size());
+        claimed.forEach(userId -> executor.execute(() -> deleteInChunks(userId)));
+    }
+
+    void deleteInChunks(Long userId) {
+        log.info("Deleting todos of user id: {} in chunks of {}", userId, properties.getChunkSize());
+        try {
+            shardRouter.onShardOf(userId, () -> {
+                long total = 0;
+                List<Long> chunk;
+                do {
+                    if (!claim(userId)) {
+                        log.info("Background deletion of user id: {} was taken over by another node", userId);
+                        return null;
+                    }
+                    chunk = transactionTemplate.execute(status -> deleteChunk(userId));
+                    if (chunk == null || chunk.isEmpty()) {
+                        break;
+                    }
+                    total += chunk.size();
+                    cacheInvalidationBus.evictAfterCommit("todos", chunk);
+                    pauseBetweenChunks();
+                } while (chunk.size() == properties.getChunkSize());
+
+                // Removes todos created while the chunks ran, then the user itself
+                transactionTemplate.executeWithoutResult(status -> deleteNow(userId));
+                log.info("Background deletion of user id: {} finished after {} todos", userId, total);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.error("Background deletion of user id: {} failed; it is retried on the next start", userId, ex);
+        }
+    }
+
+    private boolean claim(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+            userRepository.claimDeletion(userId, nodeId, now, now.minus(properties.getClaimTimeout())));
+        return claimed != null && claimed == 1;
+    }
+
+    private List<Long> deleteChunk(Long userId) {
+        List<Long> ids = todoRepository.findIdsByUserId(userId, PageRequest.of(0, properties.getChunkSize()));
+        if (!ids.isEmpty()) {
+            todoRepository.deleteByIdIn(ids);
+        }
+        return ids;
+    }
+
+    private void evictAfterCommit(Long userId) {
+        cacheInvalidationBus.evictAfterCommit("users", userId);
+        cacheInvalidationBus.evictAfterCommit("userTodos", userId);
+        todoStatsIndex.ifAvailable(index -> index.invalidateAfterCommit(List.of(userId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void pauseBetweenChunks() {
+        long pauseMillis = properties.getChunkPause().toMillis();
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
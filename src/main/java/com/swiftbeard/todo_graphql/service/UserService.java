@@ -1,22 +1,32 @@
 package com.swiftbeard.todo_graphql.service;
 
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.NegativeLookupCache;
+import com.swiftbeard.todo_graphql.cache.UserAliasIndex;
 import com.swiftbeard.todo_graphql.dto.CreateUserInput;
 import com.swiftbeard.todo_graphql.dto.UpdateUserInput;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
 import com.swiftbeard.todo_graphql.entity.User;
 import com.swiftbeard.todo_graphql.exception.DuplicateResourceException;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
 import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
 import com.swiftbeard.todo_graphql.repository.UserRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
@@ -25,55 +35,107 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class UserService {
 
+    private static final String EMAIL_INDEX = "idx_user_email";
+    private static final String USERNAME_INDEX = "idx_user_username";
+    private static final String EMAIL_FIELD = "email";
+    private static final String USERNAME_FIELD = "username";
+
+    private static final Comparator<User> NEWEST_FIRST =
+        Comparator.comparing(User::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
     private final UserRepository userRepository;
+    private final OptimisticLockMetrics optimisticLockMetrics;
+    private final OutboxService outboxService;
+    private final ShardRouter shardRouter;
+    private final UserDeletionService userDeletionService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final NegativeLookupCache negativeLookupCache;
+    private final UserAliasIndex userAliasIndex;
+
+    @Cacheable(value = "users", key = "#id", sync = true)
+    public UserSnapshot getUserById(Long id) {
+        return loadUserById(id);
+    }
 
-    @Cacheable(value = "users", key = "#id")
-    public User getUserById(Long id) {
+    // Uncached read behind the users cache, also used to refresh its entries ahead of expiry
+    public UserSnapshot loadUserById(Long id) {
         log.debug("Fetching user by id: {}", id);
+        return negativeLookupCache.get(NegativeLookupCache.USERS, id,
+            () -> UserSnapshot.of(shardRouter.onShardOf(id, () -> findUser(id))));
+    }
+
+    private User findUser(Long id) {
         return userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
-    public User getUserByEmail(String email) {
+    // No SELECT: for callers that only need the user as a foreign key
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    // Resolved through the email alias to the same cached copy as getUserById
+    public UserSnapshot getUserByEmail(String email) {
+        return userAliasIndex.getByEmail(email, () -> negativeLookupCache.get(NegativeLookupCache.USERS_BY_EMAIL,
+            email, () -> UserSnapshot.of(findUserByEmail(email))));
+    }
+
+    // Resolved through the username alias to the same cached copy as getUserById
+    public UserSnapshot getUserByUsername(String username) {
+        return userAliasIndex.getByUsername(username, () -> negativeLookupCache.get(
+            NegativeLookupCache.USERS_BY_USERNAME, username, () -> UserSnapshot.of(findUserByUsername(username))));
+    }
+
+    private User findUserByEmail(String email) {
         log.debug("Fetching user by email: {}", email);
-        return userRepository.findByEmail(email)
+        return shardRouter.scatter(() -> userRepository.findByEmail(email).stream().toList())
+            .stream()
+            .findFirst()
             .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
 
-    public User getUserByUsername(String username) {
+    private User findUserByUsername(String username) {
         log.debug("Fetching user by username: {}", username);
-        return userRepository.findByUsername(username)
+        // Users are placed by username hash, so the home shard is checked first; a renamed user stays put
+        Optional<User> user = shardRouter.onShard(shardRouter.shardForNewUser(username),
+            () -> userRepository.findByUsername(username));
+        if (user.isEmpty() && shardRouter.isSharded()) {
+            user = shardRouter.scatter(() -> userRepository.findByUsername(username).stream().toList())
+                .stream()
+                .findFirst();
+        }
+        return user
             .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
     public List<User> getAllUsers() {
         log.debug("Fetching all users");
-        return userRepository.findAll();
+        return shardRouter.scatter(userRepository::findAll);
     }
 
     public List<User> getActiveUsers() {
         log.debug("Fetching active users");
-        return userRepository.findAllActiveUsers();
+        return shardRouter.scatter(userRepository::findAllActiveUsers, NEWEST_FIRST);
     }
 
     public List<User> searchUsers(String search) {
         log.debug("Searching users with term: {}", search);
-        return userRepository.searchUsers(search);
+        return shardRouter.scatter(() -> userRepository.searchUsers(search));
     }
 
     @Transactional
-    @CachePut(value = "users", key = "#result.id")
     public User createUser(@Valid CreateUserInput input) {
         log.info("Creating new user with username: {}", input.getUsername());
 
-        // Check for duplicates
-        if (userRepository.existsByEmail(input.getEmail())) {
-            throw new DuplicateResourceException("User already exists with email: " + input.getEmail());
-        }
-        if (userRepository.existsByUsername(input.getUsername())) {
-            throw new DuplicateResourceException("User already exists with username: " + input.getUsername());
+        if (shardRouter.isSharded()) {
+            checkUniqueAcrossShards(input.getEmail(), input.getUsername());
         }
 
+        return shardRouter.onShard(shardRouter.shardForNewUser(input.getUsername()), () -> insertUser(input));
+    }
+
+    private User insertUser(CreateUserInput input) {
+
         User user = User.builder()
             .username(input.getUsername())
             .email(input.getEmail())
@@ -82,32 +144,42 @@ public class UserService {
             .isActive(true)
             .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveUnique(user, userRepository::save);
+        outboxService.recordUserEvent("UserCreated", savedUser);
+        cacheInvalidationBus.putAfterCommit("users", savedUser.getId(), UserSnapshot.of(savedUser));
         log.info("User created successfully with id: {}", savedUser.getId());
         return savedUser;
     }
 
     @Transactional
-    @CachePut(value = "users", key = "#id")
-    public User updateUser(Long id, @Valid UpdateUserInput input) {
-        log.info("Updating user with id: {}", id);
-
-        User user = getUserById(id);
+    public User updateUser(Long id, @Valid UpdateUserInput input, Long expectedVersion) {
+        log.info("Updating user with id: {} (expected version: {})", id, expectedVersion);
+        return shardRouter.onShardOf(id, () -> applyUpdate(id, input, expectedVersion));
+    }
 
-        // Check for duplicates if email is being updated
-        if (input.getEmail() != null && !input.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(input.getEmail())) {
-                throw new DuplicateResourceException("User already exists with email: " + input.getEmail());
-            }
-            user.setEmail(input.getEmail());
+    private User applyUpdate(Long id, UpdateUserInput input, Long expectedVersion) {
+        User user = findUser(id);
+        optimisticLockMetrics.recordUpdate("User");
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            optimisticLockMetrics.recordConflict("User");
+            throw new OptimisticConflictException("User", id, expectedVersion, user.getVersion());
         }
 
-        // Check for duplicates if username is being updated
-        if (input.getUsername() != null && !input.getUsername().equals(user.getUsername())) {
-            if (userRepository.existsByUsername(input.getUsername())) {
-                throw new DuplicateResourceException("User already exists with username: " + input.getUsername());
-            }
-            user.setUsername(input.getUsername());
+        String newEmail = input.getEmail() != null && !input.getEmail().equals(user.getEmail())
+            ? input.getEmail() : null;
+        String newUsername = input.getUsername() != null && !input.getUsername().equals(user.getUsername())
+            ? input.getUsername() : null;
+        if (shardRouter.isSharded()) {
+            checkUniqueAcrossShards(newEmail, newUsername);
+        }
+        if (newEmail != null || newUsername != null) {
+            userAliasIndex.forget(user.getEmail(), user.getUsername());
+        }
+        if (newEmail != null) {
+            user.setEmail(newEmail);
+        }
+        if (newUsername != null) {
+            user.setUsername(newUsername);
         }
 
         if (input.getFirstName() != null) {
@@ -120,27 +192,82 @@ public class UserService {
             user.setIsActive(input.getIsActive());
         }
 
-        User updatedUser = userRepository.save(user);
+        // Flushed here so a unique index violation surfaces inside the service, not at commit
+        User updatedUser = saveUnique(user, userRepository::saveAndFlush);
+        outboxService.recordUserEvent("UserUpdated", updatedUser);
+        cacheInvalidationBus.putAfterCommit("users", id, UserSnapshot.of(updatedUser));
         log.info("User updated successfully with id: {}", updatedUser.getId());
         return updatedUser;
     }
 
     @Transactional
-    @CacheEvict(value = "users", key = "#id")
     public boolean deleteUser(Long id) {
         log.info("Deleting user with id: {}", id);
 
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        return shardRouter.onShardOf(id, () -> {
+            if (!userRepository.existsById(id)) {
+                throw new ResourceNotFoundException("User not found with id: " + id);
+            }
 
-        userRepository.deleteById(id);
-        log.info("User deleted successfully with id: {}", id);
-        return true;
+            if (userDeletionService.shouldDeleteInBackground(id)) {
+                userDeletionService.scheduleDeletion(id);
+                log.info("User with id: {} deactivated and scheduled for background deletion", id);
+                return true;
+            }
+
+            userDeletionService.deleteNow(id);
+            log.info("User deleted successfully with id: {}", id);
+            return true;
+        });
     }
 
-    public List<User> getUsersByIds(List<Long> ids) {
+    public List<UserSnapshot> getUsersByIds(List<Long> ids) {
         log.debug("Batch fetching users by ids: {}", ids);
-        return userRepository.findAllById(ids);
+        return shardRouter.scatterByIds(ids, shardIds -> userRepository.findAllById(shardIds).stream()
+            .map(UserSnapshot::of)
+            .toList());
+    }
+
+    /**
+     * Saves the user and lets the unique indexes decide on duplicates, so no pre-check query is needed.
+     * The violated index is mapped back to the offending field.
+     */
+    private User saveUnique(User user, UnaryOperator<User> save) {
+        try {
+            return save.apply(user);
+        } catch (DataIntegrityViolationException ex) {
+            String field = violatedUniqueField(ex);
+            if (field == null) {
+                throw ex;
+            }
+            throw new DuplicateResourceException("User", field,
+                EMAIL_FIELD.equals(field) ? user.getEmail() : user.getUsername());
+        }
+    }
+
+    public static String violatedUniqueField(DataIntegrityViolationException ex) {
+        String constraint = null;
+        if (ex.getCause() instanceof ConstraintViolationException) {
+            constraint = ((ConstraintViolationException) ex.getCause()).getConstraintName();
+        }
+        String detail = (constraint + " " + ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        // Index names as declared on the entity, or PostgreSQL's "Key (column)=" detail for older constraints
+        if (detail.contains(EMAIL_INDEX) || detail.contains("key (email)=")) {
+            return EMAIL_FIELD;
+        }
+        if (detail.contains(USERNAME_INDEX) || detail.contains("key (username)=")) {
+            return USERNAME_FIELD;
+        }
+        return null;
+    }
+
+    // Each shard's index only sees its own users, so uniqueness across shards still needs a lookup
+    private void checkUniqueAcrossShards(String email, String username) {
+        if (email != null && shardRouter.anyShard(() -> userRepository.existsByEmail(email))) {
+            throw new DuplicateResourceException("User", EMAIL_FIELD, email);
+        }
+        if (username != null && shardRouter.anyShard(() -> userRepository.existsByUsername(username))) {
+            throw new DuplicateResourceException("User", USERNAME_FIELD, username);
+        }
     }
 }
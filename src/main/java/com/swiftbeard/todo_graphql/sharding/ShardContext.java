@@ -0,0 +1,36 @@
+package com.swiftbeard.todo_graphql.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard bound to the current thread. {@link ShardRoutingDataSource} hands out connections of
+ * this shard; unbound threads fall back to shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the work with the given shard bound, restoring the previous binding afterwards.
+     */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.swiftbeard.todo_graphql.sharding;
+
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps users and todos to shards and runs work on them.
+ *
+ * <p>Ids are allocated per shard so that {@code id % shardCount == shard} (see
+ * {@link ShardSchemaInitializer}); a todo is stored on the shard of its user and therefore
+ * gets an id with the same residue. Any user or todo id routes directly without a lookup.
+ * New users are placed by a hash of their username.
+ *
+ * <p>Without sharding every method runs the work inline on the calling thread.
+ */
+@Component
+@Slf4j
+public class ShardRouter implements DisposableBean {
+
+    private final int shardCount;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this.shardCount = properties.isEnabled() ? Math.max(1, properties.getShards().size()) : 1;
+        if (shardCount > 1) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            int threads = properties.getScatterThreads() > 0 ? properties.getScatterThreads() : shardCount * 2;
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.scatterExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.readOnlyTransaction = null;
+            this.scatterExecutor = null;
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(Long id) {
+        return (int) Math.floorMod(id, (long) shardCount);
+    }
+
+    public int shardForNewUser(String username) {
+        return Math.floorMod(username.hashCode(), shardCount);
+    }
+
+    /**
+     * Runs the work with the shard bound. Inside a transaction the shard cannot change once
+     * bound, since the transaction already holds a connection to it.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer current = ShardContext.current();
+        if (current != null && current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + current + " to shard " + shard +
+                " inside a transaction");
+        }
+        return ShardContext.callOn(shard, work);
+    }
+
+    public <T> T onShardOf(Long id, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        return onShard(shardOf(id), work);
+    }
+
+    /**
+     * Runs the work once per shard, sequentially on the calling thread.
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            onShard(target, () -> {
+                work.accept(target);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs the same read on every shard in parallel and concatenates the results.
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        return scatter(query, null);
+    }
+
+    /**
+     * Like {@link #scatter(Supplier)}, re-sorting the merged list when it came from several shards.
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query, Comparator<? super T> order) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            futures.add(submit(shard, query));
+        }
+        List<T> merged = gather(futures);
+        if (order != null) {
+            merged.sort(order);
+        }
+        return merged;
+    }
+
+    /**
+     * Splits the ids by shard and runs the query once per shard involved, in parallel.
+     */
+    public <T> List<T> scatterByIds(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+        if (!isSharded()) {
+            return query.apply(new ArrayList<>(ids));
+        }
+        Map<Integer, List<Long>> idsByShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(idsByShard.size());
+        idsByShard.forEach((shard, shardIds) -> futures.add(submit(shard, () -> query.apply(shardIds))));
+        return gather(futures);
+    }
+
+    /**
+     * Returns true if the check holds on at least one shard.
+     */
+    public boolean anyShard(BooleanSupplier check) {
+        return !scatter(() -> check.getAsBoolean() ? List.of(Boolean.TRUE) : List.<Boolean>of()).isEmpty();
+    }
+
+    private <T> CompletableFuture<List<T>> submit(int shard, Supplier<List<T>> query) {
+        return CompletableFuture.supplyAsync(
+            () -> ShardContext.callOn(shard, () -> readOnlyTransaction.execute(status -> query.get())),
+            scatterExecutor);
+    }
+
+    private <T> List<T> gather(List<CompletableFuture<List<T>>> futures) {
+        List<T> merged = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                List<T> part = future.join();
+                if (part != null) {
+                    merged.addAll(part);
+                }
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.swiftbeard.todo_graphql.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Prepares every shard once the persistence unit is up:
+ * <ul>
+ *   <li>applies Hibernate's schema action ({@code ddl-auto}) to shards 1..N-1, which Hibernate
+ *       itself never sees since its bootstrap connection goes to shard 0;</li>
+ *   <li>restarts the identity columns of {@code users} and {@code todos} so that shard
+ *       {@code s} only generates ids with {@code id % N == s}.</li>
+ * </ul>
+ * Runs before application runners, so seeders and schedulers see aligned shards.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ShardSchemaInitializer implements Integrator, SmartInitializingSingleton {
+
+    private static final String[] SHARDED_TABLES = {"users", "todos"};
+
+    // Lazy: the router depends on the transaction manager, which depends on this integrator
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.sessionFactory = null;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ShardRouter router = shardRouter.getObject();
+        JdbcTemplate jdbc = jdbcTemplate.getObject();
+        int shardCount = router.shardCount();
+
+        router.forEachShard(shard -> {
+            if (shard > 0 && metadata != null) {
+                log.info("Applying schema to shard {}", shard);
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                    sessionFactory.getProperties(), action -> { });
+            }
+            for (String table : SHARDED_TABLES) {
+                Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                long start = firstIdOnShard(maxId != null ? maxId : 0, shard, shardCount);
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + shardCount +
+                    " RESTART WITH " + start);
+                log.debug("Shard {} allocates {} ids from {} in steps of {}", shard, table, start, shardCount);
+            }
+        });
+        log.info("Initialized {} shards", shardCount);
+    }
+
+    /**
+     * Smallest id above {@code maxId} that belongs to {@code shard}.
+     */
+    static long firstIdOnShard(long maxId, int shard, int shardCount) {
+        long next = maxId + 1;
+        return next + Math.floorMod(shard - next, (long) shardCount);
+    }
+}
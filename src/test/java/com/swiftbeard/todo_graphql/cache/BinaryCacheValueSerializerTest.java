@@ -0,0 +1,107 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BinaryCacheValueSerializer Unit Tests")
+class BinaryCacheValueSerializerTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_789);
+
+    private final UserSnapshot user = new UserSnapshot(42L, "alice", "alice@example.com", "Alice", "Smith",
+        true, CREATED, CREATED.plusDays(1), 3L);
+    private final TodoSnapshot todo = new TodoSnapshot(7L, "Write report", "Quarterly numbers",
+        TodoStatus.IN_PROGRESS, TodoPriority.HIGH, CREATED.plusDays(7), null, 42L, CREATED, CREATED, 0L);
+
+    @Test
+    @DisplayName("users - should round-trip a snapshot, keeping sub-millisecond nanos")
+    void users_ShouldRoundTrip() {
+        // Arrange
+        BinaryCacheValueSerializer serializer = BinaryCacheValueSerializer.users();
+
+        // Act
+        Object decoded = serializer.deserialize(serializer.serialize(user));
+
+        // Assert
+        assertThat(decoded).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("users - should keep null fields and an inactive flag apart")
+    void users_WithNullsAndInactive_ShouldRoundTrip() {
+        // Arrange
+        BinaryCacheValueSerializer serializer = BinaryCacheValueSerializer.users();
+        UserSnapshot inactive = new UserSnapshot(1L, "bob", "bob@example.com", null, null, false, null, null, null);
+        UserSnapshot unknown = new UserSnapshot(2L, "carol", "carol@example.com", null, null, null, null, null, 0L);
+
+        // Act & Assert
+        assertThat(serializer.deserialize(serializer.serialize(inactive))).isEqualTo(inactive);
+        assertThat(serializer.deserialize(serializer.serialize(unknown))).isEqualTo(unknown);
+    }
+
+    @Test
+    @DisplayName("todoLists - should round-trip a list and report its length")
+    void todoLists_ShouldRoundTripAndCountElements() {
+        // Arrange
+        BinaryCacheValueSerializer serializer = BinaryCacheValueSerializer.todoLists();
+        List<TodoSnapshot> todos = List.of(todo, new TodoSnapshot(8L, "\u00dcn\u00efcode \u2713", null,
+            TodoStatus.PENDING, TodoPriority.LOW, null, null, 42L, CREATED, CREATED, 1L));
+
+        // Act
+        byte[] bytes = serializer.serialize(todos);
+
+        // Assert
+        assertThat(serializer.deserialize(bytes)).isEqualTo(todos);
+        assertThat(BinaryCacheValueSerializer.elementCount(bytes)).isEqualTo(2);
+        assertThat(BinaryCacheValueSerializer.elementCount(BinaryCacheValueSerializer.todos().serialize(todo)))
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ids - should encode small ids in a few bytes")
+    void ids_ShouldBeCompact() {
+        // Arrange
+        BinaryCacheValueSerializer serializer = BinaryCacheValueSerializer.ids();
+
+        // Act
+        byte[] bytes = serializer.serialize(300L);
+
+        // Assert
+        assertThat(bytes).hasSize(4);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(300L);
+    }
+
+    @Test
+    @DisplayName("deserialize - should reject bytes of another cache or a truncated value")
+    void deserialize_WhenWrongKindOrTruncated_ShouldFail() {
+        // Arrange
+        byte[] userBytes = BinaryCacheValueSerializer.users().serialize(user);
+
+        // Act & Assert
+        assertThatThrownBy(() -> BinaryCacheValueSerializer.todos().deserialize(userBytes))
+            .isInstanceOf(SerializationFailedException.class);
+        assertThatThrownBy(() -> BinaryCacheValueSerializer.users()
+            .deserialize(Arrays.copyOf(userBytes, userBytes.length - 3)))
+            .isInstanceOf(SerializationFailedException.class);
+    }
+
+    @Test
+    @DisplayName("serialize - should reject a value of another cache")
+    void serialize_WhenWrongType_ShouldFail() {
+        // Act & Assert
+        assertThatThrownBy(() -> BinaryCacheValueSerializer.users().serialize(todo))
+            .isInstanceOf(SerializationFailedException.class);
+    }
+}
@@ -0,0 +1,219 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CacheInvalidationBus Unit Tests")
+class CacheInvalidationBusTest {
+
+    private RecordingTransport transport;
+    private CacheManager cachesA;
+    private CacheManager cachesB;
+    private SimpleMeterRegistry registryB;
+    private CacheInvalidationBus nodeA;
+    private CacheInvalidationBus nodeB;
+    private NegativeLookupCache negativeLookupsB;
+
+    @BeforeEach
+    void setUp() {
+        // Two nodes on one in-process transport
+        transport = new RecordingTransport();
+        cachesA = new ConcurrentMapCacheManager("users", "userTodos");
+        cachesB = new ConcurrentMapCacheManager("users", "userTodos");
+        registryB = new SimpleMeterRegistry();
+        nodeA = new CacheInvalidationBus(cachesA, Optional.of(transport), negativeLookupCache(new SimpleMeterRegistry()),
+            new CachingProperties(), new SimpleMeterRegistry());
+        negativeLookupsB = negativeLookupCache(registryB);
+        nodeB = new CacheInvalidationBus(cachesB, Optional.of(transport), negativeLookupsB, new CachingProperties(),
+            registryB);
+
+        for (CacheManager caches : List.of(cachesA, cachesB)) {
+            caches.getCache("users").put(1L, "user 1");
+            caches.getCache("users").put(2L, "user 2");
+            caches.getCache("userTodos").put(1L, "todos of 1");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should evict on both nodes only after commit, with one message per cache")
+    void evictAfterCommit_ShouldCoalesceAndWaitForCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        nodeA.evictAfterCommit("users", 1L);
+        nodeA.evictAfterCommit("users", List.of(1L, 2L));
+        nodeA.evictAfterCommit("userTodos", 1L);
+
+        // Assert
+        assertThat(cachesA.getCache("users").get(1L)).isNotNull();
+        assertThat(transport.sent).isEmpty();
+
+        commit();
+
+        assertThat(transport.sent).hasSize(2);
+        assertThat(CacheInvalidationMessage.decode(transport.sent.get(0)).keys()).containsExactly(1L, 2L);
+        for (CacheManager caches : List.of(cachesA, cachesB)) {
+            assertThat(caches.getCache("users").get(1L)).isNull();
+            assertThat(caches.getCache("users").get(2L)).isNull();
+            assertThat(caches.getCache("userTodos").get(1L)).isNull();
+        }
+        assertThat(registryB.counter("todo.cache.invalidation.applied").count()).isEqualTo(3);
+        assertThat(registryB.timer("todo.cache.invalidation.latency").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should drop nothing when the transaction rolls back")
+    void evictAfterCommit_WhenRolledBack_ShouldSendNothing() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        nodeA.evictAfterCommit("users", 1L);
+
+        // Act
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertThat(transport.sent).isEmpty();
+        assertThat(cachesB.getCache("users").get(1L)).isNotNull();
+        assertThat(TransactionSynchronizationManager.hasResource(nodeA)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should store the new value here after commit and evict it elsewhere")
+    void putAfterCommit_ShouldStoreLocallyAndEvictOnOtherNodes() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        nodeA.putAfterCommit("users", 1L, "user 1 renamed");
+
+        // Assert
+        assertThat(cachesA.getCache("users").get(1L).get()).isEqualTo("user 1");
+
+        commit();
+
+        assertThat(cachesA.getCache("users").get(1L).get()).isEqualTo("user 1 renamed");
+        assertThat(cachesB.getCache("users").get(1L)).isNull();
+        assertThat(cachesB.getCache("users").get(2L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should let the last of a put and an evict of the same key win")
+    void putAfterCommit_ThenEvict_ShouldEvict() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        nodeA.putAfterCommit("users", 1L, "user 1 renamed");
+        nodeA.evictAfterCommit("users", 1L);
+        commit();
+
+        // Assert
+        assertThat(cachesA.getCache("users").get(1L)).isNull();
+        assertThat(transport.sent).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should apply a batch of messages and skip malformed ones")
+    void apply_ShouldEvictAllKeysOfTheBatch() {
+        // Arrange
+        CacheInvalidationBus nodeC = new CacheInvalidationBus(cachesB, Optional.empty(), negativeLookupsB,
+            new CachingProperties(), registryB);
+        long now = System.currentTimeMillis();
+
+        // Act
+        nodeC.apply(List.of(
+            new CacheInvalidationMessage("other", now, "users", List.of(1L)).encode(),
+            "garbage",
+            new CacheInvalidationMessage("other", now, "users", List.of(1L, 2L)).encode()));
+
+        // Assert
+        assertThat(cachesB.getCache("users").get(1L)).isNull();
+        assertThat(cachesB.getCache("users").get(2L)).isNull();
+        assertThat(cachesB.getCache("userTodos").get(1L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should round-trip the compact message encoding")
+    void message_ShouldRoundTrip() {
+        // Arrange
+        CacheInvalidationMessage message = new CacheInvalidationMessage("a1b2c3d4", 1_700_000_000_000L, "todos",
+            List.of(5L, 6L, 7L));
+
+        // Act
+        String payload = message.encode();
+
+        // Assert
+        assertThat(payload).isEqualTo("a1b2c3d4|1700000000000|todos|5,6,7");
+        assertThat(CacheInvalidationMessage.decode(payload)).isEqualTo(message);
+    }
+
+    @Test
+    @DisplayName("should let other nodes forget a remembered not-found user once it is created")
+    void putAfterCommit_ShouldDropNegativeLookupsOnOtherNodes() {
+        // Arrange
+        rememberMissing(NegativeLookupCache.USERS, 3L);
+        rememberMissing(NegativeLookupCache.USERS_BY_EMAIL, "carol@example.com");
+
+        // Act
+        nodeA.putAfterCommit("users", 3L, "user 3");
+
+        // Assert
+        assertThat(negativeLookupsB.get(NegativeLookupCache.USERS, 3L, () -> "user 3")).isEqualTo("user 3");
+        assertThat(negativeLookupsB.get(NegativeLookupCache.USERS_BY_EMAIL, "carol@example.com", () -> "user 3"))
+            .isEqualTo("user 3");
+    }
+
+    private void rememberMissing(String lookup, Object key) {
+        assertThatThrownBy(() -> negativeLookupsB.get(lookup, key, () -> {
+            throw new ResourceNotFoundException("missing " + key);
+        })).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private NegativeLookupCache negativeLookupCache(SimpleMeterRegistry registry) {
+        return new NegativeLookupCache(new CachingProperties(), new OperationCacheMetrics(registry), registry);
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static class RecordingTransport extends InProcessCacheInvalidationTransport {
+
+        private final List<String> sent = new ArrayList<>();
+
+        @Override
+        public void send(String payload) {
+            sent.add(payload);
+            super.send(payload);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "todo.scheduling.enabled=false")
+@AutoConfigureGraphQlTester
+@DisplayName("Cache Metrics Integration Tests")
+class CacheMetricsIntegrationTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("should publish Caffeine statistics for every service cache")
+    void cacheMeters_ShouldExistForEveryCache() {
+        // Assert
+        for (String cache : new String[] {"users", "todos", "userTodos"}) {
+            assertThat(meterRegistry.find("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter())
+                .as("cache.gets for %s", cache).isNotNull();
+            assertThat(meterRegistry.find("cache.size").tag("cache", cache).gauge())
+                .as("cache.size for %s", cache).isNotNull();
+            assertThat(meterRegistry.find("cache.evictions").tag("cache", cache).functionCounter())
+                .as("cache.evictions for %s", cache).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should count cache hits and misses per GraphQL operation")
+    void graphQlOperation_ShouldRecordCacheHitRatio() {
+        // Arrange
+        String name = "metrics" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.createUser(CreateUserInput.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .build());
+        cacheManager.getCache("users").evict(user.getId());
+        String query = """
+            query UserCard($id: ID!) {
+                user(id: $id) { id username }
+            }
+            """;
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            graphQlTester.document(query)
+                .variable("id", user.getId())
+                .execute()
+                .path("user.username").entity(String.class).isEqualTo(name);
+        }
+
+        // Assert
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("todo.graphql.cache.requests",
+            "operation", "UserCard", "cache", "users", "result", result).count();
+    }
+}
@@ -0,0 +1,123 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheWarmup Unit Tests")
+class CacheWarmupTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TodoService todoService;
+
+    @TempDir
+    private Path directory;
+
+    private CachingProperties properties;
+    private CaffeineCacheManager cacheManager;
+    private CacheWarmup cacheWarmup;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CachingProperties();
+        properties.getWarmup().setSnapshotFile(directory.resolve("hot-keys.properties"));
+        properties.getWarmup().setBatchSize(2);
+        cacheManager = cacheManager();
+        cacheWarmup = new CacheWarmup(cacheManager, userService, todoService, properties);
+    }
+
+    @Test
+    @DisplayName("writeSnapshot - should save the keys of each cache without values")
+    void writeSnapshot_ShouldSaveKeysOnly() throws Exception {
+        // Arrange
+        cacheManager.getCache("users").put(1L, user(1L));
+        cacheManager.getCache("users").put(2L, user(2L));
+        cacheManager.getCache("userTodos").put(1L, List.of());
+
+        // Act
+        cacheWarmup.writeSnapshot();
+
+        // Assert
+        assertThat(Files.readString(properties.getWarmup().getSnapshotFile())).doesNotContain("alice");
+        assertThat(cacheWarmup.readSnapshot())
+            .containsOnlyKeys("users", "userTodos")
+            .satisfies(snapshot -> assertThat(snapshot.get("users")).containsExactlyInAnyOrder(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("warmUp - should bulk-load the snapshot keys in batches into a fresh node's caches")
+    void warmUp_ShouldLoadSnapshotInBatches() {
+        // Arrange
+        cacheManager.getCache("users").put(1L, user(1L));
+        cacheManager.getCache("users").put(2L, user(2L));
+        cacheManager.getCache("users").put(3L, user(3L));
+        cacheManager.getCache("userTodos").put(1L, List.of());
+        cacheWarmup.writeSnapshot();
+
+        CaffeineCacheManager freshCacheManager = cacheManager();
+        CacheWarmup freshWarmup = new CacheWarmup(freshCacheManager, userService, todoService, properties);
+        when(userService.getUsersByIds(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+            .stream().map(this::user).toList());
+        TodoSnapshot todo = new TodoSnapshot(10L, "Write report", null, TodoStatus.PENDING, TodoPriority.MEDIUM,
+            null, null, 1L, null, null, 0L);
+        when(todoService.getTodosByUserIds(List.of(1L))).thenReturn(Map.of(1L, List.of(todo)));
+
+        // Act
+        freshWarmup.warmUp();
+
+        // Assert
+        verify(userService, times(2)).getUsersByIds(anyList());
+        verify(todoService, never()).getTodosByIds(anyList());
+        assertThat(freshCacheManager.getCache("users").get(3L, UserSnapshot.class).id()).isEqualTo(3L);
+        assertThat(freshCacheManager.getCache("userTodos").get(1L, List.class)).containsExactly(todo);
+    }
+
+    @Test
+    @DisplayName("warmUp - should do nothing without a snapshot")
+    void warmUp_WithoutSnapshot_ShouldNotLoad() {
+        // Act
+        cacheWarmup.warmUp();
+
+        // Assert
+        verifyNoInteractions(userService, todoService);
+    }
+
+    private CaffeineCacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCacheNames(List.of());
+        for (String name : List.of("users", "todos", "userTodos")) {
+            manager.registerCustomCache(name, Caffeine.newBuilder().maximumSize(100).executor(Runnable::run).build());
+        }
+        return manager;
+    }
+
+    private UserSnapshot user(Long id) {
+        return new UserSnapshot(id, "alice" + id, "alice" + id + "@example.com", null, null, true, null, null, 0L);
+    }
+}
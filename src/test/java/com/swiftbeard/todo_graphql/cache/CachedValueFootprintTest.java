@@ -0,0 +1,134 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retained heap of one cache entry as a JPA entity, as a snapshot record and as the compact bytes the caches
+ * hold, measured with JOL.
+ */
+@DisplayName("Cached value footprint")
+class CachedValueFootprintTest {
+
+    private static final int TODOS_PER_USER = 10;
+
+    private User user;
+    private List<Todo> todos;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 9, 0);
+        user = User.builder()
+            .id(1L)
+            .username("alice")
+            .email("alice@example.com")
+            .firstName("Alice")
+            .lastName("Liddell")
+            .createdAt(now)
+            .updatedAt(now)
+            .version(0L)
+            .build();
+        todos = LongStream.rangeClosed(1, TODOS_PER_USER)
+            .mapToObj(id -> Todo.builder()
+                .id(id)
+                .title("Todo " + id)
+                .description("Description of todo " + id)
+                .status(TodoStatus.PENDING)
+                .priority(TodoPriority.MEDIUM)
+                .dueDate(now.plusDays(id))
+                .user(user)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(0L)
+                .build())
+            .toList();
+        // A cached entity keeps whatever associations were loaded in its session
+        user.getTodos().addAll(todos);
+    }
+
+    @Test
+    @DisplayName("users - a snapshot should retain less than the entity, and its encoding less than the snapshot")
+    void users_EncodingShouldBeSmallest() {
+        // Act
+        UserSnapshot value = UserSnapshot.of(user);
+        long entity = retained(user);
+        long snapshot = retained(value);
+        long encoded = retained(BinaryCacheValueSerializer.users().serialize(value));
+
+        // Assert
+        String sizes = sizes("users", entity, snapshot, encoded);
+        assertThat(snapshot).as(sizes).isLessThan(entity);
+        assertThat(encoded).as(sizes).isLessThan(snapshot / 2);
+    }
+
+    @Test
+    @DisplayName("todos - a snapshot should retain less than the entity, and its encoding less than the snapshot")
+    void todos_EncodingShouldBeSmallest() {
+        // Act
+        TodoSnapshot value = TodoSnapshot.of(todos.get(0));
+        long entity = retained(todos.get(0));
+        long snapshot = retained(value);
+        long encoded = retained(BinaryCacheValueSerializer.todos().serialize(value));
+
+        // Assert
+        String sizes = sizes("todos", entity, snapshot, encoded);
+        assertThat(snapshot).as(sizes).isLessThan(entity);
+        assertThat(encoded).as(sizes).isLessThan(snapshot / 2);
+    }
+
+    @Test
+    @DisplayName("userTodos - snapshots should retain less than entities, and their encoding less than snapshots")
+    void userTodos_EncodingShouldBeSmallest() {
+        // Act
+        List<TodoSnapshot> value = todos.stream().map(TodoSnapshot::of).toList();
+        long entity = retained(List.copyOf(todos));
+        long snapshot = retained(value);
+        long encoded = retained(BinaryCacheValueSerializer.todoLists().serialize(value));
+
+        // Assert
+        String sizes = sizes("userTodos", entity, snapshot, encoded);
+        assertThat(snapshot).as(sizes).isLessThan(entity);
+        assertThat(encoded).as(sizes).isLessThan(snapshot / 2);
+    }
+
+    @Test
+    @DisplayName("estimatedBytes - should cover the measured size of an encoded entry and its key")
+    void estimatedBytes_ShouldCoverMeasuredSize() {
+        // Arrange
+        byte[] encoded = BinaryCacheValueSerializer.todoLists()
+            .serialize(todos.stream().map(TodoSnapshot::of).toList());
+        Long key = 1_000L;
+
+        // Act
+        long estimate = CacheEntrySizes.estimatedBytes(key, encoded);
+        long measured = retained(key) + retained(encoded);
+
+        // Assert
+        assertThat(estimate).isGreaterThanOrEqualTo(measured);
+        assertThat(estimate - measured).isLessThanOrEqualTo(CacheEntrySizes.ENTRY_OVERHEAD);
+    }
+
+    private long retained(Object value) {
+        return GraphLayout.parseInstance(value).totalSize();
+    }
+
+    // Shown with a failing assertion, so a regression reports all three sizes
+    private String sizes(String cache, long entity, long snapshot, long encoded) {
+        return String.format("%s entity=%d B, snapshot=%d B (%.0f%%), encoded=%d B (%.0f%%)", cache,
+            entity, snapshot, 100.0 * snapshot / entity, encoded, 100.0 * encoded / entity);
+    }
+}
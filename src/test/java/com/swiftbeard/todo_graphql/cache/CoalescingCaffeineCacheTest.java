@@ -0,0 +1,243 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CoalescingCaffeineCache Unit Tests")
+class CoalescingCaffeineCacheTest {
+
+    private static final int READERS = 8;
+    private static final CacheValueSerializer IDS = BinaryCacheValueSerializer.ids();
+
+    private final List<Set<Long>> bulkLoads = new ArrayList<>();
+    private ExecutorService readers;
+    private CoalescingCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        readers = Executors.newFixedThreadPool(READERS);
+        cache = new CoalescingCaffeineCache("users", Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .buildAsync(new CacheLoader<>() {
+                @Override
+                public Object load(Object key) {
+                    return "user " + key;
+                }
+
+                @Override
+                public Map<Object, Object> loadAll(Set<?> keys) {
+                    bulkLoads.add(keys.stream().map(Long.class::cast).collect(Collectors.toSet()));
+                    // Id 404 does not exist
+                    return keys.stream()
+                        .filter(key -> !key.equals(404L))
+                        .collect(Collectors.toMap(key -> key, key -> "user " + key));
+                }
+            }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("get - concurrent misses of one key should share a single load")
+    void get_WhenConcurrentMisses_ShouldLoadOnce() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> slowLoad = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "alice";
+        };
+        Future<String> first = readers.submit(() -> cache.get(1L, slowLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        List<Future<String>> others = new ArrayList<>();
+        for (int i = 1; i < READERS; i++) {
+            others.add(readers.submit(() -> cache.get(1L, slowLoad)));
+        }
+        release.countDown();
+
+        // Assert
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+        for (Future<String> other : others) {
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("get - should run the load on the calling thread")
+    void get_ShouldLoadOnCallingThread() {
+        // Arrange
+        AtomicReference<Thread> loadingThread = new AtomicReference<>();
+
+        // Act
+        cache.get(1L, () -> {
+            loadingThread.set(Thread.currentThread());
+            return "alice";
+        });
+
+        // Assert
+        assertThat(loadingThread).hasValue(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("get - a failed load should fail the waiting readers and not be cached")
+    void get_WhenLoadFails_ShouldFailWaitersAndLoadAgain() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> first = readers.submit(() -> cache.get(7L, () -> {
+            loading.countDown();
+            release.await();
+            throw new ResourceNotFoundException("User not found with id: 7");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> waiter = CompletableFuture.supplyAsync(
+            () -> cache.get(7L, () -> "loaded by waiter"), readers);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+            .hasRootCauseInstanceOf(ResourceNotFoundException.class);
+        Object waited;
+        try {
+            waited = waiter.get(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            waited = ex;
+        }
+        // The waiter either shared the failed load or came after it and loaded on its own
+        if (waited instanceof Exception ex) {
+            assertThat(ex).hasRootCauseInstanceOf(ResourceNotFoundException.class);
+        } else {
+            assertThat(waited).isEqualTo("loaded by waiter");
+        }
+    }
+
+    @Test
+    @DisplayName("get - should wrap a failed load for the caching aspect")
+    void get_WhenLoadFails_ShouldThrowValueRetrievalException() {
+        // Act & Assert
+        assertThatThrownBy(() -> cache.get(7L, () -> {
+            throw new ResourceNotFoundException("User not found with id: 7");
+        }))
+            .isInstanceOf(Cache.ValueRetrievalException.class)
+            .hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThat(cache.getNativeCache().asMap()).doesNotContainKey(7L);
+        assertThat(cache.get(7L, () -> "alice")).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("getAll - should load only the missing keys, in one bulk call, and leave out unknown ones")
+    void getAll_ShouldBulkLoadMissingKeys() {
+        // Arrange
+        cache.put(1L, "cached alice");
+
+        // Act
+        Map<Object, Object> values = cache.getAll(List.of(1L, 2L, 3L, 404L));
+
+        // Assert
+        assertThat(values)
+            .containsExactlyInAnyOrderEntriesOf(Map.of(1L, "cached alice", 2L, "user 2", 3L, "user 3"));
+        assertThat(bulkLoads).containsExactly(Set.of(2L, 3L, 404L));
+        assertThat(cache.getAll(List.of(2L, 3L))).hasSize(2);
+        assertThat(bulkLoads).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("get - should hold encoded values and decode them for each reader")
+    void get_WithEncoding_ShouldStoreBytes() {
+        // Arrange
+        CoalescingCaffeineCache encoded = new CoalescingCaffeineCache("userIdsByEmail", Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .buildAsync(key -> IDS.serialize(key)), IDS, null);
+
+        // Act
+        Object loaded = encoded.get("alice@example.com", () -> 1L);
+        Object cached = encoded.get("alice@example.com", () -> 2L);
+
+        // Assert
+        assertThat(loaded).isEqualTo(1L);
+        assertThat(cached).isEqualTo(1L);
+        assertThat(encoded.getNativeCache().getIfPresent("alice@example.com")).isInstanceOf(byte[].class);
+    }
+
+    @Test
+    @DisplayName("get - should serve an entry evicted for size from the off-heap tier without loading")
+    void get_WhenEvictedToOffHeap_ShouldPromoteWithoutLoading() {
+        // Arrange
+        OffHeapTier offHeapTier = new OffHeapTier("users", 1024 * 1024, Duration.ofMinutes(10),
+            new SimpleMeterRegistry());
+        CoalescingCaffeineCache tiered = new CoalescingCaffeineCache("users", Caffeine.newBuilder()
+            .maximumSize(1)
+            .executor(Runnable::run)
+            .evictionListener(offHeapTier::onEviction)
+            .buildAsync(key -> IDS.serialize(key)), IDS, offHeapTier);
+        tiered.put(1L, 100L);
+        tiered.put(2L, 200L);
+        tiered.getNativeCache().cleanUp();
+
+        // Act
+        Object first = tiered.get(1L, () -> 0L);
+        Object second = tiered.get(2L, () -> 0L);
+
+        // Assert
+        assertThat(first).isEqualTo(100L);
+        assertThat(second).isEqualTo(200L);
+        tiered.getNativeCache().cleanUp();
+        assertThat(tiered.getNativeCache().estimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("evict - should drop the off-heap copy too")
+    void evict_ShouldDropOffHeapCopy() {
+        // Arrange
+        OffHeapTier offHeapTier = new OffHeapTier("users", 1024 * 1024, Duration.ofMinutes(10),
+            new SimpleMeterRegistry());
+        CoalescingCaffeineCache tiered = new CoalescingCaffeineCache("users", Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .buildAsync(key -> IDS.serialize(key)), IDS, offHeapTier);
+        offHeapTier.onEviction(1L, IDS.serialize(100L), RemovalCause.SIZE);
+
+        // Act
+        tiered.evict(1L);
+
+        // Assert
+        assertThat(tiered.get(1L, () -> 0L)).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("NegativeLookupCache Unit Tests")
+class NegativeLookupCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private CachingProperties properties;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new CachingProperties();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("get - should rethrow a remembered miss without loading and count it per operation")
+    void get_WhenMissRemembered_ShouldNotLoad() {
+        // Arrange
+        OperationCacheMetrics metrics = new OperationCacheMetrics(registry);
+        NegativeLookupCache cache = new NegativeLookupCache(properties, metrics, registry);
+        load(cache, 7L, missing());
+
+        // Act
+        String previous = metrics.bind("UserCard");
+        try {
+            assertThatThrownBy(() -> cache.get(NegativeLookupCache.USERS, 7L, missing()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("User not found with id: 7");
+        } finally {
+            metrics.restore(previous);
+        }
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(registry.counter("todo.cache.negative.stored", "lookup", "users").count()).isEqualTo(1);
+        assertThat(registry.counter("todo.graphql.cache.requests",
+            "operation", "UserCard", "cache", "users", "result", "negative_hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("forget - should load again once the key was written")
+    void forget_ShouldDropTheMiss() {
+        // Arrange
+        NegativeLookupCache cache = new NegativeLookupCache(properties, new OperationCacheMetrics(registry), registry);
+        load(cache, 7L, missing());
+
+        // Act
+        cache.forget(NegativeLookupCache.USERS, List.of(7L));
+
+        // Assert
+        assertThat(cache.get(NegativeLookupCache.USERS, 7L, () -> "alice")).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("get - should not remember other failures or anything when disabled")
+    void get_WhenDisabledOrOtherFailure_ShouldAlwaysLoad() {
+        // Arrange
+        properties.getNegative().setEnabled(false);
+        NegativeLookupCache disabled = new NegativeLookupCache(properties, new OperationCacheMetrics(registry),
+            registry);
+        NegativeLookupCache enabled = new NegativeLookupCache(new CachingProperties(),
+            new OperationCacheMetrics(registry), registry);
+        Supplier<String> failing = () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("database down");
+        };
+
+        // Act
+        load(disabled, 7L, missing());
+        load(disabled, 7L, missing());
+        load(enabled, 8L, failing);
+        load(enabled, 8L, failing);
+
+        // Assert
+        assertThat(loads).hasValue(4);
+    }
+
+    // Runs one lookup and ignores its failure
+    private void load(NegativeLookupCache cache, Long id, Supplier<String> loader) {
+        try {
+            cache.get(NegativeLookupCache.USERS, id, loader);
+        } catch (RuntimeException ignored) {
+            // expected
+        }
+    }
+
+    private Supplier<String> missing() {
+        return () -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFoundException("User not found with id: 7");
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OffHeapTier Unit Tests")
+class OffHeapTierTest {
+
+    private SimpleMeterRegistry registry;
+    private OffHeapTier tier;
+    private byte[] encoded;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tier = new OffHeapTier("userTodos", 1024 * 1024, Duration.ofMinutes(10), registry);
+        encoded = new byte[] {1, 'L', 3, 7, 7, 7};
+    }
+
+    @Test
+    @DisplayName("onEviction - should keep a value evicted for size and hand it back once")
+    void onEviction_WhenEvictedForSize_ShouldPromoteOnce() {
+        // Act
+        tier.onEviction(7L, encoded, RemovalCause.SIZE);
+        byte[] promoted = tier.promote(7L);
+
+        // Assert
+        assertThat(promoted).containsExactly(encoded);
+        assertThat(tier.promote(7L)).isNull();
+        assertThat(registry.counter("todo.cache.off-heap.demotions", "cache", "userTodos").count()).isEqualTo(1);
+        assertThat(registry.counter("todo.cache.off-heap.promotions", "cache", "userTodos").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("onEviction - should not keep expired, explicitly removed or unencoded values")
+    void onEviction_WhenNotEvictedForSize_ShouldDropValue() {
+        // Act
+        tier.onEviction(7L, encoded, RemovalCause.EXPIRED);
+        tier.onEviction(8L, encoded, RemovalCause.EXPLICIT);
+        tier.onEviction(9L, "not encoded", RemovalCause.SIZE);
+
+        // Assert
+        assertThat(tier.promote(7L)).isNull();
+        assertThat(tier.promote(8L)).isNull();
+        assertThat(tier.promote(9L)).isNull();
+    }
+
+    @Test
+    @DisplayName("bytes gauge - should report the encoded size of the values held")
+    void bytesGauge_ShouldReportEncodedSize() {
+        // Act
+        tier.onEviction(7L, encoded, RemovalCause.SIZE);
+        tier.onEviction(8L, encoded, RemovalCause.SIZE);
+        tier.evict(8L);
+
+        // Assert
+        assertThat(registry.get("todo.cache.off-heap.bytes").tag("cache", "userTodos").gauge().value())
+            .isEqualTo(encoded.length);
+        assertThat(registry.get("todo.cache.off-heap.entries").tag("cache", "userTodos").gauge().value())
+            .isEqualTo(1);
+    }
+}
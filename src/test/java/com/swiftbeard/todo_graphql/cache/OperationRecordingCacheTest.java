@@ -0,0 +1,98 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OperationRecordingCache Unit Tests")
+class OperationRecordingCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private OperationCacheMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new OperationCacheMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("get - should count hits and misses for the bound operation")
+    void get_WhenOperationBound_ShouldCountPerOperation() {
+        // Arrange
+        Cache cache = new OperationRecordingCache(new CaffeineCache("users", Caffeine.newBuilder().build()), metrics);
+        cache.put(1L, "alice");
+
+        // Act
+        String previous = metrics.bind("UserPage");
+        try {
+            cache.get(1L);
+            cache.get(2L);
+        } finally {
+            metrics.restore(previous);
+        }
+
+        // Assert
+        assertThat(requests("UserPage", "hit")).isEqualTo(1);
+        assertThat(requests("UserPage", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get - should count a value loaded by a refreshing cache as a miss")
+    void get_WhenLoadingCacheLoads_ShouldCountMiss() {
+        // Arrange
+        Cache cache = new OperationRecordingCache(
+            new CaffeineCache("users", Caffeine.newBuilder().build(key -> "loaded " + key)), metrics);
+
+        // Act
+        String previous = metrics.bind("UserPage");
+        try {
+            cache.get(1L);
+            cache.get(1L);
+        } finally {
+            metrics.restore(previous);
+        }
+
+        // Assert
+        assertThat(requests("UserPage", "miss")).isEqualTo(1);
+        assertThat(requests("UserPage", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get - should not count lookups made outside a GraphQL operation")
+    void get_WhenNoOperationBound_ShouldNotCount() {
+        // Arrange
+        Cache cache = new OperationRecordingCache(new CaffeineCache("users", Caffeine.newBuilder().build()), metrics);
+
+        // Act
+        cache.get(1L);
+
+        // Assert
+        assertThat(registry.find("todo.graphql.cache.requests").counters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("operationTag - should fold unnamed operations and names past the cap")
+    void operationTag_ShouldBoundCardinality() {
+        // Arrange
+        IntStream.range(0, OperationCacheMetrics.MAX_OPERATIONS).forEach(i -> metrics.operationTag("Op" + i));
+
+        // Act & Assert
+        assertThat(metrics.operationTag(null)).isEqualTo(OperationCacheMetrics.ANONYMOUS);
+        assertThat(metrics.operationTag("Op0")).isEqualTo("Op0");
+        assertThat(metrics.operationTag("OneTooMany")).isEqualTo(OperationCacheMetrics.OTHER);
+    }
+
+    private double requests(String operation, String result) {
+        return registry.counter("todo.graphql.cache.requests",
+            "operation", operation, "cache", "users", "result", result).count();
+    }
+}
@@ -0,0 +1,268 @@
+package com.swiftbeard.todo_graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TwoLevelCache Unit Tests")
+class TwoLevelCacheTest {
+
+    private InMemoryRemoteCache remote;
+    private SimpleMeterRegistry registryA;
+    private SimpleMeterRegistry registryB;
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    private UserSnapshot user;
+
+    @BeforeEach
+    void setUp() {
+        // Two nodes sharing one remote cache
+        remote = new InMemoryRemoteCache();
+        registryA = new SimpleMeterRegistry();
+        registryB = new SimpleMeterRegistry();
+        nodeA = manager(remote, registryA);
+        nodeB = manager(remote, registryB);
+
+        user = new UserSnapshot(1L, "alice", "alice@example.com", null, null, true,
+            LocalDateTime.of(2024, 5, 1, 9, 0), LocalDateTime.of(2024, 5, 1, 9, 0), 0L);
+    }
+
+    @Test
+    @DisplayName("should serve another node's write from L2, then from L1")
+    void get_WhenWrittenByOtherNode_ShouldHitL2ThenL1() {
+        // Arrange
+        nodeA.getCache("users").put(1L, user);
+
+        // Act
+        UserSnapshot first = nodeB.getCache("users").get(1L, UserSnapshot.class);
+        UserSnapshot second = nodeB.getCache("users").get(1L, UserSnapshot.class);
+
+        // Assert
+        assertThat(first).isEqualTo(user);
+        assertThat(second).isEqualTo(user);
+        assertThat(requests(registryB, "l2", "hit")).isEqualTo(1);
+        assertThat(requests(registryB, "l1", "hit")).isEqualTo(1);
+        assertThat(requests(registryB, "l1", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should keep an L2 hit encoded in L1 and decode it only when served")
+    @SuppressWarnings("unchecked")
+    void get_WhenL2Hit_ShouldKeepBytesInL1() {
+        // Arrange
+        nodeA.getCache("users").put(1L, user);
+
+        // Act
+        nodeB.getCache("users").get(1L, UserSnapshot.class);
+
+        // Assert
+        Cache<Object, Object> l1 = (Cache<Object, Object>) nodeB.getCache("users").getNativeCache();
+        assertThat(l1.getIfPresent("1")).isInstanceOf(byte[].class);
+        assertThat(BinaryCacheValueSerializer.users().deserialize((byte[]) l1.getIfPresent("1"))).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("should leave other nodes' L1 to the invalidation bus and publish nothing itself")
+    void put_ShouldNotPublishInvalidations() {
+        // Arrange
+        List<String> published = new ArrayList<>();
+        remote.subscribe(published::add);
+        nodeA.getCache("users").put(1L, user);
+        nodeB.getCache("users").get(1L, UserSnapshot.class);
+        UserSnapshot renamed = new UserSnapshot(1L, "alice2", "alice@example.com", null, null, true,
+            user.createdAt(), LocalDateTime.of(2024, 5, 2, 9, 0), 1L);
+
+        // Act
+        nodeA.getCache("users").put(1L, renamed);
+        ((TwoLevelCache) nodeB.getCache("users")).invalidateLocal("1");
+
+        // Assert
+        assertThat(published).isEmpty();
+        assertThat(nodeB.getCache("users").get(1L, UserSnapshot.class).username()).isEqualTo("alice2");
+    }
+
+    @Test
+    @DisplayName("should remove the entry from L2 so that other nodes reload once their L1 copy is dropped")
+    void evict_ShouldRemoveFromBothLevels() {
+        // Arrange
+        nodeA.getCache("users").put(1L, user);
+        nodeB.getCache("users").get(1L, UserSnapshot.class);
+
+        // Act
+        nodeA.getCache("users").evict(1L);
+        ((TwoLevelCache) nodeB.getCache("users")).invalidateLocal("1");
+
+        // Assert
+        assertThat(nodeA.getCache("users").get(1L)).isNull();
+        assertThat(nodeB.getCache("users").get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should share one in-flight load per key and keep other keys usable meanwhile")
+    void getWithLoader_WhenConcurrentMisses_ShouldLoadOnce() throws Exception {
+        // Arrange
+        org.springframework.cache.Cache cache = nodeA.getCache("users");
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<UserSnapshot> slowLoader = () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            releaseLoader.await();
+            return user;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<UserSnapshot> first = executor.submit(() -> cache.get(1L, slowLoader));
+            loaderStarted.await();
+            Future<UserSnapshot> second = executor.submit(() -> cache.get(1L, slowLoader));
+            cache.put(2L, user);
+            UserSnapshot otherKey = cache.get(2L, UserSnapshot.class);
+            releaseLoader.countDown();
+
+            // Assert
+            assertThat(otherKey).isEqualTo(user);
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(user);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(user);
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should not cache a value loaded while the key was evicted")
+    void getWithLoader_WhenEvictedDuringLoad_ShouldNotCacheValue() {
+        // Arrange
+        org.springframework.cache.Cache cache = nodeA.getCache("users");
+
+        // Act
+        UserSnapshot loaded = cache.get(1L, () -> {
+            cache.evict(1L);
+            return user;
+        });
+
+        // Assert
+        assertThat(loaded).isEqualTo(user);
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should load once and share the loaded value through L2")
+    void getWithLoader_ShouldStoreLoadedValueInBothLevels() {
+        // Act
+        UserSnapshot loaded = nodeA.getCache("users").get(1L, () -> user);
+        UserSnapshot fromOtherNode = nodeB.getCache("users").get(1L, () -> {
+            throw new IllegalStateException("loader must not run");
+        });
+
+        // Assert
+        assertThat(loaded).isEqualTo(user);
+        assertThat(fromOtherNode).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("should round-trip todo lists field by field")
+    void get_WhenTodoListCached_ShouldRoundTrip() {
+        // Arrange
+        TodoSnapshot todo = new TodoSnapshot(7L, "Write report", null, TodoStatus.COMPLETED, TodoPriority.HIGH,
+            null, LocalDateTime.of(2024, 5, 1, 12, 30), 1L, user.createdAt(), user.updatedAt(), 2L);
+        nodeA.getCache("userTodos").put(1L, List.of(todo));
+
+        // Act
+        @SuppressWarnings("unchecked")
+        List<TodoSnapshot> cached = nodeB.getCache("userTodos").get(1L, List.class);
+
+        // Assert
+        assertThat(cached).containsExactly(todo);
+    }
+
+    @Test
+    @DisplayName("should fall back to the loader when the remote cache fails")
+    void getWithLoader_WhenRemoteFails_ShouldLoad() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TwoLevelCacheManager node = manager(new FailingRemoteCache(), registry);
+
+        // Act
+        UserSnapshot loaded = node.getCache("users").get(1L, () -> user);
+
+        // Assert
+        assertThat(loaded).isEqualTo(user);
+        assertThat(registry.counter("todo.cache.remote.errors", "cache", "users").count()).isEqualTo(2);
+    }
+
+    private TwoLevelCacheManager manager(RemoteCache remoteCache, MeterRegistry registry) {
+        Map<String, CacheValueSerializer> serializers = new LinkedHashMap<>();
+        serializers.put("users", BinaryCacheValueSerializer.users());
+        serializers.put("userTodos", BinaryCacheValueSerializer.todoLists());
+        Map<String, Cache<Object, Object>> localCaches = new LinkedHashMap<>();
+        serializers.keySet().forEach(name -> localCaches.put(name, Caffeine.newBuilder().maximumSize(100).build()));
+        return new TwoLevelCacheManager(serializers, localCaches, remoteCache, new CachingProperties.Remote(), registry);
+    }
+
+    private double requests(SimpleMeterRegistry registry, String level, String result) {
+        return registry.counter("todo.cache.requests", "cache", "users", "level", level, "result", result).count();
+    }
+
+    private static class FailingRemoteCache implements RemoteCache {
+
+        @Override
+        public byte[] get(String key) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void put(String key, byte[] value, Duration ttl) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void evict(String key) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void clear(String keyPrefix) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void publish(String message) {
+            throw new IllegalStateException("connection refused");
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+        }
+    }
+}
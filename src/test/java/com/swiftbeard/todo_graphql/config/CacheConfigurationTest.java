@@ -0,0 +1,204 @@
+package com.swiftbeard.todo_graphql.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.swiftbeard.todo_graphql.cache.CoalescingCaffeineCache;
+import com.swiftbeard.todo_graphql.cache.InMemoryRemoteCache;
+import com.swiftbeard.todo_graphql.cache.RemoteCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CacheConfiguration Unit Tests")
+class CacheConfigurationTest {
+
+    @Test
+    @DisplayName("caffeineCacheBuilder - should serve the current value while refreshing it in the background")
+    void caffeineCacheBuilder_WithRefreshAfterWrite_ShouldRefreshAhead() {
+        // Arrange
+        CachingProperties.Policy policy = new CachingProperties.Policy();
+        policy.setExpireAfterWrite(Duration.ofMinutes(10));
+        policy.setRefreshAfterWrite(Duration.ofMinutes(1));
+        AtomicLong nanos = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        LoadingCache<Object, Object> cache = CacheConfiguration.caffeineCacheBuilder("users", policy)
+            .ticker(nanos::get)
+            .executor(Runnable::run)
+            .build(key -> "version " + loads.incrementAndGet());
+        cache.get(1L);
+
+        // Act
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        Object duringRefresh = cache.get(1L);
+        Object afterRefresh = cache.get(1L);
+
+        // Assert
+        assertThat(duringRefresh).isEqualTo("version 1");
+        assertThat(afterRefresh).isEqualTo("version 2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("caffeineCacheBuilder - should weigh list entries by their number of elements")
+    void caffeineCacheBuilder_WithMaximumWeight_ShouldWeighListsByLength() {
+        // Arrange
+        CachingProperties.Policy policy = new CachingProperties.Policy();
+        policy.setMaximumWeight(100L);
+        Cache<Object, Object> cache = CacheConfiguration.caffeineCacheBuilder("userTodos", policy)
+            .executor(Runnable::run)
+            .build();
+
+        // Act
+        cache.put(1L, List.of("a", "b", "c"));
+        cache.put(2L, List.of());
+        cache.put(3L, "single");
+        cache.cleanUp();
+
+        // Assert
+        assertThat(cache.policy().eviction().orElseThrow().weightedSize()).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("caffeineCacheBuilder - should weigh entries by bytes and evict once the budget is spent")
+    void caffeineCacheBuilder_WithMaximumBytes_ShouldEvictByEstimatedSize() {
+        // Arrange
+        CachingProperties.Policy policy = new CachingProperties.Policy();
+        policy.setMaximumBytes(DataSize.ofKilobytes(64));
+        Cache<Object, Object> cache = CacheConfiguration.caffeineCacheBuilder("userTodos", policy)
+            .executor(Runnable::run)
+            .build();
+
+        // Act
+        cache.put(1L, new byte[100]);
+        cache.cleanUp();
+        long small = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        cache.put(2L, new byte[80 * 1024]);
+        cache.cleanUp();
+
+        // Assert
+        assertThat(small).isBetween(100L, 300L);
+        assertThat(cache.policy().eviction().orElseThrow().weightedSize().orElseThrow())
+            .isLessThanOrEqualTo(64 * 1024);
+        assertThat(cache.getIfPresent(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("caffeineCacheBuilder - should reject both a byte budget and a weight budget")
+    void caffeineCacheBuilder_WithMaximumBytesAndWeight_ShouldFail() {
+        // Arrange
+        CachingProperties.Policy policy = new CachingProperties.Policy();
+        policy.setMaximumBytes(DataSize.ofMegabytes(1));
+        policy.setMaximumWeight(100L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> CacheConfiguration.caffeineCacheBuilder("userTodos", policy))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("todo.cache.caches.userTodos");
+    }
+
+    @Test
+    @DisplayName("caffeineCacheBuilder - should reject a refresh interval not shorter than the TTL")
+    void caffeineCacheBuilder_WhenRefreshNotBeforeExpiry_ShouldFail() {
+        // Arrange
+        CachingProperties.Policy policy = new CachingProperties.Policy();
+        policy.setExpireAfterWrite(Duration.ofMinutes(5));
+        policy.setRefreshAfterWrite(Duration.ofMinutes(5));
+
+        // Act & Assert
+        assertThatThrownBy(() -> CacheConfiguration.caffeineCacheBuilder("users", policy))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("todo.cache.caches.users.refresh-after-write");
+    }
+
+    @Test
+    @DisplayName("cacheManager - should apply each cache's own policy and expose only configured caches")
+    @SuppressWarnings("unchecked")
+    void cacheManager_ShouldApplyPerCachePolicies() {
+        // Arrange
+        CachingProperties properties = new CachingProperties();
+        CachingProperties.Policy users = new CachingProperties.Policy();
+        users.setMaximumSize(50_000);
+        users.setRefreshAfterWrite(Duration.ofMinutes(2));
+        properties.getCaches().put("users", users);
+        CacheConfiguration configuration = new CacheConfiguration(properties,
+            mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class));
+
+        // Act
+        CacheManager cacheManager = configuration.cacheManager(mock(ObjectProvider.class), new SimpleMeterRegistry());
+
+        // Assert
+        assertThat(cacheManager.getCacheNames())
+            .containsExactlyInAnyOrder("users", "todos", "userTodos", "userIdsByEmail", "userIdsByUsername");
+        assertThat(cacheManager.getCache("other")).isNull();
+        Cache<Object, Object> usersCache = ((CaffeineCache) cacheManager.getCache("users")).getNativeCache();
+        Cache<Object, Object> todosCache = ((CaffeineCache) cacheManager.getCache("todos")).getNativeCache();
+        assertThat(usersCache).isInstanceOf(LoadingCache.class);
+        assertThat(usersCache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(50_000);
+        assertThat(todosCache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(1000);
+        assertThat(List.of("users", "todos", "userTodos"))
+            .allMatch(name -> cacheManager.getCache(name) instanceof CoalescingCaffeineCache);
+        assertThat(cacheManager.getCache("userIdsByEmail")).isNotInstanceOf(CoalescingCaffeineCache.class);
+    }
+
+    @Test
+    @DisplayName("cacheManager - should report the estimated bytes of caches with a byte budget")
+    @SuppressWarnings("unchecked")
+    void cacheManager_WithMaximumBytes_ShouldReportEstimatedBytes() {
+        // Arrange
+        CachingProperties properties = new CachingProperties();
+        CachingProperties.Policy aliases = new CachingProperties.Policy();
+        aliases.setMaximumBytes(DataSize.ofMegabytes(8));
+        properties.getCaches().put("userIdsByEmail", aliases);
+        CacheConfiguration configuration = new CacheConfiguration(properties,
+            mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheManager cacheManager = configuration.cacheManager(mock(ObjectProvider.class), registry);
+        Cache<Object, Object> emails = ((CaffeineCache) cacheManager.getCache("userIdsByEmail")).getNativeCache();
+
+        // Act
+        cacheManager.getCache("userIdsByEmail").put("alice@example.com", 1L);
+        emails.cleanUp();
+
+        // Assert
+        assertThat(registry.get("todo.cache.estimated.bytes").tag("cache", "userIdsByEmail").gauge().value())
+            .isPositive();
+        assertThat(registry.get("todo.cache.maximum.bytes").tag("cache", "userIdsByEmail").gauge().value())
+            .isEqualTo(8 * 1024 * 1024);
+        assertThat(registry.find("todo.cache.estimated.bytes").tag("cache", "users").gauge()).isNull();
+    }
+
+    @Test
+    @DisplayName("cacheManager - should reject an off-heap tier in front of a remote cache level")
+    @SuppressWarnings("unchecked")
+    void cacheManager_WithOffHeapAndRemote_ShouldFail() {
+        // Arrange
+        CachingProperties properties = new CachingProperties();
+        CachingProperties.Policy userTodos = new CachingProperties.Policy();
+        userTodos.setOffHeapSize(DataSize.ofMegabytes(64));
+        properties.getCaches().put("userTodos", userTodos);
+        CacheConfiguration configuration = new CacheConfiguration(properties,
+            mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class));
+        ObjectProvider<RemoteCache> remoteCache = mock(ObjectProvider.class);
+        when(remoteCache.getIfAvailable()).thenReturn(new InMemoryRemoteCache());
+
+        // Act & Assert
+        assertThatThrownBy(() -> configuration.cacheManager(remoteCache, new SimpleMeterRegistry()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("todo.cache.caches.userTodos.off-heap-size");
+    }
+}
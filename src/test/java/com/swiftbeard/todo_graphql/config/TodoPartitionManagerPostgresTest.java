@@ -0,0 +1,174 @@
+package com.swiftbeard.todo_graphql.config;
+
+import com.swiftbeard.todo_graphql.config.PartitioningProperties.Mode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("TodoPartitionManager PostgreSQL Migration Tests")
+class TodoPartitionManagerPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private PartitioningProperties properties;
+    private TodoPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+            POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        properties = new PartitioningProperties();
+        properties.setMode(Mode.HASH);
+        properties.setHashPartitions(4);
+        properties.setMigrate(true);
+        partitionManager = new TodoPartitionManager(jdbcTemplate,
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties);
+
+        // The schema Hibernate generates for the User and Todo entities
+        jdbcTemplate.execute("DROP TABLE IF EXISTS todos, users CASCADE");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + TodoPartitionManager.ID_SEQUENCE);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "username VARCHAR(50) NOT NULL, email VARCHAR(100) NOT NULL, first_name VARCHAR(100), " +
+            "last_name VARCHAR(100), is_active BOOLEAN, created_at TIMESTAMP(6) NOT NULL, " +
+            "updated_at TIMESTAMP(6), version BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE todos (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "title VARCHAR(200) NOT NULL, description VARCHAR(2000), status VARCHAR(20) NOT NULL, " +
+            "priority VARCHAR(20) NOT NULL, due_date TIMESTAMP(6), completed_at TIMESTAMP(6), " +
+            "user_id BIGINT NOT NULL REFERENCES users (id), created_at TIMESTAMP(6) NOT NULL, " +
+            "updated_at TIMESTAMP(6), version BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_todo_user_id ON todos (user_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_todo_status ON todos (status)");
+        jdbcTemplate.execute("CREATE INDEX idx_todo_priority ON todos (priority)");
+        jdbcTemplate.execute("CREATE INDEX idx_todo_due_date ON todos (due_date)");
+        jdbcTemplate.execute("CREATE INDEX idx_todo_user_status ON todos (user_id, status)");
+        jdbcTemplate.execute("CREATE INDEX idx_todo_created_at ON todos (created_at)");
+
+        for (int user = 1; user <= 3; user++) {
+            jdbcTemplate.update("INSERT INTO users (username, email, is_active, created_at, version) " +
+                "VALUES (?, ?, true, now(), 0)", "user" + user, "user" + user + "@example.com");
+        }
+        for (int todo = 1; todo <= 30; todo++) {
+            jdbcTemplate.update("INSERT INTO todos (title, status, priority, user_id, created_at, version) " +
+                "VALUES (?, 'PENDING', 'MEDIUM', ?, now(), 0)", "Todo " + todo, todo % 3 + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("run - should copy every row, recreate the indexes and continue ids after the old maximum")
+    void run_ShouldMigrateRowsIndexesAndSequence() {
+        // Arrange
+        Long maxIdBefore = jdbcTemplate.queryForObject("SELECT MAX(id) FROM todos", Long.class);
+
+        // Act
+        partitionManager.run(new DefaultApplicationArguments());
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+            "WHERE c.relname = 'todos'", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos", Integer.class)).isEqualTo(30);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos WHERE user_id = 2", Integer.class))
+            .isEqualTo(10);
+        assertThat(jdbcTemplate.queryForList("SELECT inhrelid::regclass::text FROM pg_inherits " +
+            "WHERE inhparent = 'todos'::regclass", String.class)).hasSize(4);
+
+        List<String> indexes = jdbcTemplate.queryForList(
+            "SELECT indexname FROM pg_indexes WHERE tablename = 'todos'", String.class);
+        assertThat(indexes).contains("idx_todo_user_id", "idx_todo_status", "idx_todo_priority",
+            "idx_todo_due_date", "idx_todo_user_status", "idx_todo_created_at");
+
+        Long newId = jdbcTemplate.queryForObject("INSERT INTO todos (title, status, priority, user_id, " +
+            "created_at, version) VALUES ('After migration', 'PENDING', 'MEDIUM', 1, now(), 0) RETURNING id",
+            Long.class);
+        assertThat(newId).isGreaterThan(maxIdBefore);
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('todos', 'id')", String.class))
+            .endsWith(TodoPartitionManager.ID_SEQUENCE);
+    }
+
+    @Test
+    @DisplayName("run - single-todo statements carrying user_id should be pruned to one partition")
+    void run_WhenQueryCarriesUserId_ShouldScanOnePartition() {
+        // Act
+        partitionManager.run(new DefaultApplicationArguments());
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+            "EXPLAIN UPDATE todos SET version = version + 1 WHERE id = 1 AND user_id = 2", String.class));
+
+        // Assert
+        Set<String> partitions = Pattern.compile("todos_p\\d+").matcher(plan).results()
+            .map(MatchResult::group)
+            .collect(Collectors.toSet());
+        assertThat(partitions).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("run - should leave an already partitioned table untouched")
+    void run_WhenAlreadyPartitioned_ShouldNotMigrateAgain() {
+        // Arrange
+        partitionManager.run(new DefaultApplicationArguments());
+
+        // Act
+        partitionManager.run(new DefaultApplicationArguments());
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos", Integer.class)).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("run - should leave the table unpartitioned unless the migration is enabled")
+    void run_WhenMigrateDisabled_ShouldNotCopy() {
+        // Arrange
+        properties.setMigrate(false);
+
+        // Act
+        partitionManager.run(new DefaultApplicationArguments());
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_partitioned_table", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos", Integer.class)).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("run - nodes starting together should migrate once")
+    void run_WhenNodesStartTogether_ShouldMigrateOnce() throws Exception {
+        // Arrange
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+
+        // Act
+        List<Future<?>> runs = List.of(
+            nodes.submit(() -> partitionManager.run(new DefaultApplicationArguments())),
+            nodes.submit(() -> partitionManager.run(new DefaultApplicationArguments())));
+        for (Future<?> run : runs) {
+            run.get(60, TimeUnit.SECONDS);
+        }
+        nodes.shutdown();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos", Integer.class)).isEqualTo(30);
+        assertThat(jdbcTemplate.queryForList("SELECT inhrelid::regclass::text FROM pg_inherits " +
+            "WHERE inhparent = 'todos'::regclass", String.class)).hasSize(4);
+    }
+}
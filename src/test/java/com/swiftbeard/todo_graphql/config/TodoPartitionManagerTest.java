@@ -0,0 +1,50 @@
+package com.swiftbeard.todo_graphql.config;
+
+import com.swiftbeard.todo_graphql.config.PartitioningProperties.Mode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TodoPartitionManager Unit Tests")
+class TodoPartitionManagerTest {
+
+    @Test
+    @DisplayName("migrationStatements - hash mode should create one partition per remainder")
+    void migrationStatements_HashMode_ShouldCreateHashPartitions() {
+        // Arrange
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setMode(Mode.HASH);
+        properties.setHashPartitions(4);
+
+        // Act
+        List<String> statements = TodoPartitionManager.migrationStatements(properties);
+
+        // Assert
+        assertThat(statements.get(0)).contains("PARTITION BY HASH (user_id)");
+        assertThat(statements).contains("ALTER TABLE todos_partitioned ADD PRIMARY KEY (id, user_id)");
+        assertThat(statements).filteredOn(s -> s.contains("FOR VALUES WITH (MODULUS 4"))
+            .hasSize(4);
+        assertThat(statements).contains("INSERT INTO todos_partitioned SELECT * FROM todos");
+        assertThat(statements).contains("ALTER TABLE todos_partitioned RENAME TO todos");
+        assertThat(statements).noneMatch(s -> s.contains("DEFAULT") && s.contains("PARTITION OF"));
+    }
+
+    @Test
+    @DisplayName("migrationStatements - should recreate entity indexes on the partitioned table")
+    void migrationStatements_ShouldRecreateIndexes() {
+        // Arrange
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setMode(Mode.HASH);
+
+        // Act
+        List<String> statements = TodoPartitionManager.migrationStatements(properties);
+
+        // Assert
+        assertThat(statements).filteredOn(s -> s.startsWith("CREATE INDEX")).hasSize(6);
+        assertThat(statements.indexOf("DROP TABLE todos"))
+            .isLessThan(statements.indexOf("CREATE INDEX idx_todo_user_id ON todos (user_id)"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.swiftbeard.todo_graphql.controller;
+
+import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
+import com.swiftbeard.todo_graphql.service.DataVersions;
+import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.UserService;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {"todo.scheduling.enabled=false", "todo.persisted-queries.settle-delay=0s"})
+@AutoConfigureMockMvc
+@DisplayName("Persisted Query GET Integration Tests")
+class PersistedQueryIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoJdbcRepository todoJdbcRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "persisted" + UUID.randomUUID().toString().substring(0, 8);
+        user = userService.createUser(CreateUserInput.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .build());
+        createTodo("Water the plants");
+    }
+
+    @Test
+    @DisplayName("todosByUser - should answer a matching If-None-Match with 304 until the user's todos change")
+    void todosByUser_ShouldRevalidateWithETag() throws Exception {
+        // Arrange
+        MvcResult first = perform(todosByUser());
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        MvcResult unchanged = perform(todosByUser().header(HttpHeaders.IF_NONE_MATCH, etag));
+        createTodo("Feed the cat");
+        MvcResult changed = perform(todosByUser().header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // Assert
+        assertThat(first.getResponse().getStatus()).isEqualTo(200);
+        assertThat(first.getResponse().getContentAsString()).contains("Water the plants");
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(first.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).contains("no-cache");
+        assertThat(unchanged.getResponse().getStatus()).isEqualTo(304);
+        assertThat(unchanged.getResponse().getContentAsString()).isEmpty();
+        assertThat(changed.getResponse().getStatus()).isEqualTo(200);
+        assertThat(changed.getResponse().getContentAsString()).contains("Feed the cat");
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("todosByUser - should keep the ETag of one user when another user's todos change")
+    void todosByUser_WhenOtherUserWrites_ShouldKeepETag() throws Exception {
+        // Arrange
+        String etag = perform(todosByUser()).getResponse().getHeader(HttpHeaders.ETAG);
+        String name = "other" + UUID.randomUUID().toString().substring(0, 8);
+        User other = userService.createUser(CreateUserInput.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .build());
+
+        // Act
+        todoService.createTodo(CreateTodoInput.builder().title("Someone else's").userId(other.getId()).build());
+        MvcResult result = perform(todosByUser().header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // Assert
+        assertThat(result.getResponse().getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("todosByUser - should derive the ETag from the database, so another node agrees on it")
+    void todosByUser_ShouldTagWithPersistedVersion() throws Exception {
+        // Arrange
+        DataVersions otherNode = new DataVersions(todoJdbcRepository, shardRouter);
+
+        // Act
+        String etag = perform(todosByUser()).getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertThat(etag).isEqualTo("\"" + otherNode.user(user.getId()) + "\"");
+    }
+
+    @Test
+    @DisplayName("persisted query - should reject unknown ids and malformed variables")
+    void persistedQuery_WhenUnknownOrMalformed_ShouldFail() throws Exception {
+        // Act
+        MvcResult unknown = perform(get("/graphql/persisted/deleteEverything"));
+        MvcResult malformed = perform(get("/graphql/persisted/todosByUser").param("variables", "{not json"));
+
+        // Assert
+        assertThat(unknown.getResponse().getStatus()).isEqualTo(404);
+        assertThat(malformed.getResponse().getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("registry - should refuse to persist a mutation")
+    void registry_WhenMutation_ShouldFail() {
+        // Act & Assert
+        assertThatThrownBy(() -> PersistedQueryRegistry.parse("deleteTodo", "mutation { deleteTodo(id: 1) }"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("deleteTodo");
+    }
+
+    @Test
+    @DisplayName("registry - should scope a query by its user arguments and spot clock-dependent fields")
+    void registry_ShouldDeriveScope() {
+        // Act
+        PersistedQuery scoped = PersistedQueryRegistry.parse("scoped",
+            "query($id: ID!) { user(id: $id) { id } todosByUser(userId: 7) { id } }");
+        PersistedQuery unscoped = PersistedQueryRegistry.parse("unscoped", "{ users { id } }");
+        PersistedQuery overdue = PersistedQueryRegistry.parse("overdue",
+            "query($id: ID!) { todosByUser(userId: $id) { id isOverdue } }");
+
+        // Assert
+        assertThat(scoped.resolveUserIds(Map.of("id", "3"))).containsExactly(3L, 7L);
+        assertThat(scoped.timeDependent()).isFalse();
+        assertThat(unscoped.resolveUserIds(Map.of())).isNull();
+        assertThat(overdue.timeDependent()).isTrue();
+    }
+
+    private MockHttpServletRequestBuilder todosByUser() {
+        return get("/graphql/persisted/todosByUser").param("variables", "{\"userId\":\"" + user.getId() + "\"}");
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)).andReturn() : result;
+    }
+
+    private void createTodo(String title) {
+        todoService.createTodo(CreateTodoInput.builder().title(title).userId(user.getId()).build());
+    }
+}
@@ -3,6 +3,7 @@ package com.swiftbeard.todo_graphql.cucumber;
 import com.swiftbeard.todo_graphql.controller.TodoController.TodoStats;
 import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
 import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
 import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
 import com.swiftbeard.todo_graphql.entity.Todo;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
@@ -34,8 +35,8 @@ public class TodoManagementSteps {
 
     private User testUser;
     private Todo createdTodo;
-    private Todo retrievedTodo;
-    private List<Todo> retrievedTodos;
+    private TodoSnapshot retrievedTodo;
+    private List<TodoSnapshot> retrievedTodos;
     private TodoStats todoStats;
     private Exception thrownException;
     private Long todoIdToDelete;
@@ -73,21 +74,21 @@ public class TodoManagementSteps {
 
     @And("the todo should have the title {string}")
     public void theTodoShouldHaveTheTitle(String title) {
-        Todo todo = createdTodo != null ? createdTodo : retrievedTodo;
+        TodoSnapshot todo = createdTodo != null ? TodoSnapshot.of(createdTodo) : retrievedTodo;
         assertThat(todo).isNotNull();
-        assertThat(todo.getTitle()).isEqualTo(title);
+        assertThat(todo.title()).isEqualTo(title);
     }
 
     @And("the todo should have status {string}")
     public void theTodoShouldHaveStatus(String status) {
-        Todo todo = createdTodo != null ? createdTodo : retrievedTodo;
-        assertThat(todo.getStatus()).isEqualTo(TodoStatus.valueOf(status));
+        TodoSnapshot todo = createdTodo != null ? TodoSnapshot.of(createdTodo) : retrievedTodo;
+        assertThat(todo.status()).isEqualTo(TodoStatus.valueOf(status));
     }
 
     @And("the todo should have priority {string}")
     public void theTodoShouldHavePriority(String priority) {
-        Todo todo = createdTodo != null ? createdTodo : retrievedTodo;
-        assertThat(todo.getPriority()).isEqualTo(TodoPriority.valueOf(priority));
+        TodoSnapshot todo = createdTodo != null ? TodoSnapshot.of(createdTodo) : retrievedTodo;
+        assertThat(todo.priority()).isEqualTo(TodoPriority.valueOf(priority));
     }
 
     @When("I attempt to create a todo for a non-existent user")
@@ -167,24 +168,24 @@ public class TodoManagementSteps {
 
     @When("I retrieve todos with status {string}")
     public void iRetrieveTodosWithStatus(String status) {
-        retrievedTodos = todoService.getTodosByUserIdAndStatus(testUser.getId(), TodoStatus.valueOf(status));
+        retrievedTodos = snapshots(todoService.getTodosByUserIdAndStatus(testUser.getId(), TodoStatus.valueOf(status)));
     }
 
     @And("all todos should have status {string}")
     public void allTodosShouldHaveStatus(String status) {
         TodoStatus expectedStatus = TodoStatus.valueOf(status);
-        assertThat(retrievedTodos).allMatch(todo -> todo.getStatus() == expectedStatus);
+        assertThat(retrievedTodos).allMatch(todo -> todo.status() == expectedStatus);
     }
 
     @When("I retrieve ordered todos for the user")
     public void iRetrieveOrderedTodosForTheUser() {
-        retrievedTodos = todoService.getTodosByUserIdOrdered(testUser.getId());
+        retrievedTodos = snapshots(todoService.getTodosByUserIdOrdered(testUser.getId()));
     }
 
     @And("the first todo should have priority {string}")
     public void theFirstTodoShouldHavePriority(String priority) {
         assertThat(retrievedTodos).isNotEmpty();
-        assertThat(retrievedTodos.get(0).getPriority()).isEqualTo(TodoPriority.valueOf(priority));
+        assertThat(retrievedTodos.get(0).priority()).isEqualTo(TodoPriority.valueOf(priority));
     }
 
     @Given("a todo exists with title {string} and status {string}")
@@ -203,7 +204,7 @@ public class TodoManagementSteps {
         UpdateTodoInput input = UpdateTodoInput.builder()
             .status(TodoStatus.valueOf(status))
             .build();
-        retrievedTodo = todoService.updateTodo(createdTodo.getId(), input);
+        retrievedTodo = TodoSnapshot.of(todoService.updateTodo(createdTodo.getId(), input, null));
     }
 
     @Then("the todo should be updated successfully")
@@ -213,12 +214,12 @@ public class TodoManagementSteps {
 
     @When("I complete the todo")
     public void iCompleteTheTodo() {
-        retrievedTodo = todoService.completeTodo(createdTodo.getId());
+        retrievedTodo = TodoSnapshot.of(todoService.completeTodo(createdTodo.getId(), null));
     }
 
     @And("the todo should have a completion timestamp")
     public void theTodoShouldHaveACompletionTimestamp() {
-        assertThat(retrievedTodo.getCompletedAt()).isNotNull();
+        assertThat(retrievedTodo.completedAt()).isNotNull();
     }
 
     @When("I delete the todo")
@@ -255,77 +256,77 @@ public class TodoManagementSteps {
 
     @When("I retrieve overdue todos")
     public void iRetrieveOverdueTodos() {
-        retrievedTodos = todoService.getOverdueTodos();
+        retrievedTodos = snapshots(todoService.getOverdueTodos());
     }
 
     @And("all todos should be overdue")
     public void allTodosShouldBeOverdue() {
         LocalDateTime now = LocalDateTime.now();
         assertThat(retrievedTodos).allMatch(todo ->
-            todo.getDueDate() != null &&
-            todo.getDueDate().isBefore(now) &&
-            todo.getStatus() != TodoStatus.COMPLETED
+            todo.dueDate() != null &&
+            todo.dueDate().isBefore(now) &&
+            todo.status() != TodoStatus.COMPLETED
         );
     }
 
     @When("I retrieve overdue todos for the user")
     public void iRetrieveOverdueTodosForTheUser() {
-        retrievedTodos = todoService.getOverdueTodosByUserId(testUser.getId());
+        retrievedTodos = snapshots(todoService.getOverdueTodosByUserId(testUser.getId()));
     }
 
     @And("the todo should be overdue")
     public void theTodoShouldBeOverdue() {
-        Todo todo = retrievedTodos != null && !retrievedTodos.isEmpty() ? retrievedTodos.get(0) : retrievedTodo;
+        TodoSnapshot todo = retrievedTodos != null && !retrievedTodos.isEmpty() ? retrievedTodos.get(0) : retrievedTodo;
         LocalDateTime now = LocalDateTime.now();
-        assertThat(todo.getDueDate()).isBefore(now);
-        assertThat(todo.getStatus()).isNotEqualTo(TodoStatus.COMPLETED);
+        assertThat(todo.dueDate()).isBefore(now);
+        assertThat(todo.status()).isNotEqualTo(TodoStatus.COMPLETED);
     }
 
     @And("the todo should not be marked as overdue")
     public void theTodoShouldNotBeMarkedAsOverdue() {
         LocalDateTime now = LocalDateTime.now();
-        boolean isOverdue = retrievedTodo.getDueDate() != null &&
-            retrievedTodo.getDueDate().isBefore(now) &&
-            retrievedTodo.getStatus() != TodoStatus.COMPLETED;
+        boolean isOverdue = retrievedTodo.dueDate() != null &&
+            retrievedTodo.dueDate().isBefore(now) &&
+            retrievedTodo.status() != TodoStatus.COMPLETED;
         assertThat(isOverdue).isFalse();
     }
 
     @When("I search todos with {string}")
     public void iSearchTodosWith(String searchTerm) {
-        retrievedTodos = todoService.searchTodosByUser(testUser.getId(), searchTerm);
+        retrievedTodos = snapshots(todoService.searchTodosByUser(testUser.getId(), searchTerm));
     }
 
     @And("the results should contain title {string}")
     public void theResultsShouldContainTitle(String title) {
         assertThat(retrievedTodos)
-            .extracting(Todo::getTitle)
+            .extracting(TodoSnapshot::title)
             .contains(title);
     }
 
     @When("I retrieve statistics for the user")
     public void iRetrieveStatisticsForTheUser() {
-        List<Todo> todos = todoService.getTodosByUserId(testUser.getId());
+        List<TodoSnapshot> todos = todoService.getTodosByUserId(testUser.getId());
 
         long completedCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.COMPLETED)
+            .filter(t -> t.status() == TodoStatus.COMPLETED)
             .count();
 
         long pendingCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.PENDING)
+            .filter(t -> t.status() == TodoStatus.PENDING)
             .count();
 
         long inProgressCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.IN_PROGRESS)
+            .filter(t -> t.status() == TodoStatus.IN_PROGRESS)
             .count();
 
         long cancelledCount = todos.stream()
-            .filter(t -> t.getStatus() == TodoStatus.CANCELLED)
+            .filter(t -> t.status() == TodoStatus.CANCELLED)
             .count();
 
         long overdueCount = todos.stream()
-            .filter(t -> t.getDueDate() != null &&
-                t.getDueDate().isBefore(LocalDateTime.now()) &&
-                t.getStatus() != TodoStatus.COMPLETED)
+            .filter(t -> t.dueDate() != null &&
+                t.dueDate().isBefore(LocalDateTime.now()) &&
+                t.status() != TodoStatus.COMPLETED)
             .count();
 
         todoStats = new TodoStats(
@@ -415,7 +416,7 @@ public class TodoManagementSteps {
 
     @When("I retrieve the user with todo counts")
     public void iRetrieveTheUserWithTodoCounts() {
-        testUser = userService.getUserById(testUser.getId());
+        userService.getUserById(testUser.getId());
     }
 
     @Then("the user should have {int} total todos")
@@ -450,18 +451,18 @@ public class TodoManagementSteps {
     @Then("the todo should be marked as overdue")
     public void theTodoShouldBeMarkedAsOverdue() {
         LocalDateTime now = LocalDateTime.now();
-        boolean isOverdue = retrievedTodo.getDueDate() != null &&
-            retrievedTodo.getDueDate().isBefore(now) &&
-            retrievedTodo.getStatus() != TodoStatus.COMPLETED;
+        boolean isOverdue = retrievedTodo.dueDate() != null &&
+            retrievedTodo.dueDate().isBefore(now) &&
+            retrievedTodo.status() != TodoStatus.COMPLETED;
         assertThat(isOverdue).isTrue();
     }
 
     @Then("the todo should not be marked as overdue")
     public void theTodoShouldNotBeMarkedAsOverdueAgain() {
         LocalDateTime now = LocalDateTime.now();
-        boolean isOverdue = retrievedTodo.getDueDate() != null &&
-            retrievedTodo.getDueDate().isBefore(now) &&
-            retrievedTodo.getStatus() != TodoStatus.COMPLETED;
+        boolean isOverdue = retrievedTodo.dueDate() != null &&
+            retrievedTodo.dueDate().isBefore(now) &&
+            retrievedTodo.status() != TodoStatus.COMPLETED;
         assertThat(isOverdue).isFalse();
     }
 
@@ -479,4 +480,8 @@ public class TodoManagementSteps {
     public void iShouldReceiveTodo(int count) {
         iShouldReceiveTodos(count);
     }
+
+    private List<TodoSnapshot> snapshots(List<Todo> todos) {
+        return todos.stream().map(TodoSnapshot::of).toList();
+    }
 }
@@ -2,6 +2,7 @@ package com.swiftbeard.todo_graphql.cucumber;
 
 import com.swiftbeard.todo_graphql.dto.CreateUserInput;
 import com.swiftbeard.todo_graphql.dto.UpdateUserInput;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
 import com.swiftbeard.todo_graphql.entity.User;
 import com.swiftbeard.todo_graphql.repository.TodoRepository;
 import com.swiftbeard.todo_graphql.repository.UserRepository;
@@ -12,6 +13,7 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 
 import java.util.List;
 import java.util.Map;
@@ -30,8 +32,11 @@ public class UserManagementSteps {
     @Autowired
     private TodoRepository todoRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private User createdUser;
-    private User retrievedUser;
+    private UserSnapshot retrievedUser;
     private List<User> retrievedUsers;
     private Exception thrownException;
     private Long userIdToDelete;
@@ -40,6 +45,8 @@ public class UserManagementSteps {
     public void theDatabaseIsClean() {
         todoRepository.deleteAll();
         userRepository.deleteAll();
+        // Deleted behind the services' back, so their cached copies must go too
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         createdUser = null;
         retrievedUser = null;
         retrievedUsers = null;
@@ -68,9 +75,9 @@ public class UserManagementSteps {
 
     @And("the user should have the username {string}")
     public void theUserShouldHaveTheUsername(String username) {
-        User user = createdUser != null ? createdUser : retrievedUser;
+        UserSnapshot user = createdUser != null ? UserSnapshot.of(createdUser) : retrievedUser;
         assertThat(user).isNotNull();
-        assertThat(user.getUsername()).isEqualTo(username);
+        assertThat(user.username()).isEqualTo(username);
     }
 
     @And("the user should be active")
@@ -155,7 +162,7 @@ public class UserManagementSteps {
 
     @And("the user email should be {string}")
     public void theUserEmailShouldBe(String email) {
-        assertThat(retrievedUser.getEmail()).isEqualTo(email);
+        assertThat(retrievedUser.email()).isEqualTo(email);
     }
 
     @When("I retrieve the user by username {string}")
@@ -168,7 +175,7 @@ public class UserManagementSteps {
         UpdateUserInput input = UpdateUserInput.builder()
             .firstName(firstName)
             .build();
-        retrievedUser = userService.updateUser(createdUser.getId(), input);
+        retrievedUser = UserSnapshot.of(userService.updateUser(createdUser.getId(), input, null));
     }
 
     @Then("the user should be updated successfully")
@@ -178,7 +185,7 @@ public class UserManagementSteps {
 
     @And("the user's first name should be {string}")
     public void theUserSFirstNameShouldBe(String firstName) {
-        assertThat(retrievedUser.getFirstName()).isEqualTo(firstName);
+        assertThat(retrievedUser.firstName()).isEqualTo(firstName);
     }
 
     @When("I attempt to update the first user's email to {string}")
@@ -188,7 +195,7 @@ public class UserManagementSteps {
             .build();
 
         try {
-            userService.updateUser(createdUser.getId(), input);
+            userService.updateUser(createdUser.getId(), input, null);
         } catch (Exception e) {
             thrownException = e;
         }
@@ -251,7 +258,7 @@ public class UserManagementSteps {
                 UpdateUserInput updateInput = UpdateUserInput.builder()
                     .isActive(isActive)
                     .build();
-                userService.updateUser(user.getId(), updateInput);
+                userService.updateUser(user.getId(), updateInput, null);
             }
         }
     }
@@ -279,7 +286,7 @@ public class UserManagementSteps {
         UpdateUserInput updateInput = UpdateUserInput.builder()
             .isActive(false)
             .build();
-        userService.updateUser(user.getId(), updateInput);
+        userService.updateUser(user.getId(), updateInput, null);
     }
 
     @When("I retrieve active users")
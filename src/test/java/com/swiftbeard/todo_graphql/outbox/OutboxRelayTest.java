@@ -0,0 +1,116 @@
+package com.swiftbeard.todo_graphql.outbox;
+
+import com.swiftbeard.todo_graphql.config.OutboxProperties;
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
+import com.swiftbeard.todo_graphql.entity.OutboxEvent;
+import com.swiftbeard.todo_graphql.repository.OutboxEventRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxSink sink;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        properties.setMaxBatchesPerPoll(5);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxEventRepository, sink, properties, transactionTemplate,
+            new ShardRouter(new ShardingProperties(), null), meterRegistry);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("relay - should publish and delete batches until the outbox is drained")
+    void relay_ShouldPublishAndDeleteUntilDrained() throws Exception {
+        // Arrange
+        List<OutboxEvent> first = List.of(event(1L), event(2L));
+        List<OutboxEvent> second = List.of(event(3L));
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(first, second);
+
+        // Act
+        int published = relay.relay();
+
+        // Assert
+        assertThat(published).isEqualTo(3);
+        verify(sink, times(2)).publish(anyList());
+        verify(outboxEventRepository).deleteAllInBatch(first);
+        verify(outboxEventRepository).deleteAllInBatch(second);
+        assertThat(meterRegistry.get("todo.outbox.published").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("relay - should keep events in the outbox when the sink fails")
+    void relay_WhenSinkFails_ShouldNotDeleteEvents() throws Exception {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(List.of(event(1L)));
+        doThrow(new IllegalStateException("broker down")).when(sink).publish(anyList());
+
+        // Act
+        int published = relay.relay();
+
+        // Assert
+        assertThat(published).isZero();
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        assertThat(meterRegistry.get("todo.outbox.failed.batches").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("relay - should do nothing when the outbox is empty")
+    void relay_WhenEmpty_ShouldNotPublish() throws Exception {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(Collections.emptyList());
+
+        // Act
+        int published = relay.relay();
+
+        // Assert
+        assertThat(published).isZero();
+        verify(sink, never()).publish(anyList());
+    }
+
+    private OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+            .id(id)
+            .aggregateType("Todo")
+            .aggregateId(id)
+            .eventType("TodoCreated")
+            .payload("{\"id\":" + id + "}")
+            .createdAt(LocalDateTime.now().minusSeconds(1))
+            .build();
+    }
+}
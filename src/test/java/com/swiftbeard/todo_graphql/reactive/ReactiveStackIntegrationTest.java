@@ -0,0 +1,224 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.controller.UserController;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactive_it;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+    "todo.reactive.url=r2dbc:h2:mem:///reactive_it?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+    "todo.scheduling.enabled=false"
+})
+@ActiveProfiles("reactive")
+@AutoConfigureGraphQlTester
+@DisplayName("Reactive Stack Integration Tests")
+class ReactiveStackIntegrationTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private String username;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        username = "rx" + UUID.randomUUID().toString().substring(0, 8);
+        userId = graphQlTester.document("""
+                mutation($username: String!, $email: String!) {
+                    createUser(input: { username: $username, email: $email }) { id }
+                }
+                """)
+            .variable("username", username)
+            .variable("email", username + "@example.com")
+            .execute()
+            .path("createUser.id").entity(String.class).get();
+    }
+
+    @Test
+    @DisplayName("reactive profile - should replace the blocking controllers")
+    void reactiveProfile_ShouldOnlyRegisterReactiveControllers() {
+        assertThat(applicationContext.getBeansOfType(ReactiveUserController.class)).hasSize(1);
+        assertThat(applicationContext.getBeansOfType(UserController.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("createTodo - should resolve User.todos and Todo.user through R2DBC")
+    void createTodo_ShouldBeVisibleThroughBatchResolvers() {
+        // Arrange
+        graphQlTester.document("""
+                mutation($userId: ID!) {
+                    createTodo(input: { title: "Reactive", userId: $userId, priority: HIGH }) { id }
+                }
+                """)
+            .variable("userId", userId)
+            .execute()
+            .path("createTodo.id").hasValue();
+
+        // Act & Assert
+        graphQlTester.document("""
+                query($id: ID!) {
+                    user(id: $id) { username todoCount todos { title priority user { username } } }
+                }
+                """)
+            .variable("id", userId)
+            .execute()
+            .path("user.todoCount").entity(Integer.class).isEqualTo(1)
+            .path("user.todos[0].title").entity(String.class).isEqualTo("Reactive")
+            .path("user.todos[0].priority").entity(String.class).isEqualTo("HIGH")
+            .path("user.todos[0].user.username").entity(String.class).isEqualTo(username);
+    }
+
+    @Test
+    @DisplayName("completeTodo - should bump the version and reject a stale expected version")
+    void completeTodo_WhenExpectedVersionIsStale_ShouldReturnConflict() {
+        // Arrange
+        String todoId = graphQlTester.document("""
+                mutation($userId: ID!) {
+                    createTodo(input: { title: "Versioned", userId: $userId }) { id }
+                }
+                """)
+            .variable("userId", userId)
+            .execute()
+            .path("createTodo.id").entity(String.class).get();
+
+        graphQlTester.document("mutation($id: ID!) { completeTodo(id: $id, expectedVersion: 0) { status version } }")
+            .variable("id", todoId)
+            .execute()
+            .path("completeTodo.status").entity(String.class).isEqualTo("COMPLETED")
+            .path("completeTodo.version").entity(Integer.class).isEqualTo(1);
+
+        // Act & Assert
+        graphQlTester.document("mutation($id: ID!) { completeTodo(id: $id, expectedVersion: 0) { id } }")
+            .variable("id", todoId)
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).singleElement()
+                .satisfies(error -> assertThat(String.valueOf(error.getExtensions().get("actualVersion")))
+                    .isEqualTo("1")));
+    }
+
+    @Test
+    @DisplayName("completeTodo - should evict the cached todo and its owner's list once committed")
+    void completeTodo_ShouldPublishInvalidations() {
+        // Arrange
+        Long todoId = Long.valueOf(createTodo("Cached"));
+        Long ownerId = Long.valueOf(userId);
+        cacheStaleCopies(todoId, ownerId);
+
+        // Act
+        graphQlTester.document("mutation($id: ID!) { completeTodo(id: $id) { status } }")
+            .variable("id", todoId)
+            .execute()
+            .path("completeTodo.status").entity(String.class).isEqualTo("COMPLETED");
+
+        // Assert
+        assertThat(cacheManager.getCache("todos").get(todoId)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(ownerId)).isNull();
+    }
+
+    @Test
+    @DisplayName("deleteTodo - should look up the owner and evict its cached list once committed")
+    void deleteTodo_ShouldPublishInvalidations() {
+        // Arrange
+        Long todoId = Long.valueOf(createTodo("Cached and deleted"));
+        Long ownerId = Long.valueOf(userId);
+        cacheStaleCopies(todoId, ownerId);
+
+        // Act
+        graphQlTester.document("mutation($id: ID!) { deleteTodo(id: $id) }")
+            .variable("id", todoId)
+            .execute()
+            .path("deleteTodo").entity(Boolean.class).isEqualTo(true);
+
+        // Assert
+        assertThat(cacheManager.getCache("todos").get(todoId)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(ownerId)).isNull();
+    }
+
+    @Test
+    @DisplayName("createUser - should report a duplicate email from the unique index")
+    void createUser_WhenEmailExists_ShouldReturnDuplicateError() {
+        graphQlTester.document("""
+                mutation($email: String!) {
+                    createUser(input: { username: "other_rx_user", email: $email }) { id }
+                }
+                """)
+            .variable("email", username + "@example.com")
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getMessage()).contains("User already exists with email");
+                    assertThat(error.getExtensions()).containsEntry("field", "email");
+                }));
+    }
+
+    @Test
+    @DisplayName("deleteUser - should delete the user and their todos, evict them, then report not found")
+    void deleteUser_ShouldRemoveUser() {
+        // Arrange
+        Long todoId = Long.valueOf(createTodo("Deleted with its owner"));
+        Long ownerId = Long.valueOf(userId);
+        cacheStaleCopies(todoId, ownerId);
+
+        // Act
+        graphQlTester.document("mutation($id: ID!) { deleteUser(id: $id) }")
+            .variable("id", userId)
+            .execute()
+            .path("deleteUser").entity(Boolean.class).isEqualTo(true);
+
+        // Assert
+        graphQlTester.document("query($id: ID!) { user(id: $id) { id } }")
+            .variable("id", userId)
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).contains("User not found")));
+        assertThat(cacheManager.getCache("todos").get(todoId)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(ownerId)).isNull();
+    }
+
+    private String createTodo(String title) {
+        return graphQlTester.document("""
+                mutation($userId: ID!, $title: String!) {
+                    createTodo(input: { title: $title, userId: $userId }) { id }
+                }
+                """)
+            .variable("userId", userId)
+            .variable("title", title)
+            .execute()
+            .path("createTodo.id").entity(String.class).get();
+    }
+
+    // What a blocking node sharing the caches would hold before the reactive write
+    private void cacheStaleCopies(Long todoId, Long ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        TodoSnapshot stale = new TodoSnapshot(todoId, "Stale", null, TodoStatus.PENDING, TodoPriority.MEDIUM,
+            null, null, ownerId, now, now, 0L);
+        cacheManager.getCache("todos").put(todoId, stale);
+        cacheManager.getCache("userTodos").put(ownerId, List.of(stale));
+    }
+}
@@ -0,0 +1,202 @@
+package com.swiftbeard.todo_graphql.reactive;
+
+import com.swiftbeard.todo_graphql.TodoGraphqlApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.graphql.ExecutionGraphQlRequest;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Finds the highest number of concurrent GraphQL requests each stack sustains on H2 with the
+ * same 10-connection pool. The blocking stack gets 200 request threads (Tomcat's default); the
+ * reactive stack is driven from Reactor's parallel scheduler, one thread per core.
+ * A level counts as sustained when no request fails and p99 latency stays within budget.
+ * Run with {@code ./gradlew loadTest}; excluded from {@code ./gradlew test}.
+ */
+@Tag("load")
+@DisplayName("Blocking vs Reactive Stack Load Test")
+class ReactiveStackLoadTest {
+
+    private static final int USERS = 200;
+    private static final int TODOS_PER_USER = 10;
+    private static final int POOL_SIZE = 10;
+    private static final int REQUEST_THREADS = 200;
+    private static final int[] CONCURRENCY_LEVELS = {25, 50, 100, 200, 400, 800, 1600, 3200};
+    private static final Duration STEP_DURATION = Duration.ofSeconds(5);
+    private static final Duration P99_BUDGET = Duration.ofMillis(500);
+
+    private static final String QUERY =
+        "query($id: ID!) { user(id: $id) { id username todos { id title status } } }";
+
+    @Test
+    @DisplayName("should report the max sustainable concurrency of both stacks")
+    void compareMaxSustainableConcurrency() throws Exception {
+        int blocking = maxSustainableConcurrency(false);
+        int reactive = maxSustainableConcurrency(true);
+
+        System.out.printf("%nMax sustainable concurrency: blocking=%d, reactive=%d%n", blocking, reactive);
+        assertThat(blocking).as("blocking stack sustains the lowest level").isPositive();
+        assertThat(reactive).as("reactive stack sustains the lowest level").isPositive();
+    }
+
+    private int maxSustainableConcurrency(boolean reactive) throws Exception {
+        String stack = reactive ? "reactive" : "blocking";
+        String database = "load_" + stack;
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodoGraphqlApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "spring.datasource.hikari.connection-timeout=2000",
+                "todo.reactive.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "todo.reactive.pool-max-size=" + POOL_SIZE,
+                "todo.reactive.max-acquire-time=2s",
+                "todo.scheduling.enabled=false",
+                "logging.level.com.swiftbeard.todo_graphql=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "logging.level.org.springframework.graphql=WARN");
+        if (reactive) {
+            builder.profiles("reactive");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            List<Long> userIds = seed(context.getBean(JdbcTemplate.class));
+            ExecutionGraphQlService graphQlService = context.getBean(ExecutionGraphQlService.class);
+            ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+            ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+            try {
+                // Warm up JIT, pools and caches before measuring
+                runStep(graphQlService, userIds, CONCURRENCY_LEVELS[0], reactive, requestThreads, dispatcher);
+
+                int sustained = 0;
+                System.out.printf("%n%-9s %11s %10s %10s %10s %8s%n",
+                    "stack", "concurrency", "req/s", "p50 ms", "p99 ms", "errors");
+                for (int concurrency : CONCURRENCY_LEVELS) {
+                    StepResult result = runStep(graphQlService, userIds, concurrency, reactive, requestThreads,
+                        dispatcher);
+                    System.out.printf("%-9s %11d %10.0f %10.1f %10.1f %8d%n", stack, concurrency,
+                        result.throughput(), result.p50Millis(), result.p99Millis(), result.errors());
+                    if (result.errors() > 0 || result.p99Millis() > P99_BUDGET.toMillis()) {
+                        break;
+                    }
+                    sustained = concurrency;
+                }
+                return sustained;
+            } finally {
+                requestThreads.shutdownNow();
+                dispatcher.shutdownNow();
+            }
+        }
+    }
+
+    private StepResult runStep(ExecutionGraphQlService graphQlService, List<Long> userIds, int concurrency,
+                               boolean reactive, ExecutorService requestThreads, ExecutorService dispatcher)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + STEP_DURATION.toNanos();
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch clients = new CountDownLatch(concurrency);
+
+        // Closed loop: each client sends its next request as soon as the previous one completes.
+        // Completions are handed to the dispatcher so a fast response never recurses on the caller's stack.
+        for (int i = 0; i < concurrency; i++) {
+            Runnable[] next = new Runnable[1];
+            next[0] = () -> {
+                if (System.nanoTime() >= deadline) {
+                    clients.countDown();
+                    return;
+                }
+                long start = System.nanoTime();
+                send(graphQlService, randomUser(userIds), reactive, requestThreads)
+                    .whenCompleteAsync((response, ex) -> {
+                        latencies.add(System.nanoTime() - start);
+                        if (ex != null || !response.getErrors().isEmpty()) {
+                            errors.incrementAndGet();
+                        }
+                        next[0].run();
+                    }, dispatcher);
+            };
+            next[0].run();
+        }
+        clients.await(STEP_DURATION.toSeconds() + 60, TimeUnit.SECONDS);
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        sorted.sort(null);
+        return new StepResult(sorted.size() / (double) STEP_DURATION.toSeconds(),
+            percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), errors.get());
+    }
+
+    private CompletableFuture<ExecutionGraphQlResponse> send(ExecutionGraphQlService graphQlService, Long userId,
+                                                             boolean reactive, ExecutorService requestThreads) {
+        ExecutionGraphQlRequest request = new DefaultExecutionGraphQlRequest(
+            QUERY, null, Map.of("id", userId), null, UUID.randomUUID().toString(), null);
+        if (reactive) {
+            return Mono.defer(() -> graphQlService.execute(request))
+                .subscribeOn(Schedulers.parallel())
+                .toFuture();
+        }
+        // A request occupies its thread until the response is complete, as in a servlet container
+        return CompletableFuture.supplyAsync(() -> graphQlService.execute(request).block(), requestThreads);
+    }
+
+    private List<Long> seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"load" + i, "load" + i + "@example.com", now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, is_active, created_at, updated_at, version) " +
+            "VALUES (?, ?, TRUE, ?, ?, 0)", users);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+
+        List<Object[]> todos = new ArrayList<>();
+        for (Long userId : userIds) {
+            for (int i = 0; i < TODOS_PER_USER; i++) {
+                todos.add(new Object[]{"Todo " + i, userId, now, now});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO todos (title, status, priority, user_id, created_at, updated_at, version) " +
+            "VALUES (?, 'PENDING', 'MEDIUM', ?, ?, ?, 0)", todos);
+        return userIds;
+    }
+
+    private static Long randomUser(List<Long> userIds) {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) {
+            return Double.MAX_VALUE;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private record StepResult(double throughput, double p50Millis, double p99Millis, long errors) {}
+}
@@ -0,0 +1,119 @@
+package com.swiftbeard.todo_graphql.repository;
+
+import com.swiftbeard.todo_graphql.dto.TodoRow;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TodoJdbcRepository.class)
+@DisplayName("TodoJdbcRepository Integration Tests")
+class TodoJdbcRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TodoJdbcRepository todoJdbcRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    private User user1;
+    private User user2;
+    private Todo pendingTodo;
+
+    @BeforeEach
+    void setUp() {
+        user1 = User.builder()
+            .username("user1")
+            .email("user1@example.com")
+            .isActive(true)
+            .build();
+        user2 = User.builder()
+            .username("user2")
+            .email("user2@example.com")
+            .isActive(true)
+            .build();
+        entityManager.persist(user1);
+        entityManager.persist(user2);
+
+        pendingTodo = Todo.builder()
+            .title("Pending Todo")
+            .description("This is pending")
+            .status(TodoStatus.PENDING)
+            .priority(TodoPriority.HIGH)
+            .dueDate(LocalDateTime.now().plusDays(7))
+            .user(user1)
+            .build();
+        entityManager.persist(pendingTodo);
+        entityManager.persist(Todo.builder()
+            .title("Completed Todo")
+            .status(TodoStatus.COMPLETED)
+            .priority(TodoPriority.LOW)
+            .completedAt(LocalDateTime.now())
+            .user(user1)
+            .build());
+        entityManager.persist(Todo.builder()
+            .title("Other User Todo")
+            .status(TodoStatus.PENDING)
+            .user(user2)
+            .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("findByUserId - should map every column like the JPA query")
+    void findByUserId_ShouldMatchJpaResult() {
+        // Act
+        List<TodoRow> rows = todoJdbcRepository.findByUserId(user1.getId());
+
+        // Assert
+        assertThat(rows).hasSize(todoRepository.findByUserId(user1.getId()).size());
+        TodoRow row = rows.stream().filter(r -> r.id().equals(pendingTodo.getId())).findFirst().orElseThrow();
+        assertThat(row.title()).isEqualTo("Pending Todo");
+        assertThat(row.description()).isEqualTo("This is pending");
+        assertThat(row.status()).isEqualTo(TodoStatus.PENDING);
+        assertThat(row.priority()).isEqualTo(TodoPriority.HIGH);
+        assertThat(row.dueDate()).isNotNull();
+        assertThat(row.completedAt()).isNull();
+        assertThat(row.userId()).isEqualTo(user1.getId());
+        assertThat(row.createdAt()).isNotNull();
+        assertThat(row.version()).isEqualTo(pendingTodo.getVersion());
+    }
+
+    @Test
+    @DisplayName("findByUserIdIn - should return todos of all requested users")
+    void findByUserIdIn_ShouldReturnTodosForAllUsers() {
+        // Act
+        List<TodoRow> rows = todoJdbcRepository.findByUserIdIn(List.of(user1.getId(), user2.getId()));
+
+        // Assert
+        assertThat(rows).hasSize(3);
+        assertThat(todoJdbcRepository.findByUserIdIn(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("countByUserIdAndStatus - should match the JPA count")
+    void countByUserIdAndStatus_ShouldMatchJpaCount() {
+        // Act
+        long count = todoJdbcRepository.countByUserIdAndStatus(user1.getId(), TodoStatus.PENDING);
+
+        // Assert
+        assertThat(count).isEqualTo(1L);
+        assertThat(count).isEqualTo(todoRepository.countByUserIdAndStatus(user1.getId(), TodoStatus.PENDING));
+    }
+}
@@ -1,5 +1,6 @@
 package com.swiftbeard.todo_graphql.repository;
 
+import com.swiftbeard.todo_graphql.entity.ArchivedTodo;
 import com.swiftbeard.todo_graphql.entity.Todo;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -27,6 +29,9 @@ class TodoRepositoryTest {
     @Autowired
     private TodoRepository todoRepository;
 
+    @Autowired
+    private ArchivedTodoRepository archivedTodoRepository;
+
     private User user1;
     private User user2;
     private Todo pendingTodo;
@@ -121,6 +126,17 @@ class TodoRepositoryTest {
         assertThat(todos).isEmpty();
     }
 
+    @Test
+    @DisplayName("findByIdAndUserId - should return todo only for its owner")
+    void findByIdAndUserId_ShouldMatchOwner() {
+        // Act & Assert
+        assertThat(todoRepository.findByIdAndUserId(pendingTodo.getId(), user1.getId()))
+            .get()
+            .extracting(Todo::getTitle)
+            .isEqualTo("Pending Todo");
+        assertThat(todoRepository.findByIdAndUserId(pendingTodo.getId(), user2.getId())).isEmpty();
+    }
+
     @Test
     @DisplayName("findByUserIdAndStatus - should return todos with specific status")
     void findByUserIdAndStatus_ShouldReturnFilteredTodos() {
@@ -427,4 +443,94 @@ class TodoRepositoryTest {
         }
         assertThat(foundHigh).isTrue();
     }
+
+    @Test
+    @DisplayName("lockArchivableTodos - should claim only completed todos before cutoff")
+    void lockArchivableTodos_ShouldReturnCompletedTodosBeforeCutoff() {
+        // Act
+        List<Object[]> claimed = todoRepository.lockArchivableTodos(LocalDateTime.now().plusMinutes(1), 10);
+
+        // Assert
+        assertThat(claimed).hasSize(1);
+        assertThat(((Number) claimed.get(0)[0]).longValue()).isEqualTo(completedTodo.getId());
+        assertThat(((Number) claimed.get(0)[1]).longValue()).isEqualTo(user1.getId());
+    }
+
+    @Test
+    @DisplayName("lockArchivableTodos - should ignore recently completed todos")
+    void lockArchivableTodos_WhenCompletedAfterCutoff_ShouldReturnEmpty() {
+        // Act
+        List<Object[]> claimed = todoRepository.lockArchivableTodos(LocalDateTime.now().minusDays(1), 10);
+
+        // Assert
+        assertThat(claimed).isEmpty();
+    }
+
+    @Test
+    @DisplayName("copyToArchive and deleteByIdIn - should move todo to archive table")
+    void copyToArchiveAndDelete_ShouldMoveTodoToArchive() {
+        // Arrange
+        List<Long> ids = List.of(completedTodo.getId());
+
+        // Act
+        int copied = todoRepository.copyToArchive(ids, LocalDateTime.now());
+        int deleted = todoRepository.deleteByIdIn(ids);
+        entityManager.clear();
+
+        // Assert
+        assertThat(copied).isEqualTo(1);
+        assertThat(deleted).isEqualTo(1);
+        assertThat(todoRepository.findById(completedTodo.getId())).isEmpty();
+        List<ArchivedTodo> archived = archivedTodoRepository.findByUserId(user1.getId());
+        assertThat(archived).hasSize(1);
+        assertThat(archived.get(0).getId()).isEqualTo(completedTodo.getId());
+        assertThat(archived.get(0).getTitle()).isEqualTo("Completed Todo");
+        assertThat(archived.get(0).getStatus()).isEqualTo(TodoStatus.COMPLETED);
+        assertThat(archived.get(0).getArchivedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("findOldestArchivableCompletedAt - should return null when nothing is archivable")
+    void findOldestArchivableCompletedAt_WhenNothingArchivable_ShouldReturnNull() {
+        // Act
+        LocalDateTime oldest = todoRepository.findOldestArchivableCompletedAt(LocalDateTime.now().minusDays(1));
+
+        // Assert
+        assertThat(oldest).isNull();
+    }
+
+    @Test
+    @DisplayName("deleteByUserId - should delete all todos of the user in one statement")
+    void deleteByUserId_ShouldDeleteOnlyThatUsersTodos() {
+        // Arrange
+        Todo otherTodo = Todo.builder()
+            .title("Other Todo")
+            .status(TodoStatus.PENDING)
+            .priority(TodoPriority.LOW)
+            .user(user2)
+            .build();
+        entityManager.persistAndFlush(otherTodo);
+
+        // Act
+        int deleted = todoRepository.deleteByUserId(user1.getId());
+        entityManager.clear();
+
+        // Assert
+        assertThat(deleted).isEqualTo(4);
+        assertThat(todoRepository.countByUserId(user1.getId())).isZero();
+        assertThat(todoRepository.countByUserId(user2.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findIdsByUserId - should page through the user's todo ids in id order")
+    void findIdsByUserId_WithPageable_ShouldReturnChunk() {
+        // Act
+        List<Long> allIds = todoRepository.findIdsByUserId(user1.getId());
+        List<Long> firstChunk = todoRepository.findIdsByUserId(user1.getId(), PageRequest.of(0, 3));
+
+        // Assert
+        assertThat(allIds).hasSize(4);
+        assertThat(firstChunk).hasSize(3).isSorted();
+        assertThat(allIds).containsAll(firstChunk);
+    }
 }
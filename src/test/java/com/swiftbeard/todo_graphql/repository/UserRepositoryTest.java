@@ -7,12 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @DisplayName("UserRepository Integration Tests")
@@ -144,6 +146,40 @@ class UserRepositoryTest {
         assertThat(exists).isFalse();
     }
 
+    @Test
+    @DisplayName("saveAndFlush - should reject duplicate email through the idx_user_email index")
+    void saveAndFlush_WhenEmailDuplicated_ShouldViolateEmailIndex() {
+        // Arrange
+        User duplicate = User.builder()
+            .username("john_other")
+            .email("john@example.com")
+            .isActive(true)
+            .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> userRepository.saveAndFlush(duplicate))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .satisfies(ex -> assertThat(((DataIntegrityViolationException) ex).getMostSpecificCause().getMessage())
+                .containsIgnoringCase("idx_user_email"));
+    }
+
+    @Test
+    @DisplayName("saveAndFlush - should reject duplicate username through the idx_user_username index")
+    void saveAndFlush_WhenUsernameDuplicated_ShouldViolateUsernameIndex() {
+        // Arrange
+        User duplicate = User.builder()
+            .username("john_doe")
+            .email("john.other@example.com")
+            .isActive(true)
+            .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> userRepository.saveAndFlush(duplicate))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .satisfies(ex -> assertThat(((DataIntegrityViolationException) ex).getMostSpecificCause().getMessage())
+                .containsIgnoringCase("idx_user_username"));
+    }
+
     @Test
     @DisplayName("findByIsActive - should return only active users")
     void findByIsActive_WhenTrue_ShouldReturnActiveUsers() {
@@ -0,0 +1,61 @@
+package com.swiftbeard.todo_graphql.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares. A test registers its own instance as the session
+ * factory's statement inspector, so counts never leak between application contexts.
+ */
+class SqlStatementCounter implements StatementInspector {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    void reset() {
+        statements.clear();
+    }
+
+    List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    // Each statement as "<verb> <table>", e.g. "insert todos" or "select todos", in execution order
+    List<String> operations() {
+        return statements.stream().map(SqlStatementCounter::operation).toList();
+    }
+
+    private static String operation(String sql) {
+        String normalized = sql.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        if (normalized.startsWith("insert into ")) {
+            return "insert " + firstWord(normalized.substring("insert into ".length()));
+        }
+        if (normalized.startsWith("update ")) {
+            return "update " + firstWord(normalized.substring("update ".length()));
+        }
+        if (normalized.startsWith("delete from ")) {
+            return "delete " + firstWord(normalized.substring("delete from ".length()));
+        }
+        int from = normalized.indexOf(" from ");
+        if (normalized.startsWith("select ") && from > 0) {
+            return "select " + firstWord(normalized.substring(from + " from ".length()));
+        }
+        return normalized;
+    }
+
+    private static String firstWord(String text) {
+        int end = 0;
+        while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+            end++;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -0,0 +1,130 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.repository.ArchivedTodoRepository;
+import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "todo.scheduling.enabled=false",
+    "todo.archive.batch-size=1",
+    "todo.archive.batch-pause=0ms"
+})
+@DisplayName("TodoArchiveService Integration Tests")
+class TodoArchiveServiceIntegrationTest {
+
+    @Autowired
+    private TodoArchiveService todoArchiveService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TodoStatsIndex todoStatsIndex;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ArchivedTodoRepository archivedTodoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Todo oldTodo;
+    private Todo olderTodo;
+    private Todo openTodo;
+
+    @BeforeEach
+    void setUp() {
+        String name = "archive" + UUID.randomUUID().toString().substring(0, 8);
+        user = userService.createUser(CreateUserInput.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .build());
+        oldTodo = completedLongAgo("Filed taxes", 120);
+        olderTodo = completedLongAgo("Renewed passport", 200);
+        openTodo = todoService.createTodo(CreateTodoInput.builder().title("Book dentist").userId(user.getId()).build());
+    }
+
+    @Test
+    @DisplayName("archiveCompletedTodos - should move old completed todos in batches, evict caches and update metrics")
+    void archiveCompletedTodos_ShouldMoveRowsEvictCachesAndRecordMetrics() {
+        // Arrange
+        todoService.getTodosByUserId(user.getId());
+        todoService.getTodoById(oldTodo.getId());
+        double archivedBefore = meterRegistry.get("todo.archive.archived.rows").counter().count();
+
+        // Act
+        int archived = todoArchiveService.archiveCompletedTodos(LocalDateTime.now().minusDays(90));
+
+        // Assert
+        assertThat(archived).isGreaterThanOrEqualTo(2);
+        assertThat(todoRepository.findById(oldTodo.getId())).isEmpty();
+        assertThat(todoRepository.findById(olderTodo.getId())).isEmpty();
+        assertThat(todoRepository.findById(openTodo.getId())).isPresent();
+        assertThat(archivedTodoRepository.findById(oldTodo.getId())).isPresent();
+        assertThat(archivedTodoRepository.findById(olderTodo.getId()).orElseThrow().getArchivedAt()).isNotNull();
+
+        assertThat(cacheManager.getCache("userTodos").get(user.getId())).isNull();
+        assertThat(cacheManager.getCache("todos").get(oldTodo.getId())).isNull();
+        assertThat(todoService.getTodosByUserId(user.getId())).extracting(TodoSnapshot::id).containsExactly(openTodo.getId());
+        assertThat(todoStatsIndex.counts(user.getId(), LocalDateTime.now()).orElseThrow().total()).isEqualTo(1);
+
+        assertThat(meterRegistry.get("todo.archive.archived.rows").counter().count() - archivedBefore)
+            .isEqualTo(archived);
+        assertThat(meterRegistry.get("todo.archive.lag").gauge().value()).isZero();
+        assertThat(meterRegistry.get("todo.archive.hot.rows").gauge().value()).isPositive();
+    }
+
+    @Test
+    @DisplayName("archiveCompletedTodos - should leave todos completed after the cutoff in place")
+    void archiveCompletedTodos_WhenCompletedAfterCutoff_ShouldKeepRows() {
+        // Act
+        todoArchiveService.archiveCompletedTodos(LocalDateTime.now().minusDays(150));
+
+        // Assert
+        assertThat(todoRepository.findById(oldTodo.getId())).isPresent();
+        assertThat(todoRepository.findById(olderTodo.getId())).isEmpty();
+        assertThat(archivedTodoRepository.findById(oldTodo.getId())).isEmpty();
+    }
+
+    private Todo completedLongAgo(String title, int daysAgo) {
+        Todo todo = todoService.createTodo(CreateTodoInput.builder()
+            .title(title)
+            .status(TodoStatus.COMPLETED)
+            .userId(user.getId())
+            .build());
+        jdbcTemplate.update("UPDATE todos SET completed_at = ? WHERE id = ?",
+            Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo)), todo.getId());
+        return todo;
+    }
+}
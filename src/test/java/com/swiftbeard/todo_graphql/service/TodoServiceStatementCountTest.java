@@ -0,0 +1,206 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
+import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "todo.scheduling.enabled=false")
+@DisplayName("TodoService Statement Count Tests")
+class TodoServiceStatementCountTest {
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+
+        @Bean
+        SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+        }
+    }
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "stmt" + UUID.randomUUID().toString().substring(0, 8);
+        user = userService.createUser(CreateUserInput.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .build());
+    }
+
+    @Test
+    @DisplayName("createTodo - should insert the todo and its outbox event without loading the user")
+    void createTodo_ShouldIssueTwoInserts() {
+        // Arrange
+        sqlStatementCounter.reset();
+
+        // Act
+        Todo todo = todoService.createTodo(todoInput("Create"));
+
+        // Assert
+        assertThat(todo.getId()).isNotNull();
+        assertThat(sqlStatementCounter.operations()).containsExactly("insert todos", "insert outbox_events");
+    }
+
+    @Test
+    @DisplayName("createTodo - should report a missing user via the foreign key")
+    void createTodo_WhenUserMissing_ShouldThrowNotFound() {
+        // Arrange
+        CreateTodoInput input = CreateTodoInput.builder()
+            .title("Orphan")
+            .userId(Long.MAX_VALUE)
+            .build();
+        sqlStatementCounter.reset();
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.createTodo(input))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("User not found with id: " + Long.MAX_VALUE);
+        assertThat(sqlStatementCounter.operations()).containsExactly("insert todos");
+    }
+
+    @Test
+    @DisplayName("updateTodo - should issue one conditional UPDATE, one SELECT and the outbox INSERT")
+    void updateTodo_ShouldIssueThreeStatements() {
+        // Arrange
+        Todo todo = todoService.createTodo(todoInput("Update"));
+        sqlStatementCounter.reset();
+
+        // Act
+        Todo updated = todoService.updateTodo(todo.getId(), user.getId(),
+            UpdateTodoInput.builder().title("Updated").build(), todo.getVersion());
+
+        // Assert
+        assertThat(sqlStatementCounter.operations())
+            .containsExactly("update todos", "select todos", "insert outbox_events");
+        assertThat(updated.getTitle()).isEqualTo("Updated");
+        assertThat(updated.getDescription()).isEqualTo(todo.getDescription());
+        assertThat(updated.getVersion()).isEqualTo(todo.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("updateTodo - should keep the original completedAt when completing twice")
+    void updateTodo_WhenAlreadyCompleted_ShouldKeepCompletedAt() {
+        // Arrange
+        Todo todo = todoService.createTodo(todoInput("Complete twice"));
+        Todo completed = todoService.updateTodo(todo.getId(),
+            UpdateTodoInput.builder().status(TodoStatus.COMPLETED).build(), null);
+
+        // Act
+        Todo again = todoService.updateTodo(todo.getId(),
+            UpdateTodoInput.builder().status(TodoStatus.COMPLETED).build(), null);
+
+        // Assert
+        assertThat(completed.getCompletedAt()).isNotNull();
+        assertThat(again.getCompletedAt()).isEqualTo(completed.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("updateTodo - should distinguish a stale version from a missing todo")
+    void updateTodo_WhenNoRowMatches_ShouldReportCause() {
+        // Arrange
+        Todo todo = todoService.createTodo(todoInput("Stale"));
+        UpdateTodoInput input = UpdateTodoInput.builder().title("Too late").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.updateTodo(todo.getId(), input, todo.getVersion() + 5))
+            .isInstanceOf(OptimisticConflictException.class);
+        assertThatThrownBy(() -> todoService.updateTodo(Long.MAX_VALUE, input, null))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("completeTodo - should issue one conditional UPDATE, one SELECT and the outbox INSERT")
+    void completeTodo_ShouldIssueThreeStatements() {
+        // Arrange
+        Todo todo = todoService.createTodo(todoInput("Complete"));
+        sqlStatementCounter.reset();
+
+        // Act
+        Todo completed = todoService.completeTodo(todo.getId(), user.getId(), null);
+
+        // Assert
+        assertThat(sqlStatementCounter.operations())
+            .containsExactly("update todos", "select todos", "insert outbox_events");
+        assertThat(completed.getStatus()).isEqualTo(TodoStatus.COMPLETED);
+        assertThat(completed.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("deleteTodo - should issue a single DELETE and the outbox INSERT when the owner is known")
+    void deleteTodo_WhenOwnerGiven_ShouldIssueTwoStatements() {
+        // Arrange
+        Todo todo = todoService.createTodo(todoInput("Delete"));
+        sqlStatementCounter.reset();
+
+        // Act
+        boolean deleted = todoService.deleteTodo(todo.getId(), user.getId());
+
+        // Assert
+        assertThat(deleted).isTrue();
+        assertThat(sqlStatementCounter.operations()).containsExactly("delete todos", "insert outbox_events");
+        assertThatThrownBy(() -> todoService.deleteTodo(todo.getId()))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("deleteTodo - should look up the owner first when it is neither given nor cached")
+    void deleteTodo_WhenOwnerUnknown_ShouldLookUpOwner() {
+        // Arrange
+        Todo todo = todoService.createTodo(todoInput("Delete uncached"));
+        cacheManager.getCache("todos").evict(todo.getId());
+        sqlStatementCounter.reset();
+
+        // Act
+        todoService.deleteTodo(todo.getId());
+
+        // Assert
+        assertThat(sqlStatementCounter.operations())
+            .containsExactly("select todos", "delete todos", "insert outbox_events");
+    }
+
+    private CreateTodoInput todoInput(String title) {
+        return CreateTodoInput.builder()
+            .title(title)
+            .description(title + " description")
+            .userId(user.getId())
+            .build();
+    }
+}
@@ -1,21 +1,41 @@
 package com.swiftbeard.todo_graphql.service;
 
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.NegativeLookupCache;
+import com.swiftbeard.todo_graphql.cache.OperationCacheMetrics;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.config.FastPathProperties;
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
 import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.TodoRow;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
 import com.swiftbeard.todo_graphql.dto.UpdateTodoInput;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
 import com.swiftbeard.todo_graphql.entity.Todo;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
 import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
 import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
 import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
 import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +46,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +58,40 @@ class TodoServiceTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private TodoJdbcRepository todoJdbcRepository;
+
+    @Spy
+    private FastPathProperties fastPathProperties = new FastPathProperties();
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null);
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private OptimisticLockMetrics optimisticLockMetrics;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("todos", "userTodos");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(new CachingProperties(),
+        new OperationCacheMetrics(meterRegistry), meterRegistry);
+
+    @Spy
+    private CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus(cacheManager, Optional.empty(),
+        negativeLookupCache, new CachingProperties(), meterRegistry);
+
+    @Mock
+    private ObjectProvider<TodoStatsIndex> todoStatsIndex;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -88,12 +142,13 @@ class TodoServiceTest {
         when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
 
         // Act
-        Todo result = todoService.getTodoById(1L);
+        TodoSnapshot result = todoService.getTodoById(1L);
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getTitle()).isEqualTo("Test Todo");
+        assertThat(result.id()).isEqualTo(1L);
+        assertThat(result.title()).isEqualTo("Test Todo");
+        assertThat(result.userId()).isEqualTo(1L);
         verify(todoRepository, times(1)).findById(1L);
     }
 
@@ -110,20 +165,40 @@ class TodoServiceTest {
         verify(todoRepository, times(1)).findById(999L);
     }
 
+    @Test
+    @DisplayName("getTodoById - should remember a missing todo until it is created")
+    void getTodoById_WhenMissingThenCreated_ShouldForgetNegativeEntry() {
+        // Arrange
+        when(todoRepository.findById(2L)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> todoService.getTodoById(2L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> todoService.getTodoById(2L)).isInstanceOf(ResourceNotFoundException.class);
+        Todo newTodo = Todo.builder().id(2L).title("New Todo").status(TodoStatus.PENDING).user(testUser).build();
+        when(userService.getUserReference(1L)).thenReturn(testUser);
+        when(todoRepository.save(any(Todo.class))).thenReturn(newTodo);
+        todoService.createTodo(createTodoInput);
+        when(todoRepository.findById(2L)).thenReturn(Optional.of(newTodo));
+
+        // Act
+        TodoSnapshot result = todoService.getTodoById(2L);
+
+        // Assert
+        assertThat(result.id()).isEqualTo(2L);
+        verify(todoRepository, times(2)).findById(2L);
+    }
+
     @Test
     @DisplayName("getTodosByUserId - should return todos for user")
     void getTodosByUserId_WhenUserExists_ShouldReturnTodos() {
         // Arrange
         List<Todo> todos = Arrays.asList(testTodo);
-        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(testUser));
         when(todoRepository.findByUserId(1L)).thenReturn(todos);
 
         // Act
-        List<Todo> result = todoService.getTodosByUserId(1L);
+        List<TodoSnapshot> result = todoService.getTodosByUserId(1L);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Test Todo");
+        assertThat(result).containsExactly(TodoSnapshot.of(testTodo));
         verify(userService, times(1)).getUserById(1L);
         verify(todoRepository, times(1)).findByUserId(1L);
     }
@@ -276,7 +351,7 @@ class TodoServiceTest {
             .user(testUser)
             .build();
 
-        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(userService.getUserReference(1L)).thenReturn(testUser);
         when(todoRepository.save(any(Todo.class))).thenReturn(newTodo);
 
         // Act
@@ -287,21 +362,41 @@ class TodoServiceTest {
         assertThat(result.getId()).isEqualTo(2L);
         assertThat(result.getTitle()).isEqualTo("New Todo");
         assertThat(result.getPriority()).isEqualTo(TodoPriority.HIGH);
-        verify(userService, times(1)).getUserById(1L);
+        verify(userService, times(1)).getUserReference(1L);
+        verify(userService, never()).getUserById(anyLong());
         verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(outboxService, times(1)).recordTodoEvent("TodoCreated", newTodo);
+        verify(cacheInvalidationBus, times(1)).putAfterCommit("todos", 2L, TodoSnapshot.of(newTodo));
     }
 
     @Test
     @DisplayName("createTodo - should throw exception when user not found")
     void createTodo_WhenUserNotFound_ShouldThrowException() {
         // Arrange
-        when(userService.getUserById(anyLong())).thenThrow(new ResourceNotFoundException("User not found"));
+        when(userService.getUserReference(1L)).thenReturn(testUser);
+        when(todoRepository.save(any(Todo.class))).thenThrow(new DataIntegrityViolationException("constraint",
+            new ConstraintViolationException("FK violation", new SQLException(), "FK_TODO_USER")));
 
         // Act & Assert
         assertThatThrownBy(() -> todoService.createTodo(createTodoInput))
             .isInstanceOf(ResourceNotFoundException.class)
-            .hasMessageContaining("User not found");
-        verify(todoRepository, never()).save(any(Todo.class));
+            .hasMessageContaining("User not found with id: 1");
+        verify(outboxService, never()).recordTodoEvent(anyString(), any(Todo.class));
+    }
+
+    @Test
+    @DisplayName("createTodo - should rethrow integrity violations other than the user foreign key")
+    void createTodo_WhenOtherConstraintViolated_ShouldRethrow() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("constraint",
+            new ConstraintViolationException("NULL not allowed", new SQLException("NULL not allowed for column PRIORITY"),
+                null));
+        when(userService.getUserReference(1L)).thenReturn(testUser);
+        when(todoRepository.save(any(Todo.class))).thenThrow(violation);
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.createTodo(createTodoInput)).isSameAs(violation);
+        verify(outboxService, never()).recordTodoEvent(anyString(), any(Todo.class));
     }
 
     @Test
@@ -319,7 +414,7 @@ class TodoServiceTest {
             .user(testUser)
             .build();
 
-        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(userService.getUserReference(1L)).thenReturn(testUser);
         when(todoRepository.save(any(Todo.class))).thenReturn(savedTodo);
 
         // Act
@@ -330,105 +425,269 @@ class TodoServiceTest {
     }
 
     @Test
-    @DisplayName("updateTodo - should update todo successfully")
+    @DisplayName("updateTodo - should update todo with a single conditional statement")
     void updateTodo_WhenValidInput_ShouldUpdateTodo() {
         // Arrange
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+        Todo updatedTodo = Todo.builder()
+            .id(1L)
+            .title("Updated Todo")
+            .description("Updated Description")
+            .status(TodoStatus.PENDING)
+            .priority(TodoPriority.MEDIUM)
+            .user(testUser)
+            .build();
+        when(todoRepository.updateFields(eq(1L), eq(1L), isNull(), eq("Updated Todo"), eq("Updated Description"),
+            isNull(), isNull(), isNull(), isNull(), any(LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(updatedTodo));
 
         // Act
-        Todo result = todoService.updateTodo(1L, updateTodoInput);
+        Todo result = todoService.updateTodo(1L, 1L, updateTodoInput, null);
 
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getTitle()).isEqualTo("Updated Todo");
         assertThat(result.getDescription()).isEqualTo("Updated Description");
-        verify(todoRepository, times(1)).findById(1L);
-        verify(todoRepository, times(1)).save(testTodo);
+        verify(todoRepository, never()).save(any(Todo.class));
+        verify(todoRepository, never()).findUserIdById(anyLong());
+        verify(outboxService, times(1)).recordTodoEvent("TodoUpdated", updatedTodo);
+        verify(cacheInvalidationBus, times(1)).putAfterCommit("todos", 1L, TodoSnapshot.of(updatedTodo));
     }
 
     @Test
-    @DisplayName("updateTodo - should set completedAt when status changes to COMPLETED")
+    @DisplayName("updateTodo - should pass completedAt when status changes to COMPLETED")
     void updateTodo_WhenStatusChangedToCompleted_ShouldSetCompletedAt() {
         // Arrange
         UpdateTodoInput inputWithStatus = UpdateTodoInput.builder()
             .status(TodoStatus.COMPLETED)
             .build();
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(todoRepository.updateFields(eq(1L), eq(1L), isNull(), isNull(), isNull(), eq(TodoStatus.COMPLETED),
+            isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
 
         // Act
-        Todo result = todoService.updateTodo(1L, inputWithStatus);
+        todoService.updateTodo(1L, 1L, inputWithStatus, null);
 
         // Assert
-        assertThat(result.getStatus()).isEqualTo(TodoStatus.COMPLETED);
-        assertThat(result.getCompletedAt()).isNotNull();
-        verify(todoRepository, times(1)).save(testTodo);
+        verify(todoRepository, times(1)).updateFields(eq(1L), eq(1L), isNull(), isNull(), isNull(),
+            eq(TodoStatus.COMPLETED), isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
-    @DisplayName("updateTodo - should not update completedAt if already set")
-    void updateTodo_WhenCompletedAtAlreadySet_ShouldNotUpdateCompletedAt() {
+    @DisplayName("updateTodo - should throw ResourceNotFoundException when no row matches and todo is gone")
+    void updateTodo_WhenTodoNotFound_ShouldThrowException() {
         // Arrange
-        LocalDateTime originalCompletedAt = LocalDateTime.now().minusDays(1);
-        testTodo.setStatus(TodoStatus.COMPLETED);
-        testTodo.setCompletedAt(originalCompletedAt);
-        UpdateTodoInput inputWithStatus = UpdateTodoInput.builder()
-            .status(TodoStatus.COMPLETED)
-            .build();
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(todoRepository.updateFields(eq(999L), eq(1L), any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.updateTodo(999L, 1L, updateTodoInput, null))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Todo not found with id: 999");
+        verify(optimisticLockMetrics, never()).recordConflict(anyString());
+    }
+
+    @Test
+    @DisplayName("updateTodo - should throw ResourceNotFoundException when no owner is given and the todo is gone")
+    void updateTodo_WhenOwnerUnknownAndTodoNotFound_ShouldThrowException() {
+        // Arrange
+        when(todoRepository.findUserIdById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.updateTodo(999L, updateTodoInput, null))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Todo not found with id: 999");
+        verify(todoRepository, never()).updateFields(anyLong(), anyLong(), any(), any(), any(), any(), any(), any(),
+            any(), any());
+    }
+
+    @Test
+    @DisplayName("updateTodo - should accept matching expected version")
+    void updateTodo_WhenExpectedVersionMatches_ShouldUpdateTodo() {
+        // Arrange
+        when(todoRepository.updateFields(eq(1L), eq(1L), eq(3L), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
 
         // Act
-        Todo result = todoService.updateTodo(1L, inputWithStatus);
+        Todo result = todoService.updateTodo(1L, 1L, updateTodoInput, 3L);
 
         // Assert
-        assertThat(result.getCompletedAt()).isEqualTo(originalCompletedAt);
+        assertThat(result).isSameAs(testTodo);
+        verify(optimisticLockMetrics, times(1)).recordUpdate("Todo");
+        verify(optimisticLockMetrics, never()).recordConflict(anyString());
+    }
+
+    @Test
+    @DisplayName("updateTodo - should throw OptimisticConflictException on stale expected version")
+    void updateTodo_WhenExpectedVersionIsStale_ShouldThrowConflict() {
+        // Arrange
+        when(todoRepository.updateFields(eq(1L), eq(1L), eq(3L), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(4L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.updateTodo(1L, 1L, updateTodoInput, 3L))
+            .isInstanceOf(OptimisticConflictException.class)
+            .hasMessageContaining("expected version 3, actual version 4");
+        verify(todoRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(optimisticLockMetrics, times(1)).recordConflict("Todo");
+    }
+
+    @Test
+    @DisplayName("completeTodo - should throw OptimisticConflictException on stale expected version")
+    void completeTodo_WhenExpectedVersionIsStale_ShouldThrowConflict() {
+        // Arrange
+        when(todoRepository.markCompleted(eq(1L), eq(1L), eq(1L), eq(TodoStatus.COMPLETED), any(LocalDateTime.class)))
+            .thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(2L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.completeTodo(1L, 1L, 1L))
+            .isInstanceOf(OptimisticConflictException.class);
+        verify(todoRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(outboxService, never()).recordTodoEvent(anyString(), any(Todo.class));
     }
 
     @Test
-    @DisplayName("deleteTodo - should delete todo successfully")
+    @DisplayName("deleteTodo - should look up the owner and delete with a single statement")
     void deleteTodo_WhenTodoExists_ShouldDeleteTodo() {
         // Arrange
-        when(todoRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(todoRepository).deleteById(1L);
+        when(todoRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
+        when(todoRepository.deleteTodoById(1L, 1L)).thenReturn(1);
 
         // Act
         boolean result = todoService.deleteTodo(1L);
 
         // Assert
         assertThat(result).isTrue();
-        verify(todoRepository, times(1)).existsById(1L);
-        verify(todoRepository, times(1)).deleteById(1L);
+        verify(todoRepository, times(1)).deleteTodoById(1L, 1L);
+        verify(todoRepository, never()).existsById(anyLong());
+        verify(todoRepository, never()).deleteById(anyLong());
+        verify(outboxService, times(1)).recordDeletion(OutboxService.TODO_AGGREGATE, 1L);
     }
 
     @Test
     @DisplayName("deleteTodo - should throw ResourceNotFoundException when todo not found")
     void deleteTodo_WhenTodoNotFound_ShouldThrowException() {
         // Arrange
-        when(todoRepository.existsById(anyLong())).thenReturn(false);
+        when(todoRepository.findUserIdById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> todoService.deleteTodo(999L))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("Todo not found with id: 999");
-        verify(todoRepository, never()).deleteById(anyLong());
+        verify(outboxService, never()).recordDeletion(anyString(), anyLong());
+        verify(todoRepository, never()).deleteTodoById(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("deleteTodo - should use the caller's owner id without looking it up")
+    void deleteTodo_WhenOwnerGiven_ShouldNotLookUpOwner() {
+        // Arrange
+        when(todoRepository.deleteTodoById(1L, 1L)).thenReturn(1);
+
+        // Act
+        boolean result = todoService.deleteTodo(1L, 1L);
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(todoRepository, never()).findUserIdById(anyLong());
+    }
+
+    @Test
+    @DisplayName("deleteTodo - should throw ResourceNotFoundException when the todo belongs to another user")
+    void deleteTodo_WhenOwnerDoesNotMatch_ShouldThrowException() {
+        // Arrange
+        when(todoRepository.deleteTodoById(1L, 2L)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoService.deleteTodo(1L, 2L))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Todo not found with id: 1 for user id: 2");
+        verify(outboxService, never()).recordDeletion(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("updateTodo - should evict only the owner's cached todo list")
+    void updateTodo_ShouldEvictOnlyOwnerUserTodos() {
+        // Arrange
+        cacheManager.getCache("userTodos").put(1L, List.of(testTodo));
+        cacheManager.getCache("userTodos").put(2L, List.of());
+        when(todoRepository.updateFields(eq(1L), eq(1L), isNull(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
+
+        // Act
+        todoService.updateTodo(1L, 1L, updateTodoInput, null);
+
+        // Assert
+        assertThat(cacheManager.getCache("userTodos").get(1L)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(2L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("completeTodo - should evict the owner's cached todo list")
+    void completeTodo_ShouldEvictOwnerUserTodos() {
+        // Arrange
+        cacheManager.getCache("userTodos").put(1L, List.of(testTodo));
+        cacheManager.getCache("userTodos").put(2L, List.of());
+        when(todoRepository.markCompleted(eq(1L), eq(1L), isNull(), eq(TodoStatus.COMPLETED), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
+
+        // Act
+        todoService.completeTodo(1L, 1L, null);
+
+        // Assert
+        assertThat(cacheManager.getCache("userTodos").get(1L)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(2L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("deleteTodo - should take the owner from the cached todo and evict only the owner's entries")
+    void deleteTodo_ShouldEvictOnlyOwnerEntries() {
+        // Arrange
+        cacheManager.getCache("todos").put(1L, TodoSnapshot.of(testTodo));
+        cacheManager.getCache("todos").put(2L, TodoSnapshot.of(testTodo));
+        cacheManager.getCache("userTodos").put(1L, List.of(testTodo));
+        cacheManager.getCache("userTodos").put(2L, List.of());
+        when(todoRepository.deleteTodoById(1L, 1L)).thenReturn(1);
+
+        // Act
+        todoService.deleteTodo(1L);
+
+        // Assert
+        verify(todoRepository, never()).findUserIdById(anyLong());
+        assertThat(cacheManager.getCache("todos").get(1L)).isNull();
+        assertThat(cacheManager.getCache("todos").get(2L)).isNotNull();
+        assertThat(cacheManager.getCache("userTodos").get(1L)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(2L)).isNotNull();
     }
 
     @Test
     @DisplayName("completeTodo - should complete todo successfully")
     void completeTodo_WhenTodoExists_ShouldCompleteTodo() {
         // Arrange
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Todo completedTodo = Todo.builder()
+            .id(1L)
+            .title("Test Todo")
+            .status(TodoStatus.COMPLETED)
+            .priority(TodoPriority.MEDIUM)
+            .user(testUser)
+            .completedAt(LocalDateTime.now())
+            .build();
+        when(todoRepository.markCompleted(eq(1L), eq(1L), isNull(), eq(TodoStatus.COMPLETED), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(completedTodo));
 
         // Act
-        Todo result = todoService.completeTodo(1L);
+        Todo result = todoService.completeTodo(1L, 1L, null);
 
         // Assert
         assertThat(result.getStatus()).isEqualTo(TodoStatus.COMPLETED);
         assertThat(result.getCompletedAt()).isNotNull();
-        verify(todoRepository, times(1)).save(testTodo);
+        verify(todoRepository, never()).save(any(Todo.class));
     }
 
     @Test
@@ -450,14 +709,14 @@ class TodoServiceTest {
         when(todoRepository.findByUserIdIn(userIds)).thenReturn(todos);
 
         // Act
-        Map<Long, List<Todo>> result = todoService.getTodosByUserIds(userIds);
+        Map<Long, List<TodoSnapshot>> result = todoService.getTodosByUserIds(userIds);
 
         // Assert
         assertThat(result).hasSize(2);
         assertThat(result.get(1L)).hasSize(1);
         assertThat(result.get(2L)).hasSize(1);
-        assertThat(result.get(1L).get(0).getTitle()).isEqualTo("Test Todo");
-        assertThat(result.get(2L).get(0).getTitle()).isEqualTo("Todo 2");
+        assertThat(result.get(1L).get(0).title()).isEqualTo("Test Todo");
+        assertThat(result.get(2L).get(0).title()).isEqualTo("Todo 2");
         verify(todoRepository, times(1)).findByUserIdIn(userIds);
     }
 
@@ -474,4 +733,61 @@ class TodoServiceTest {
         assertThat(result).isEqualTo(5L);
         verify(todoRepository, times(1)).countByUserIdAndStatus(1L, TodoStatus.PENDING);
     }
+
+    @Test
+    @DisplayName("getTodosByUserId - should use the JDBC fast path when enabled")
+    void getTodosByUserId_WithFastPath_ShouldUseJdbcRepository() {
+        // Arrange
+        fastPathProperties.setFindByUserId(true);
+        when(userService.getUserById(1L)).thenReturn(UserSnapshot.of(testUser));
+        when(todoJdbcRepository.findByUserId(1L)).thenReturn(List.of(todoRow(1L, 1L)));
+
+        // Act
+        List<TodoSnapshot> result = todoService.getTodosByUserId(1L);
+
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).id()).isEqualTo(1L);
+        assertThat(result.get(0).userId()).isEqualTo(1L);
+        verify(todoRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("getTodosByUserIds - should group fast path rows by user id")
+    void getTodosByUserIds_WithFastPath_ShouldGroupRows() {
+        // Arrange
+        fastPathProperties.setFindByUserIdIn(true);
+        List<Long> userIds = Arrays.asList(1L, 2L);
+        when(todoJdbcRepository.findByUserIdIn(userIds))
+            .thenReturn(List.of(todoRow(1L, 1L), todoRow(2L, 2L), todoRow(3L, 2L)));
+
+        // Act
+        Map<Long, List<TodoSnapshot>> result = todoService.getTodosByUserIds(userIds);
+
+        // Assert
+        assertThat(result.get(1L)).hasSize(1);
+        assertThat(result.get(2L)).hasSize(2);
+        verify(todoRepository, never()).findByUserIdIn(any());
+    }
+
+    @Test
+    @DisplayName("countTodosByUserIdAndStatus - should use the JDBC fast path when enabled")
+    void countTodosByUserIdAndStatus_WithFastPath_ShouldUseJdbcRepository() {
+        // Arrange
+        fastPathProperties.setCountByUserIdAndStatus(true);
+        when(todoJdbcRepository.countByUserIdAndStatus(1L, TodoStatus.PENDING)).thenReturn(4L);
+
+        // Act
+        Long result = todoService.countTodosByUserIdAndStatus(1L, TodoStatus.PENDING);
+
+        // Assert
+        assertThat(result).isEqualTo(4L);
+        verify(todoRepository, never()).countByUserIdAndStatus(anyLong(), any());
+    }
+
+    private TodoRow todoRow(Long id, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoRow(id, "Todo " + id, null, TodoStatus.PENDING, TodoPriority.MEDIUM,
+            null, null, userId, now, now, 0L);
+    }
 }
@@ -0,0 +1,281 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationTransport;
+import com.swiftbeard.todo_graphql.cache.InProcessCacheInvalidationTransport;
+import com.swiftbeard.todo_graphql.cache.NegativeLookupCache;
+import com.swiftbeard.todo_graphql.cache.OperationCacheMetrics;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
+import com.swiftbeard.todo_graphql.config.StatsIndexProperties;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoPriority;
+import com.swiftbeard.todo_graphql.entity.Todo.TodoStatus;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository.StatsGroupHandler;
+import com.swiftbeard.todo_graphql.repository.TodoJdbcRepository.StatsRowHandler;
+import com.swiftbeard.todo_graphql.service.TodoStatsIndex.TodoCounts;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoStatsIndex Unit Tests")
+class TodoStatsIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Mock
+    private TodoJdbcRepository todoJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Row> rows = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StatsIndexProperties properties;
+    private TodoStatsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        rows.add(new Row(1L, 1L, TodoStatus.PENDING, TodoPriority.HIGH, NOW.minusDays(1)));
+        rows.add(new Row(2L, 1L, TodoStatus.COMPLETED, TodoPriority.LOW, NOW.minusDays(2)));
+        rows.add(new Row(3L, 1L, TodoStatus.IN_PROGRESS, TodoPriority.HIGH, NOW.plusDays(1)));
+        rows.add(new Row(4L, 2L, TodoStatus.CANCELLED, TodoPriority.MEDIUM, null));
+
+        lenient().doAnswer(invocation -> {
+            StatsRowHandler handler = invocation.getArgument(0);
+            rows.forEach(row -> handler.accept(row.id(), row.userId(), row.status(), row.priority(), row.dueDate()));
+            return null;
+        }).when(todoJdbcRepository).forEachStatsRow(any(StatsRowHandler.class));
+        lenient().doAnswer(invocation -> {
+            long userId = invocation.getArgument(0);
+            StatsRowHandler handler = invocation.getArgument(1);
+            rows.stream()
+                .filter(row -> row.userId() == userId)
+                .forEach(row -> handler.accept(row.id(), row.userId(), row.status(), row.priority(), row.dueDate()));
+            return null;
+        }).when(todoJdbcRepository).forEachStatsRow(anyLong(), any(StatsRowHandler.class));
+        lenient().doAnswer(invocation -> {
+            StatsGroupHandler handler = invocation.getArgument(0);
+            Map<Group, Integer> groups = new LinkedHashMap<>();
+            rows.stream()
+                .sorted(Comparator.comparingLong(Row::userId))
+                .forEach(row -> groups.merge(new Group(row.userId(), row.status(), row.priority()), 1, Integer::sum));
+            groups.forEach((group, count) -> handler.accept(group.userId(), group.status(), group.priority(), count));
+            return null;
+        }).when(todoJdbcRepository).forEachStatsGroup(any(StatsGroupHandler.class));
+
+        properties = new StatsIndexProperties();
+        index = index(Optional.of(new InProcessCacheInvalidationTransport()));
+    }
+
+    private TodoStatsIndex index(Optional<CacheInvalidationTransport> transport) {
+        NegativeLookupCache negativeLookupCache = new NegativeLookupCache(new CachingProperties(),
+            new OperationCacheMetrics(meterRegistry), meterRegistry);
+        CacheInvalidationBus bus = new CacheInvalidationBus(new ConcurrentMapCacheManager("userTodos"),
+            transport, negativeLookupCache, new CachingProperties(), meterRegistry);
+        return new TodoStatsIndex(todoJdbcRepository, new ShardRouter(new ShardingProperties(), null), properties,
+            transactionManager, bus, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("counts - should count by status, priority and overdue after the startup build")
+    void counts_AfterBuild_ShouldMatchRows() {
+        // Arrange
+        index.rebuild();
+
+        // Act
+        TodoCounts counts = index.counts(1L, NOW).orElseThrow();
+        TodoCounts unknown = index.counts(99L, NOW).orElseThrow();
+
+        // Assert
+        assertThat(counts.total()).isEqualTo(3);
+        assertThat(counts.withStatus(TodoStatus.PENDING)).isEqualTo(1);
+        assertThat(counts.withStatus(TodoStatus.COMPLETED)).isEqualTo(1);
+        assertThat(counts.withStatus(TodoStatus.IN_PROGRESS)).isEqualTo(1);
+        assertThat(counts.withPriority(TodoPriority.HIGH)).isEqualTo(2);
+        assertThat(counts.overdue()).isEqualTo(1);
+        assertThat(unknown.total()).isZero();
+        verify(todoJdbcRepository, never()).forEachStatsRow(anyLong(), any(StatsRowHandler.class));
+    }
+
+    @Test
+    @DisplayName("counts - should read a user without an entry from the database when other nodes' writes cannot arrive")
+    void counts_WhenNoTransport_ShouldLoadUnknownUser() {
+        // Arrange
+        TodoStatsIndex singleNode = index(Optional.empty());
+        singleNode.rebuild();
+        rows.add(new Row(8L, 99L, TodoStatus.PENDING, TodoPriority.LOW, null));
+
+        // Act
+        TodoCounts counts = singleNode.counts(99L, NOW).orElseThrow();
+
+        // Assert
+        assertThat(counts.total()).isEqualTo(1);
+        verify(todoJdbcRepository).forEachStatsRow(eq(99L), any(StatsRowHandler.class));
+    }
+
+    @Test
+    @DisplayName("recordAfterCommit - should not trust a new entry built from local writes when other nodes' writes cannot arrive")
+    void recordAfterCommit_WhenNoTransport_ShouldLoadNewUserOnRead() {
+        // Arrange
+        TodoStatsIndex singleNode = index(Optional.empty());
+        singleNode.rebuild();
+        rows.add(new Row(8L, 99L, TodoStatus.PENDING, TodoPriority.LOW, null));
+        rows.add(new Row(9L, 99L, TodoStatus.COMPLETED, TodoPriority.HIGH, null));
+
+        // Act
+        singleNode.recordAfterCommit(snapshot(9L, 99L, TodoStatus.COMPLETED, TodoPriority.HIGH, null));
+        TodoCounts counts = singleNode.counts(99L, NOW).orElseThrow();
+
+        // Assert
+        assertThat(counts.total()).isEqualTo(2);
+        assertThat(counts.withStatus(TodoStatus.PENDING)).isEqualTo(1);
+        verify(todoJdbcRepository).forEachStatsRow(eq(99L), any(StatsRowHandler.class));
+    }
+
+    @Test
+    @DisplayName("counts - should move todos into overdue as the clock passes their due date")
+    void counts_WhenClockAdvances_ShouldCountNewlyOverdue() {
+        // Arrange
+        index.rebuild();
+
+        // Act
+        int overdueNow = index.counts(1L, NOW).orElseThrow().overdue();
+        int overdueLater = index.counts(1L, NOW.plusDays(2)).orElseThrow().overdue();
+
+        // Assert
+        assertThat(overdueNow).isEqualTo(1);
+        assertThat(overdueLater).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("recordAfterCommit/removeAfterCommit - should follow writes without reading the database")
+    void writes_ShouldUpdateCountsInPlace() {
+        // Arrange
+        index.rebuild();
+
+        // Act
+        index.recordAfterCommit(snapshot(1L, 1L, TodoStatus.COMPLETED, TodoPriority.HIGH, NOW.minusDays(1)));
+        index.recordAfterCommit(snapshot(5L, 1L, TodoStatus.PENDING, TodoPriority.LOW, NOW.minusHours(1)));
+        index.removeAfterCommit(3L, 1L);
+        index.recordAfterCommit(snapshot(6L, 3L, TodoStatus.PENDING, TodoPriority.MEDIUM, null));
+        TodoCounts counts = index.counts(1L, NOW).orElseThrow();
+
+        // Assert
+        assertThat(counts.total()).isEqualTo(3);
+        assertThat(counts.withStatus(TodoStatus.COMPLETED)).isEqualTo(2);
+        assertThat(counts.withStatus(TodoStatus.PENDING)).isEqualTo(1);
+        assertThat(counts.withStatus(TodoStatus.IN_PROGRESS)).isZero();
+        assertThat(counts.withPriority(TodoPriority.LOW)).isEqualTo(2);
+        assertThat(counts.overdue()).isEqualTo(1);
+        assertThat(index.counts(3L, NOW).orElseThrow().total()).isEqualTo(1);
+        verify(todoJdbcRepository, never()).forEachStatsRow(anyLong(), any(StatsRowHandler.class));
+    }
+
+    @Test
+    @DisplayName("invalidateAfterCommit - should reload the user from the database on the next read")
+    void invalidateAfterCommit_ShouldReloadUser() {
+        // Arrange
+        index.rebuild();
+        rows.removeIf(row -> row.id() == 2L);
+
+        // Act
+        index.invalidateAfterCommit(List.of(1L));
+        TodoCounts reloaded = index.counts(1L, NOW).orElseThrow();
+        TodoCounts cached = index.counts(1L, NOW).orElseThrow();
+
+        // Assert
+        assertThat(reloaded.total()).isEqualTo(2);
+        assertThat(reloaded.withStatus(TodoStatus.COMPLETED)).isZero();
+        assertThat(cached.total()).isEqualTo(2);
+        verify(todoJdbcRepository, times(1)).forEachStatsRow(eq(1L), any(StatsRowHandler.class));
+        assertThat(meterRegistry.get("todo.stats.index.loads").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("reconcile - should mark drifted users stale and drop users without todos on their next read")
+    void reconcile_ShouldCorrectDrift() {
+        // Arrange
+        index.rebuild();
+        rows.add(new Row(7L, 1L, TodoStatus.PENDING, TodoPriority.LOW, null));
+        rows.removeIf(row -> row.userId() == 2L);
+        rows.add(new Row(9L, 4L, TodoStatus.PENDING, null, null));
+
+        // Act
+        index.reconcile();
+
+        // Assert
+        assertThat(index.counts(1L, NOW).orElseThrow().total()).isEqualTo(4);
+        assertThat(index.counts(2L, NOW).orElseThrow().total()).isZero();
+        assertThat(index.counts(4L, NOW).orElseThrow().total()).isEqualTo(1);
+        assertThat(meterRegistry.get("todo.stats.index.drift").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("todo.stats.index.users").gauge().value()).isEqualTo(2.0);
+        verify(todoJdbcRepository, times(1)).forEachStatsRow(any(StatsRowHandler.class));
+    }
+
+    @Test
+    @DisplayName("reconcile - should leave users that agree with the database alone")
+    void reconcile_WhenInStep_ShouldNotReload() {
+        // Arrange
+        index.rebuild();
+        index.recordAfterCommit(snapshot(5L, 1L, TodoStatus.PENDING, TodoPriority.LOW, null));
+        rows.add(new Row(5L, 1L, TodoStatus.PENDING, TodoPriority.LOW, null));
+
+        // Act
+        index.reconcile();
+        TodoCounts counts = index.counts(1L, NOW).orElseThrow();
+
+        // Assert
+        assertThat(counts.total()).isEqualTo(4);
+        assertThat(meterRegistry.get("todo.stats.index.drift").counter().count()).isZero();
+        verify(todoJdbcRepository, never()).forEachStatsRow(anyLong(), any(StatsRowHandler.class));
+    }
+
+    @Test
+    @DisplayName("counts - should be empty when the index is disabled")
+    void counts_WhenDisabled_ShouldBeEmpty() {
+        // Arrange
+        properties.setEnabled(false);
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertThat(index.counts(1L, NOW)).isEmpty();
+        verifyNoInteractions(todoJdbcRepository);
+    }
+
+    private static TodoSnapshot snapshot(Long id, Long userId, TodoStatus status, TodoPriority priority,
+                                         LocalDateTime dueDate) {
+        return new TodoSnapshot(id, "Todo " + id, null, status, priority, dueDate, null, userId, NOW, NOW, 0L);
+    }
+
+    private record Row(long id, long userId, TodoStatus status, TodoPriority priority, LocalDateTime dueDate) {
+    }
+
+    private record Group(long userId, TodoStatus status, TodoPriority priority) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.swiftbeard.todo_graphql.service;
+
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.NegativeLookupCache;
+import com.swiftbeard.todo_graphql.cache.OperationCacheMetrics;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
+import com.swiftbeard.todo_graphql.config.UserDeletionProperties;
+import com.swiftbeard.todo_graphql.repository.ArchivedTodoRepository;
+import com.swiftbeard.todo_graphql.repository.TodoRepository;
+import com.swiftbeard.todo_graphql.repository.UserRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDeletionService Unit Tests")
+class UserDeletionServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ArchivedTodoRepository archivedTodoRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<TodoStatsIndex> todoStatsIndex;
+
+    private UserDeletionProperties properties;
+    private CacheManager cacheManager;
+    private UserDeletionService userDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserDeletionProperties();
+        properties.setChunkPause(Duration.ZERO);
+        cacheManager = new ConcurrentMapCacheManager("users", "todos", "userTodos");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        NegativeLookupCache negativeLookupCache = new NegativeLookupCache(new CachingProperties(),
+            new OperationCacheMetrics(registry), registry);
+        userDeletionService = new UserDeletionService(todoRepository, userRepository, archivedTodoRepository,
+            outboxService, properties, transactionTemplate,
+            new CacheInvalidationBus(cacheManager, Optional.empty(), negativeLookupCache, new CachingProperties(), registry),
+            new ShardRouter(new ShardingProperties(), null), todoStatsIndex);
+    }
+
+    @Test
+    @DisplayName("deleteNow - should delete todos by pages of ids, then archive and user with set-based statements")
+    void deleteNow_ShouldUseSetBasedDeletes() {
+        // Arrange
+        properties.setChunkSize(2);
+        when(todoRepository.findIdsByUserId(eq(1L), any(Pageable.class)))
+            .thenReturn(List.of(10L, 11L), List.of(12L));
+
+        // Act
+        userDeletionService.deleteNow(1L);
+
+        // Assert
+        InOrder inOrder = inOrder(todoRepository, archivedTodoRepository, userRepository, outboxService);
+        inOrder.verify(todoRepository).deleteByIdIn(List.of(10L, 11L));
+        inOrder.verify(todoRepository).deleteByIdIn(List.of(12L));
+        inOrder.verify(todoRepository).deleteByUserId(1L);
+        inOrder.verify(archivedTodoRepository).deleteByUserId(1L);
+        inOrder.verify(userRepository).deleteUserById(1L);
+        inOrder.verify(outboxService).recordDeletion(OutboxService.USER_AGGREGATE, 1L);
+        verify(todoRepository, never()).deleteById(any());
+        verify(userRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("deleteNow - should evict the deleted user's entries and todos by key")
+    void deleteNow_ShouldEvictTargetedCacheEntries() {
+        // Arrange
+        when(todoRepository.findIdsByUserId(eq(1L), any(Pageable.class))).thenReturn(List.of(10L));
+        cacheManager.getCache("users").put(1L, "user 1");
+        cacheManager.getCache("users").put(2L, "user 2");
+        cacheManager.getCache("userTodos").put(1L, "todos of 1");
+        cacheManager.getCache("userTodos").put(2L, "todos of 2");
+        cacheManager.getCache("todos").put(10L, "todo 10 of 1");
+        cacheManager.getCache("todos").put(20L, "todo 20 of 2");
+
+        // Act
+        userDeletionService.deleteNow(1L);
+
+        // Assert
+        assertThat(cacheManager.getCache("users").get(1L)).isNull();
+        assertThat(cacheManager.getCache("userTodos").get(1L)).isNull();
+        assertThat(cacheManager.getCache("todos").get(10L)).isNull();
+        assertThat(cacheManager.getCache("users").get(2L)).isNotNull();
+        assertThat(cacheManager.getCache("userTodos").get(2L)).isNotNull();
+        assertThat(cacheManager.getCache("todos").get(20L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("shouldDeleteInBackground - should only apply to large accounts when enabled")
+    void shouldDeleteInBackground_ShouldRespectThreshold() {
+        // Arrange
+        properties.setAsyncThreshold(100);
+
+        // Act & Assert
+        assertThat(userDeletionService.shouldDeleteInBackground(1L)).isFalse();
+
+        properties.setAsyncEnabled(true);
+        when(todoRepository.countByUserId(1L)).thenReturn(99L, 100L);
+        assertThat(userDeletionService.shouldDeleteInBackground(1L)).isFalse();
+        assertThat(userDeletionService.shouldDeleteInBackground(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("deleteInChunks - should delete todos chunk by chunk before deleting the user")
+    void deleteInChunks_ShouldDeleteInChunks() {
+        // Arrange
+        properties.setChunkSize(2);
+        runTransactionsInline();
+        when(userRepository.claimDeletion(eq(1L), any(), any(), any())).thenReturn(1);
+        when(todoRepository.findIdsByUserId(eq(1L), any(Pageable.class)))
+            .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L), List.of());
+        cacheManager.getCache("todos").put(1L, "todo 1");
+
+        // Act
+        userDeletionService.deleteInChunks(1L);
+
+        // Assert
+        verify(todoRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(todoRepository).deleteByIdIn(List.of(3L, 4L));
+        verify(todoRepository).deleteByIdIn(List.of(5L));
+        verify(userRepository).deleteUserById(1L);
+        verify(outboxService).recordDeletion(OutboxService.USER_AGGREGATE, 1L);
+        assertThat(cacheManager.getCache("todos").get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("scheduleDeletion - should record the pending deletion on the user row")
+    void scheduleDeletion_ShouldPersistPendingDeletion() {
+        // Arrange
+        runTransactionsInline();
+        when(userRepository.claimDeletion(eq(1L), any(), any(), any())).thenReturn(1);
+        when(todoRepository.findIdsByUserId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        userDeletionService.scheduleDeletion(1L);
+
+        // Assert
+        verify(userRepository).markForDeletion(eq(1L), any(String.class), any(LocalDateTime.class));
+        verify(userRepository, timeout(1000)).deleteUserById(1L);
+    }
+
+    @Test
+    @DisplayName("run - should resume deletions recorded before a restart")
+    void run_ShouldResumePendingDeletions() {
+        // Arrange
+        runTransactionsInline();
+        when(userRepository.findIdsPendingDeletion()).thenReturn(List.of(1L, 2L));
+        when(userRepository.claimDeletion(any(), any(), any(), any())).thenReturn(1);
+        when(todoRepository.findIdsByUserId(any(), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        userDeletionService.run(new DefaultApplicationArguments());
+
+        // Assert
+        verify(userRepository, timeout(1000)).deleteUserById(1L);
+        verify(userRepository, timeout(1000)).deleteUserById(2L);
+        verify(outboxService, timeout(1000)).recordDeletion(OutboxService.USER_AGGREGATE, 2L);
+    }
+
+    @Test
+    @DisplayName("run - should leave deletions claimed by another live node alone")
+    void run_ShouldSkipDeletionsClaimedElsewhere() {
+        // Arrange
+        runTransactionsInline();
+        when(userRepository.findIdsPendingDeletion()).thenReturn(List.of(1L, 2L));
+        when(userRepository.claimDeletion(eq(1L), any(), any(), any())).thenReturn(0);
+        when(userRepository.claimDeletion(eq(2L), any(), any(), any())).thenReturn(1);
+        when(todoRepository.findIdsByUserId(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        userDeletionService.run(new DefaultApplicationArguments());
+
+        // Assert
+        verify(userRepository, timeout(1000)).deleteUserById(2L);
+        verify(userRepository, never()).deleteUserById(1L);
+        verify(todoRepository, never()).findIdsByUserId(eq(1L), any(Pageable.class));
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
@@ -1,19 +1,35 @@
 package com.swiftbeard.todo_graphql.service;
 
+import com.swiftbeard.todo_graphql.cache.CacheInvalidationBus;
+import com.swiftbeard.todo_graphql.cache.NegativeLookupCache;
+import com.swiftbeard.todo_graphql.cache.OperationCacheMetrics;
+import com.swiftbeard.todo_graphql.cache.UserAliasIndex;
+import com.swiftbeard.todo_graphql.config.CachingProperties;
+import com.swiftbeard.todo_graphql.config.ShardingProperties;
 import com.swiftbeard.todo_graphql.dto.CreateUserInput;
 import com.swiftbeard.todo_graphql.dto.UpdateUserInput;
+import com.swiftbeard.todo_graphql.dto.UserSnapshot;
 import com.swiftbeard.todo_graphql.entity.User;
 import com.swiftbeard.todo_graphql.exception.DuplicateResourceException;
+import com.swiftbeard.todo_graphql.exception.OptimisticConflictException;
 import com.swiftbeard.todo_graphql.exception.ResourceNotFoundException;
 import com.swiftbeard.todo_graphql.repository.UserRepository;
+import com.swiftbeard.todo_graphql.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +48,33 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OptimisticLockMetrics optimisticLockMetrics;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), null);
+
+    @Mock
+    private UserDeletionService userDeletionService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(new CachingProperties(),
+        new OperationCacheMetrics(meterRegistry), meterRegistry);
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("users", "userIdsByEmail",
+        "userIdsByUsername");
+
+    @Spy
+    private UserAliasIndex userAliasIndex = new UserAliasIndex(cacheManager);
+
     @InjectMocks
     private UserService userService;
 
@@ -70,13 +113,13 @@ class UserServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         // Act
-        User result = userService.getUserById(1L);
+        UserSnapshot result = userService.getUserById(1L);
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getUsername()).isEqualTo("testuser");
-        assertThat(result.getEmail()).isEqualTo("test@example.com");
+        assertThat(result.id()).isEqualTo(1L);
+        assertThat(result.username()).isEqualTo("testuser");
+        assertThat(result.email()).isEqualTo("test@example.com");
         verify(userRepository, times(1)).findById(1L);
     }
 
@@ -100,11 +143,11 @@ class UserServiceTest {
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
         // Act
-        User result = userService.getUserByEmail("test@example.com");
+        UserSnapshot result = userService.getUserByEmail("test@example.com");
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.getEmail()).isEqualTo("test@example.com");
+        assertThat(result.email()).isEqualTo("test@example.com");
         verify(userRepository, times(1)).findByEmail("test@example.com");
     }
 
@@ -120,6 +163,23 @@ class UserServiceTest {
             .hasMessageContaining("User not found with email: notfound@example.com");
     }
 
+    @Test
+    @DisplayName("getUserByEmail - should answer a repeated miss without querying again")
+    void getUserByEmail_WhenMissRepeated_ShouldUseNegativeCache() {
+        // Arrange
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> userService.getUserByEmail("notfound@example.com"))
+            .isInstanceOf(ResourceNotFoundException.class);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUserByEmail("notfound@example.com"))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("User not found with email: notfound@example.com");
+        verify(userRepository, times(1)).findByEmail("notfound@example.com");
+        assertThat(meterRegistry.counter("todo.cache.negative.hits", "lookup", "usersByEmail").count())
+            .isEqualTo(1);
+    }
+
     @Test
     @DisplayName("getUserByUsername - should return user when found")
     void getUserByUsername_WhenUserExists_ShouldReturnUser() {
@@ -127,14 +187,46 @@ class UserServiceTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // Act
-        User result = userService.getUserByUsername("testuser");
+        UserSnapshot result = userService.getUserByUsername("testuser");
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.getUsername()).isEqualTo("testuser");
+        assertThat(result.username()).isEqualTo("testuser");
         verify(userRepository, times(1)).findByUsername("testuser");
     }
 
+    @Test
+    @DisplayName("getUserByEmail - should share the copy cached by a lookup by username")
+    void getUserByEmail_AfterLookupByUsername_ShouldShareCachedCopy() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        UserSnapshot byUsername = userService.getUserByUsername("testuser");
+
+        // Act
+        UserSnapshot byEmail = userService.getUserByEmail("test@example.com");
+
+        // Assert
+        assertThat(byEmail).isSameAs(byUsername);
+        assertThat(cacheManager.getCache("users").get(1L, UserSnapshot.class)).isSameAs(byUsername);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("getUserByEmail - should not trust an alias once the cached user changed email")
+    void getUserByEmail_WhenCachedUserRenamed_ShouldQueryAgain() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser), Optional.empty());
+        userService.getUserByEmail("test@example.com");
+        testUser.setEmail("renamed@example.com");
+        cacheManager.getCache("users").put(1L, UserSnapshot.of(testUser));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUserByEmail("test@example.com"))
+            .isInstanceOf(ResourceNotFoundException.class);
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+        assertThat(cacheManager.getCache("userIdsByEmail").get("test@example.com")).isNull();
+    }
+
     @Test
     @DisplayName("getUserByUsername - should throw ResourceNotFoundException when user not found")
     void getUserByUsername_WhenUserNotFound_ShouldThrowException() {
@@ -216,8 +308,6 @@ class UserServiceTest {
             .isActive(true)
             .build();
 
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(newUser);
 
         // Act
@@ -229,38 +319,50 @@ class UserServiceTest {
         assertThat(result.getUsername()).isEqualTo("newuser");
         assertThat(result.getEmail()).isEqualTo("new@example.com");
         assertThat(result.getIsActive()).isTrue();
-        verify(userRepository, times(1)).existsByEmail("new@example.com");
-        verify(userRepository, times(1)).existsByUsername("newuser");
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, never()).existsByUsername(anyString());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(outboxService, times(1)).recordUserEvent("UserCreated", newUser);
+        verify(cacheInvalidationBus, times(1)).putAfterCommit("users", 2L, UserSnapshot.of(newUser));
     }
 
     @Test
-    @DisplayName("createUser - should throw DuplicateResourceException when email exists")
+    @DisplayName("createUser - should translate email index violation into DuplicateResourceException")
     void createUser_WhenEmailExists_ShouldThrowException() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(uniqueViolation("idx_user_email"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.createUser(createUserInput))
             .isInstanceOf(DuplicateResourceException.class)
-            .hasMessageContaining("User already exists with email: new@example.com");
-        verify(userRepository, times(1)).existsByEmail("new@example.com");
-        verify(userRepository, never()).save(any(User.class));
+            .hasMessageContaining("User already exists with email: new@example.com")
+            .hasFieldOrPropertyWithValue("field", "email");
+        verify(outboxService, never()).recordUserEvent(anyString(), any(User.class));
     }
 
     @Test
-    @DisplayName("createUser - should throw DuplicateResourceException when username exists")
+    @DisplayName("createUser - should translate username index violation into DuplicateResourceException")
     void createUser_WhenUsernameExists_ShouldThrowException() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(uniqueViolation("PUBLIC.IDX_USER_USERNAME"));
 
         // Act & Assert
         assertThatThrownBy(() -> userService.createUser(createUserInput))
             .isInstanceOf(DuplicateResourceException.class)
-            .hasMessageContaining("User already exists with username: newuser");
-        verify(userRepository, times(1)).existsByUsername("newuser");
-        verify(userRepository, never()).save(any(User.class));
+            .hasMessageContaining("User already exists with username: newuser")
+            .hasFieldOrPropertyWithValue("field", "username");
+    }
+
+    @Test
+    @DisplayName("createUser - should rethrow integrity violations unrelated to uniqueness")
+    void createUser_WhenOtherConstraintViolated_ShouldRethrow() {
+        // Arrange
+        DataIntegrityViolationException violation = uniqueViolation("chk_users_something");
+        when(userRepository.save(any(User.class))).thenThrow(violation);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.createUser(createUserInput))
+            .isSameAs(violation);
     }
 
     @Test
@@ -268,17 +370,50 @@ class UserServiceTest {
     void updateUser_WhenValidInput_ShouldUpdateUser() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
-        User result = userService.updateUser(1L, updateUserInput);
+        User result = userService.updateUser(1L, updateUserInput, null);
 
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getFirstName()).isEqualTo("Updated");
         assertThat(result.getLastName()).isEqualTo("Name");
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).save(testUser);
+        verify(userRepository, times(1)).saveAndFlush(testUser);
+        verify(cacheInvalidationBus, times(1)).putAfterCommit("users", 1L, UserSnapshot.of(testUser));
+    }
+
+    @Test
+    @DisplayName("updateUser - should drop the old aliases when the username changes")
+    void updateUser_WhenUsernameChanges_ShouldForgetOldAliases() {
+        // Arrange
+        UpdateUserInput rename = UpdateUserInput.builder()
+            .username("renamed")
+            .build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.updateUser(1L, rename, null);
+
+        // Assert
+        verify(userAliasIndex, times(1)).forget("test@example.com", "testuser");
+    }
+
+    @Test
+    @DisplayName("updateUser - should throw OptimisticConflictException on stale expected version")
+    void updateUser_WhenExpectedVersionIsStale_ShouldThrowConflict() {
+        // Arrange
+        testUser.setVersion(5L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.updateUser(1L, updateUserInput, 4L))
+            .isInstanceOf(OptimisticConflictException.class)
+            .hasMessageContaining("User with id: 1");
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(optimisticLockMetrics, times(1)).recordConflict("User");
     }
 
     @Test
@@ -289,13 +424,14 @@ class UserServiceTest {
             .email("existing@example.com")
             .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("idx_user_email"));
 
         // Act & Assert
-        assertThatThrownBy(() -> userService.updateUser(1L, inputWithEmail))
+        assertThatThrownBy(() -> userService.updateUser(1L, inputWithEmail, null))
             .isInstanceOf(DuplicateResourceException.class)
             .hasMessageContaining("User already exists with email: existing@example.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(outboxService, never()).recordUserEvent(anyString(), any(User.class));
     }
 
     @Test
@@ -306,13 +442,13 @@ class UserServiceTest {
             .username("existinguser")
             .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.existsByUsername("existinguser")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("idx_user_username"));
 
         // Act & Assert
-        assertThatThrownBy(() -> userService.updateUser(1L, inputWithUsername))
+        assertThatThrownBy(() -> userService.updateUser(1L, inputWithUsername, null))
             .isInstanceOf(DuplicateResourceException.class)
             .hasMessageContaining("User already exists with username: existinguser");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByUsername(anyString());
     }
 
     @Test
@@ -323,15 +459,15 @@ class UserServiceTest {
             .email("test@example.com")
             .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
-        User result = userService.updateUser(1L, inputWithSameEmail);
+        User result = userService.updateUser(1L, inputWithSameEmail, null);
 
         // Assert
         assertThat(result).isNotNull();
         verify(userRepository, never()).existsByEmail(anyString());
-        verify(userRepository, times(1)).save(testUser);
+        verify(userRepository, times(1)).saveAndFlush(testUser);
     }
 
     @Test
@@ -339,7 +475,6 @@ class UserServiceTest {
     void deleteUser_WhenUserExists_ShouldDeleteUser() {
         // Arrange
         when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
 
         // Act
         boolean result = userService.deleteUser(1L);
@@ -347,7 +482,25 @@ class UserServiceTest {
         // Assert
         assertThat(result).isTrue();
         verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(userDeletionService, times(1)).deleteNow(1L);
+        verify(userDeletionService, never()).scheduleDeletion(anyLong());
+        verify(userRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("deleteUser - should schedule background deletion for large accounts")
+    void deleteUser_WhenAccountIsLarge_ShouldScheduleDeletion() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userDeletionService.shouldDeleteInBackground(1L)).thenReturn(true);
+
+        // Act
+        boolean result = userService.deleteUser(1L);
+
+        // Assert
+        assertThat(result).isTrue();
+        verify(userDeletionService, times(1)).scheduleDeletion(1L);
+        verify(userDeletionService, never()).deleteNow(anyLong());
     }
 
     @Test
@@ -361,6 +514,7 @@ class UserServiceTest {
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("User not found with id: 999");
         verify(userRepository, never()).deleteById(anyLong());
+        verify(userDeletionService, never()).deleteNow(anyLong());
     }
 
     @Test
@@ -380,11 +534,17 @@ class UserServiceTest {
         when(userRepository.findAllById(ids)).thenReturn(users);
 
         // Act
-        List<User> result = userService.getUsersByIds(ids);
+        List<UserSnapshot> result = userService.getUsersByIds(ids);
 
         // Assert
         assertThat(result).hasSize(2);
-        assertThat(result).containsExactlyInAnyOrder(testUser, user2);
+        assertThat(result).containsExactlyInAnyOrder(UserSnapshot.of(testUser), UserSnapshot.of(user2));
         verify(userRepository, times(1)).findAllById(ids);
     }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("could not execute statement",
+                new SQLException("unique violation", "23505"), constraintName));
+    }
 }
@@ -0,0 +1,191 @@
+package com.swiftbeard.todo_graphql.sharding;
+
+import com.swiftbeard.todo_graphql.dto.CreateTodoInput;
+import com.swiftbeard.todo_graphql.dto.CreateUserInput;
+import com.swiftbeard.todo_graphql.dto.TodoSnapshot;
+import com.swiftbeard.todo_graphql.entity.Todo;
+import com.swiftbeard.todo_graphql.entity.User;
+import com.swiftbeard.todo_graphql.exception.DuplicateResourceException;
+import com.swiftbeard.todo_graphql.service.TodoService;
+import com.swiftbeard.todo_graphql.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "todo.sharding.enabled=true",
+    "todo.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+    "todo.sharding.shards[0].username=sa",
+    "todo.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+    "todo.sharding.shards[1].username=sa",
+    "todo.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+    "todo.sharding.shards[2].username=sa",
+    "spring.jpa.open-in-view=false",
+    "todo.scheduling.enabled=false"
+})
+@DisplayName("Sharding Integration Tests")
+class ShardingIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.forEachShard(shard -> {
+            jdbcTemplate.update("DELETE FROM outbox_events");
+            jdbcTemplate.update("DELETE FROM todos");
+            jdbcTemplate.update("DELETE FROM users");
+        });
+    }
+
+    @Test
+    @DisplayName("createUser - should store each user only on the shard its id routes to")
+    void createUser_ShouldPlaceUsersByHash() {
+        // Act
+        List<User> users = createUsers("placed", 12);
+
+        // Assert
+        Set<Integer> usedShards = new HashSet<>();
+        for (User user : users) {
+            int shard = shardRouter.shardOf(user.getId());
+            usedShards.add(shard);
+            assertThat(shard).isEqualTo(shardRouter.shardForNewUser(user.getUsername()));
+            for (int other = 0; other < shardRouter.shardCount(); other++) {
+                assertThat(countOnShard(other, "users", user.getId())).isEqualTo(other == shard ? 1L : 0L);
+            }
+        }
+        assertThat(usedShards).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("createTodo - should store todos on their user's shard")
+    void createTodo_ShouldFollowUserShard() {
+        // Arrange
+        List<User> users = createUsers("owner", 6);
+
+        // Act & Assert
+        for (User user : users) {
+            Todo todo = todoService.createTodo(todoInput(user.getId(), "Todo of " + user.getUsername(), null));
+            int shard = shardRouter.shardOf(user.getId());
+            assertThat(shardRouter.shardOf(todo.getId())).isEqualTo(shard);
+            assertThat(countOnShard(shard, "todos", todo.getId())).isEqualTo(1L);
+            assertThat(todoService.getTodoById(todo.getId()).title()).isEqualTo(todo.getTitle());
+        }
+    }
+
+    @Test
+    @DisplayName("cross-shard queries - should scatter and merge results from every shard")
+    void crossShardQueries_ShouldMergeAllShards() {
+        // Arrange
+        List<User> users = createUsers("scatter", 9);
+        List<Long> userIds = new ArrayList<>();
+        for (User user : users) {
+            userIds.add(user.getId());
+            todoService.createTodo(todoInput(user.getId(), "Overdue " + user.getId(), LocalDateTime.now().minusDays(1)));
+            todoService.createTodo(todoInput(user.getId(), "Upcoming " + user.getId(), LocalDateTime.now().plusDays(1)));
+        }
+
+        // Act
+        List<Todo> allTodos = todoService.getAllTodos();
+        List<Todo> overdueTodos = todoService.getOverdueTodos();
+        Map<Long, List<TodoSnapshot>> todosByUser = todoService.getTodosByUserIds(userIds);
+        List<User> searchResult = userService.searchUsers("scatter");
+
+        // Assert
+        assertThat(allTodos).hasSize(18);
+        assertThat(overdueTodos).hasSize(9);
+        assertThat(todosByUser).hasSize(9);
+        assertThat(todosByUser.values()).allMatch(todos -> todos.size() == 2);
+        assertThat(searchResult).hasSize(9);
+        assertThat(userService.getUsersByIds(userIds)).hasSize(9);
+    }
+
+    @Test
+    @DisplayName("lookups by email and username - should find users on any shard")
+    void lookupsByNaturalKey_ShouldFindUsersOnAnyShard() {
+        // Arrange
+        List<User> users = createUsers("lookup", 6);
+
+        // Act & Assert
+        for (User user : users) {
+            assertThat(userService.getUserByEmail(user.getEmail()).id()).isEqualTo(user.getId());
+            assertThat(userService.getUserByUsername(user.getUsername()).id()).isEqualTo(user.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("createUser - should reject an email that already exists on another shard")
+    void createUser_WithEmailOnAnotherShard_ShouldThrow() {
+        // Arrange
+        User existing = createUsers("unique", 1).get(0);
+        String otherUsername = "unique-other";
+        for (int i = 0; shardRouter.shardForNewUser(otherUsername) == shardRouter.shardOf(existing.getId()); i++) {
+            otherUsername = "unique-other" + i;
+        }
+        CreateUserInput duplicate = CreateUserInput.builder()
+            .username(otherUsername)
+            .email(existing.getEmail())
+            .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.createUser(duplicate))
+            .isInstanceOf(DuplicateResourceException.class)
+            .hasMessageContaining("email");
+    }
+
+    @Test
+    @DisplayName("firstIdOnShard - should return the next id with the shard's residue")
+    void firstIdOnShard_ShouldMatchResidue() {
+        assertThat(ShardSchemaInitializer.firstIdOnShard(0, 0, 3)).isEqualTo(3);
+        assertThat(ShardSchemaInitializer.firstIdOnShard(0, 1, 3)).isEqualTo(1);
+        assertThat(ShardSchemaInitializer.firstIdOnShard(0, 2, 3)).isEqualTo(2);
+        assertThat(ShardSchemaInitializer.firstIdOnShard(10, 1, 3)).isEqualTo(13);
+        assertThat(ShardSchemaInitializer.firstIdOnShard(10, 2, 3)).isEqualTo(11);
+    }
+
+    private List<User> createUsers(String prefix, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(userService.createUser(CreateUserInput.builder()
+                .username(prefix + i)
+                .email(prefix + i + "@example.com")
+                .build()));
+        }
+        return users;
+    }
+
+    private CreateTodoInput todoInput(Long userId, String title, LocalDateTime dueDate) {
+        return CreateTodoInput.builder()
+            .userId(userId)
+            .title(title)
+            .dueDate(dueDate)
+            .build();
+    }
+
+    private long countOnShard(int shard, String table, Long id) {
+        return shardRouter.onShard(shard, () ->
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Long.class, id));
+    }
+}